@@ -0,0 +1,167 @@
+package io.github.the_actual_game.benchmarks;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.constants.LevelConfig;
+import io.github.the_actual_game.constants.LevelRepository;
+import io.github.the_actual_game.entities.EnemyStore;
+import io.github.the_actual_game.entities.GateStore;
+import io.github.the_actual_game.entities.GateType;
+import io.github.the_actual_game.entities.PlayerManager;
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.World;
+
+/**
+ * Autoplay input for the first player. A policy is made of two choices: which gate of an approaching
+ * pair to take, and which enemy to stand under. Its name is {@code gates/targeting}, e.g.
+ * {@code best/triage}. A policy only reads the world, as a player reads the screen. Its only
+ * state is the wandering baseline's target, so give each thread its own instance.
+ */
+public class AutoplayPolicy {
+    /** Which gate of the next pair to walk through. */
+    public enum Gates {
+        IGNORE, // Take whichever gate the enemies lead to
+        BEST,   // The higher power level
+        SPEED,  // The higher power level, with a bonus for SPEED gates
+        SHOTS   // The same for SHOTS gates
+    }
+
+    /** Which enemy to stand under. */
+    public enum Targeting {
+        LOWEST, // The lowest enemy still above the line, as the replay bot does
+        TRIAGE, // The lowest enemy that can still be killed before it passes; gives up on the rest
+        WANDER  // Random walk, a no-skill baseline
+    }
+
+    private static final int PREFERRED_TYPE_BONUS = 3; // Power levels a preferred gate type is worth
+    private static final float GATE_COMMIT_SECONDS = GameConstants.SCREEN_WIDTH / GameConstants.PLAYER_SPEED + 0.25f;
+    private static final float DEAD_ZONE = 2; // Pixels either side of the target that count as under it
+    private static final float WANDER_TURN_CHANCE = 0.01f; // Per step
+
+    private final Gates gates;
+    private final Targeting targeting;
+    private final RandomXS128 random = new RandomXS128();
+    private float wanderTarget;
+
+    public AutoplayPolicy(Gates gates, Targeting targeting) {
+        this.gates = gates;
+        this.targeting = targeting;
+    }
+
+    /** Parses {@code gates/targeting}, case-insensitive. */
+    public static AutoplayPolicy parse(String name) {
+        String[] parts = name.split("/");
+        if (parts.length != 2) throw new IllegalArgumentException("Policy must be gates/targeting: " + name);
+        return new AutoplayPolicy(Gates.valueOf(parts[0].toUpperCase()), Targeting.valueOf(parts[1].toUpperCase()));
+    }
+
+    /** Call at the start of each session so the wandering baseline replays with the session. */
+    public void reset(long seed) {
+        random.setSeed(seed);
+        wanderTarget = GameConstants.SCREEN_WIDTH / 2;
+    }
+
+    public void steer(World world, InputState input) {
+        if (world.getGameStateManager().isLevelComplete()) {
+            input.set(false, false, true);
+            return;
+        }
+        PlayerManager playerManager = world.getPlayerManager();
+        Rectangle player = playerManager.getPlayer();
+        LevelConfig config = LevelRepository.get(world.getEnemyManager().getCurrentLevel() - 1);
+        float center = player.x + player.width / 2;
+
+        // Once the next gate pair is close, stay inside the chosen gate and fight from there
+        float minX = 0, maxX = GameConstants.SCREEN_WIDTH;
+        int gate = gates == Gates.IGNORE ? -1 : chooseGate(world.getGateManager().getGates(), player, center, config);
+        if (gate >= 0) {
+            GateStore store = world.getGateManager().getGates();
+            minX = store.getX(gate);
+            maxX = minX + store.getWidth(gate);
+        }
+
+        float target;
+        if (targeting == Targeting.WANDER) {
+            if (random.nextFloat() < WANDER_TURN_CHANCE || Math.abs(wanderTarget - center) <= DEAD_ZONE) {
+                wanderTarget = random.nextFloat() * GameConstants.SCREEN_WIDTH;
+            }
+            target = wanderTarget;
+        } else {
+            target = chooseEnemy(world.getEnemyManager().getEnemies(), playerManager, center, config, minX, maxX);
+        }
+        target = Math.max(minX + player.width / 2, Math.min(maxX - player.width / 2, target));
+        input.set(target < center - DEAD_ZONE, target > center + DEAD_ZONE, false);
+    }
+
+    // The better gate of the lowest pair still above the player, once it is due within a screen crossing; -1 if none is
+    private int chooseGate(GateStore store, Rectangle player, float center, LevelConfig config) {
+        int lowest = -1;
+        for (int i = 0, n = store.size(); i < n; i++) {
+            if (store.isUsed(i) || store.getY(i) + store.getHeight(i) < player.y) continue;
+            if (lowest < 0 || store.getY(i) < store.getY(lowest)) lowest = i;
+        }
+        if (lowest < 0) return -1;
+        float arrival = (store.getY(lowest) - player.y - player.height) / config.getGateSpeed();
+        if (arrival > GATE_COMMIT_SECONDS) return -1;
+
+        int best = lowest;
+        for (int i = 0, n = store.size(); i < n; i++) {
+            if (i == lowest || store.isUsed(i) || store.getY(i) != store.getY(lowest)) continue;
+            int score = gateScore(store, i), bestScore = gateScore(store, best);
+            // On a tie keep to the gate already overhead, so the player does not cross for nothing
+            if (score > bestScore || score == bestScore && contains(store, i, center)) best = i;
+        }
+        return best;
+    }
+
+    private int gateScore(GateStore store, int gate) {
+        GateType type = store.getType(gate);
+        boolean preferred = gates == Gates.SPEED && type == GateType.SPEED || gates == Gates.SHOTS && type == GateType.SHOTS;
+        return store.getPowerLevel(gate) + (preferred ? PREFERRED_TYPE_BONUS : 0);
+    }
+
+    private static boolean contains(GateStore store, int gate, float x) {
+        return x >= store.getX(gate) && x < store.getX(gate) + store.getWidth(gate);
+    }
+
+    // Centre of the enemy to stand under, preferring ones inside [minX, maxX); the player's own centre if there are none
+    private float chooseEnemy(EnemyStore enemies, PlayerManager playerManager, float center, LevelConfig config,
+                              float minX, float maxX) {
+        Rectangle player = playerManager.getPlayer();
+        int inside = -1, anywhere = -1, lowestInside = -1, lowestAnywhere = -1;
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            if (!enemies.isAlive(i) || enemies.getY(i) + enemies.getHeight(i) < player.y) continue; // Already past
+            float x = enemies.getX(i) + enemies.getWidth(i) / 2;
+            boolean isInside = x >= minX && x < maxX;
+            if (lowestAnywhere < 0 || enemies.getY(i) < enemies.getY(lowestAnywhere)) lowestAnywhere = i;
+            if (isInside && (lowestInside < 0 || enemies.getY(i) < enemies.getY(lowestInside))) lowestInside = i;
+            if (targeting == Targeting.TRIAGE && !canKill(enemies, i, playerManager, center, config)) continue;
+            if (anywhere < 0 || enemies.getY(i) < enemies.getY(anywhere)) anywhere = i;
+            if (isInside && (inside < 0 || enemies.getY(i) < enemies.getY(inside))) inside = i;
+        }
+        // Triage falls back to the lowest enemy when every one is lost anyway
+        int chosen = inside >= 0 ? inside : anywhere >= 0 ? anywhere : lowestInside >= 0 ? lowestInside : lowestAnywhere;
+        return chosen >= 0 ? enemies.getX(chosen) + enemies.getWidth(chosen) / 2 : center;
+    }
+
+    // Whether walking under the enemy and shooting it dead beats it to the player's line
+    private static boolean canKill(EnemyStore enemies, int i, PlayerManager playerManager, float center, LevelConfig config) {
+        Rectangle player = playerManager.getPlayer();
+        float width = enemies.getWidth(i);
+        float secondsLeft = (enemies.getY(i) + enemies.getHeight(i) - player.y) / config.getEnemySpeed();
+        float walk = Math.abs(enemies.getX(i) + width / 2 - center) / GameConstants.PLAYER_SPEED;
+        float flight = (enemies.getY(i) - player.y - player.height) / (config.getBulletSpeed() + config.getEnemySpeed());
+        // Only the bullets of the spread that overlap the enemy hit it
+        int onTarget = Math.max(1, Math.min(playerManager.getShotCount(),
+                                            (int) ((width + GameConstants.BULLET_WIDTH) / GameConstants.MULTI_SHOT_SPREAD)));
+        int volleys = (enemies.getLife(i) + onTarget - 1) / onTarget;
+        return walk + flight + volleys * playerManager.getShootingInterval() <= secondsLeft;
+    }
+
+    @Override
+    public String toString() {
+        return gates.name().toLowerCase() + "/" + targeting.name().toLowerCase();
+    }
+}
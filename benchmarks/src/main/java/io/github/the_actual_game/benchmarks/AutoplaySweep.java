@@ -0,0 +1,371 @@
+package io.github.the_actual_game.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.constants.LevelConfig;
+import io.github.the_actual_game.constants.LevelRepository;
+import io.github.the_actual_game.entities.PlayerManager;
+import io.github.the_actual_game.screens.GameStateManager;
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.World;
+
+/**
+ * Monte Carlo balance tool: plays thousands of headless sessions per level with {@link AutoplayPolicy}
+ * bots on every core. For each level, policy and point of the parameter grid it reports the win rate,
+ * the time to clear, the lives lost, and the shot count and shooting interval the player ends on.
+ * <p>
+ * A session plays one level from a fresh start, with full lives and default shots, and ends when the
+ * level is cleared, the player is out of lives or {@code --maxSeconds} have passed. With
+ * {@code --campaign} each session starts at level 1 and carries lives and gate upgrades from level
+ * to level as the game does, and each level it reaches counts once for that level. Session i always
+ * uses the same seed, whatever the policy or grid point. Rows then differ only by what is being
+ * compared, so a few thousand sessions separate them well.
+ * <p>
+ * Levels come from {@code --levelsFile}, by default {@value LevelRepository#SOURCE_FILE} under the
+ * working directory, or the built-in table without it. Grid values with an {@code x} suffix scale each level's own value, plain ones replace it:
+ * <pre>
+ * --levels 1-5 --sessions 2000 --policies best/triage,ignore/lowest
+ * --enemyLife 0.5x,1x,2x --enemyCount 1x --gateSpawnInterval 3,5,8
+ * --maxSeconds 300 --threads 8 --seed 1 --campaign --csv sweep.csv
+ * </pre>
+ * Run through the autoplay task, e.g. {@code ./gradlew :benchmarks:autoplay -PautoplayArgs="--sessions 5000"}.
+ */
+public class AutoplaySweep {
+    private static final String[] DEFAULT_POLICIES = { "ignore/lowest", "best/lowest", "best/triage", "shots/triage", "speed/triage" };
+    private static final int SESSIONS_PER_TASK = 50;
+    private static final float CLEAR_TIME_BIN = 0.25f; // Seconds
+    private static final int INTERVAL_BINS_PER_SECOND = 100; // Gates move the interval in steps of 0.02 s
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        Map<String, String> options = parseOptions(args);
+        // The hand-written table the game ships, when run from the assets folder; otherwise the built-in one
+        Path levelsFile = Paths.get(options.getOrDefault("levelsFile", LevelRepository.SOURCE_FILE));
+        if (Files.exists(levelsFile)) {
+            LevelRepository.setLevels(LevelRepository.parseJson(Files.readString(levelsFile, StandardCharsets.UTF_8)));
+        }
+        int sessions = Integer.parseInt(options.getOrDefault("sessions", "1000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        float maxSeconds = Float.parseFloat(options.getOrDefault("maxSeconds", "300"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", Integer.toString(Runtime.getRuntime().availableProcessors())));
+        boolean campaign = options.containsKey("campaign");
+        int[] levels = parseLevels(options.getOrDefault("levels", "1-" + LevelRepository.count()));
+        String[] policies = options.containsKey("policies") ? options.get("policies").split(",") : DEFAULT_POLICIES;
+        for (String policy : policies) {
+            AutoplayPolicy.parse(policy); // Fail on a typo before the first hour of simulation
+        }
+        String[] lifeValues = options.getOrDefault("enemyLife", "1x").split(",");
+        String[] countValues = options.getOrDefault("enemyCount", "1x").split(",");
+        String[] intervalValues = options.getOrDefault("gateSpawnInterval", "1x").split(",");
+        int maxSteps = (int) (maxSeconds * GameConstants.SIMULATION_RATE);
+
+        LevelConfig[] baseline = new LevelConfig[LevelRepository.count()];
+        for (int i = 0; i < baseline.length; i++) {
+            baseline[i] = LevelRepository.get(i);
+        }
+        PrintWriter csv = null;
+        if (options.containsKey("csv")) {
+            csv = new PrintWriter(Files.newBufferedWriter(Paths.get(options.get("csv")), StandardCharsets.UTF_8));
+            csv.println("enemyLife,enemyCount,gateSpawnInterval,level,policy,sessions,wins,timeouts,clear_p50_s,clear_p90_s,"
+                        + "lives_lost_mean,shots_mean,interval_p10_s,interval_p50_s,interval_p90_s");
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long steps = 0;
+        try {
+            for (String life : lifeValues) {
+                for (String count : countValues) {
+                    for (String interval : intervalValues) {
+                        // Managers read the table when a level starts, so it may only change between points
+                        LevelConfig[] table = new LevelConfig[baseline.length];
+                        for (int i = 0; i < table.length; i++) {
+                            LevelConfig level = baseline[i];
+                            table[i] = new LevelConfig(level.getLevel(),
+                                                       apply(count, level.getEnemyCount()),
+                                                       level.getEnemySpeed(),
+                                                       apply(life, level.getEnemyLife()),
+                                                       level.getGateSpeed(),
+                                                       apply(interval, level.getGateSpawnInterval()),
+                                                       level.getBulletSpeed());
+                        }
+                        LevelRepository.setLevels(table);
+                        System.out.printf("%nenemyLife %s, enemyCount %s, gateSpawnInterval %s%n", life, count, interval);
+                        System.out.printf("%-6s %-14s %7s %6s %6s %15s %10s %17s %10s %18s%n", "level", "policy", "runs",
+                                          "win%", "t/o%", "clear p50/p90 s", "lives lost", "lost 0/1/2/3 %",
+                                          "shots", "interval p10/50/90");
+                        for (String policy : policies) {
+                            Tally[] tallies = run(pool, policy, levels, sessions, seed, maxSteps, campaign);
+                            for (int level : levels) {
+                                tallies[level].print(level + 1, policy);
+                                if (csv != null) tallies[level].printCsv(csv, life, count, interval, level + 1, policy);
+                            }
+                            steps += totalSteps(tallies);
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+            LevelRepository.setLevels(baseline);
+            if (csv != null) csv.close();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%n%d steps (%.0f hours of play) in %.1f s on %d threads, %.1f M steps/s%n", steps,
+                          steps / (double) GameConstants.SIMULATION_RATE / 3600, seconds, threads, steps / seconds / 1e6);
+    }
+
+    // Splits the sessions of every level into tasks and sums what they tallied
+    private static Tally[] run(ExecutorService pool, String policy, int[] levels, int sessions, long seed, int maxSteps,
+                               boolean campaign) throws InterruptedException, ExecutionException {
+        int lastLevel = levels[levels.length - 1];
+        List<Callable<Tally[]>> tasks = new ArrayList<>();
+        for (int first = 0; first < sessions; first += SESSIONS_PER_TASK) {
+            int from = first, to = Math.min(sessions, first + SESSIONS_PER_TASK);
+            if (campaign) {
+                tasks.add(() -> playSessions(policy, 0, lastLevel, from, to, seed, maxSteps));
+            } else {
+                for (int level : levels) {
+                    tasks.add(() -> playSessions(policy, level, level, from, to, seed, maxSteps));
+                }
+            }
+        }
+        Tally[] totals = newTallies();
+        for (Future<Tally[]> result : pool.invokeAll(tasks)) {
+            Tally[] tallies = result.get();
+            for (int i = 0; i < totals.length; i++) {
+                totals[i].add(tallies[i]);
+            }
+        }
+        return totals;
+    }
+
+    // Runs on a pool thread with a world of its own; the shared job pool is left alone, see the autoplay task
+    private static Tally[] playSessions(String policyName, int firstLevel, int lastLevel, int from, int to, long seed,
+                                        int maxSteps) {
+        Tally[] tallies = newTallies();
+        AutoplayPolicy policy = AutoplayPolicy.parse(policyName);
+        World world = new World(seed);
+        InputState input = new InputState();
+        try {
+            for (int session = from; session < to; session++) {
+                long sessionSeed = seed + session * 0x9E3779B97F4A7C15L + firstLevel * 0xC2B2AE3D27D4EB4FL;
+                play(world, policy, input, sessionSeed, firstLevel, lastLevel, maxSteps, tallies);
+            }
+        } finally {
+            world.dispose();
+        }
+        return tallies;
+    }
+
+    // One session from firstLevel, going on through lastLevel after each clear
+    private static void play(World world, AutoplayPolicy policy, InputState input, long seed, int firstLevel, int lastLevel,
+                             int maxSteps, Tally[] tallies) {
+        world.reset(seed);
+        if (firstLevel > 0) {
+            world.setLevel(firstLevel);
+        }
+        policy.reset(seed);
+        GameStateManager state = world.getGameStateManager();
+        PlayerManager player = world.getPlayerManager();
+        int level = firstLevel;
+        int livesAtStart = player.getLives();
+        int steps = 0;
+        while (true) {
+            if (state.isLevelComplete()) {
+                tallies[level].record(Outcome.CLEARED, steps, livesAtStart - player.getLives(), player);
+                if (level == lastLevel || level + 1 >= LevelRepository.count()) return;
+                input.set(false, false, true);
+                world.step(input, Scenario.DELTA);
+                level++;
+                livesAtStart = player.getLives();
+                steps = 0;
+            } else if (state.isGameOver()) {
+                tallies[level].record(Outcome.LOST, steps, livesAtStart - player.getLives(), player);
+                return;
+            } else if (steps >= maxSteps) {
+                tallies[level].record(Outcome.TIMED_OUT, steps, livesAtStart - player.getLives(), player);
+                return;
+            }
+            policy.steer(world, input);
+            world.step(input, Scenario.DELTA);
+            steps++;
+        }
+    }
+
+    private static Tally[] newTallies() {
+        Tally[] tallies = new Tally[LevelRepository.count()];
+        for (int i = 0; i < tallies.length; i++) {
+            tallies[i] = new Tally();
+        }
+        return tallies;
+    }
+
+    private static long totalSteps(Tally[] tallies) {
+        long steps = 0;
+        for (Tally tally : tallies) {
+            steps += tally.steps;
+        }
+        return steps;
+    }
+
+    // "1.5x" scales the level's value, "8" replaces it; never below 1
+    private static int apply(String value, int levelValue) {
+        if (value.endsWith("x")) {
+            return Math.max(1, Math.round(levelValue * Float.parseFloat(value.substring(0, value.length() - 1))));
+        }
+        return Math.max(1, Integer.parseInt(value));
+    }
+
+    // "1-3,5" to 0-based indices 0, 1, 2, 4, in order
+    private static int[] parseLevels(String spec) {
+        List<Integer> levels = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] range = part.split("-");
+            int first = Integer.parseInt(range[0]);
+            int last = range.length > 1 ? Integer.parseInt(range[1]) : first;
+            for (int level = first; level <= last; level++) {
+                if (level < 1 || level > LevelRepository.count()) {
+                    throw new IllegalArgumentException("No level " + level + ", there are " + LevelRepository.count());
+                }
+                if (!levels.contains(level - 1)) levels.add(level - 1);
+            }
+        }
+        levels.sort(null);
+        return levels.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                System.err.println("Usage: [--levels 1-5] [--sessions n] [--policies gates/targeting,...] [--enemyLife v,...]"
+                                   + " [--enemyCount v,...] [--gateSpawnInterval v,...] [--maxSeconds s] [--threads n]"
+                                   + " [--seed n] [--campaign] [--levelsFile file] [--csv file]");
+                System.exit(2);
+            }
+            String key = args[i].substring(2);
+            boolean flag = i + 1 == args.length || args[i + 1].startsWith("--");
+            options.put(key, flag ? "" : args[++i]);
+        }
+        return options;
+    }
+
+    private enum Outcome { CLEARED, LOST, TIMED_OUT }
+
+    /** What the sessions of one level and policy came to; tasks tally separately and are summed after. */
+    private static class Tally {
+        int sessions, cleared, timedOut;
+        long steps;
+        int[] clearTimeBins = new int[64]; // Seconds to clear, in CLEAR_TIME_BIN bins; grows
+        final int[] livesLost = new int[GameConstants.PLAYER_DEFAULT_LIFE + 1];
+        final int[] shotCounts = new int[GameConstants.MAX_SHOT_COUNT + 1];
+        final int[] intervals = new int[Math.round(GameConstants.MAX_SHOOTING_INTERVAL * INTERVAL_BINS_PER_SECOND) + 1];
+
+        void record(Outcome outcome, int sessionSteps, int lost, PlayerManager player) {
+            sessions++;
+            steps += sessionSteps;
+            if (outcome == Outcome.CLEARED) {
+                cleared++;
+                int bin = (int) (sessionSteps / (float) GameConstants.SIMULATION_RATE / CLEAR_TIME_BIN);
+                countClearTime(bin, 1);
+            } else if (outcome == Outcome.TIMED_OUT) {
+                timedOut++;
+            }
+            livesLost[Math.min(Math.max(lost, 0), livesLost.length - 1)]++;
+            shotCounts[player.getShotCount()]++;
+            intervals[Math.round(player.getShootingInterval() * INTERVAL_BINS_PER_SECOND)]++;
+        }
+
+        private void countClearTime(int bin, int count) {
+            if (bin >= clearTimeBins.length) {
+                clearTimeBins = Arrays.copyOf(clearTimeBins, Math.max(bin + 1, clearTimeBins.length * 2));
+            }
+            clearTimeBins[bin] += count;
+        }
+
+        void add(Tally other) {
+            sessions += other.sessions;
+            cleared += other.cleared;
+            timedOut += other.timedOut;
+            steps += other.steps;
+            for (int i = 0; i < other.clearTimeBins.length; i++) {
+                if (other.clearTimeBins[i] > 0) countClearTime(i, other.clearTimeBins[i]);
+            }
+            for (int i = 0; i < livesLost.length; i++) livesLost[i] += other.livesLost[i];
+            for (int i = 0; i < shotCounts.length; i++) shotCounts[i] += other.shotCounts[i];
+            for (int i = 0; i < intervals.length; i++) intervals[i] += other.intervals[i];
+        }
+
+        // Upper edge of the bin holding the given fraction of the samples; NaN without samples
+        private static float percentile(int[] bins, int total, float fraction, float binWidth) {
+            if (total == 0) return Float.NaN;
+            int rank = (int) Math.ceil(fraction * total);
+            int seen = 0;
+            for (int i = 0; i < bins.length; i++) {
+                seen += bins[i];
+                if (seen >= Math.max(rank, 1)) return (i + 1) * binWidth;
+            }
+            return bins.length * binWidth;
+        }
+
+        float clearPercentile(float fraction) {
+            return percentile(clearTimeBins, cleared, fraction, CLEAR_TIME_BIN);
+        }
+
+        // Intervals sit exactly on bin centres, so report the bin itself rather than its upper edge
+        float intervalPercentile(float fraction) {
+            return percentile(intervals, sessions, fraction, 1f / INTERVAL_BINS_PER_SECOND) - 1f / INTERVAL_BINS_PER_SECOND;
+        }
+
+        float meanLivesLost() {
+            long sum = 0;
+            for (int i = 0; i < livesLost.length; i++) sum += (long) i * livesLost[i];
+            return sessions == 0 ? Float.NaN : sum / (float) sessions;
+        }
+
+        float meanShots() {
+            long sum = 0;
+            for (int i = 0; i < shotCounts.length; i++) sum += (long) i * shotCounts[i];
+            return sessions == 0 ? Float.NaN : sum / (float) sessions;
+        }
+
+        float percentOf(int count) {
+            return sessions == 0 ? 0 : 100f * count / sessions;
+        }
+
+        void print(int level, String policy) {
+            StringBuilder lost = new StringBuilder();
+            for (int i = 0; i < livesLost.length; i++) {
+                lost.append(i > 0 ? "/" : "").append(Math.round(percentOf(livesLost[i])));
+            }
+            System.out.printf(Locale.ROOT, "%-6d %-14s %7d %6.1f %6.1f %7.1f/%-7.1f %10.2f %17s %10.2f %6.2f/%.2f/%.2f%n",
+                              level, policy, sessions, percentOf(cleared), percentOf(timedOut),
+                              clearPercentile(0.5f), clearPercentile(0.9f), meanLivesLost(), lost, meanShots(),
+                              intervalPercentile(0.1f), intervalPercentile(0.5f), intervalPercentile(0.9f));
+        }
+
+        void printCsv(PrintWriter csv, String life, String count, String interval, int level, String policy) {
+            csv.printf(Locale.ROOT, "%s,%s,%s,%d,%s,%d,%d,%d,%.2f,%.2f,%.3f,%.3f,%.2f,%.2f,%.2f%n", life, count, interval,
+                       level, policy, sessions, cleared, timedOut, clearPercentile(0.5f), clearPercentile(0.9f),
+                       meanLivesLost(), meanShots(), intervalPercentile(0.1f), intervalPercentile(0.5f),
+                       intervalPercentile(0.9f));
+        }
+    }
+}
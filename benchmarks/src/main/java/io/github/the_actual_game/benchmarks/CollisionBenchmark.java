@@ -0,0 +1,74 @@
+package io.github.the_actual_game.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.the_actual_game.collision.CollisionBackend;
+import io.github.the_actual_game.collision.CollisionSystem;
+import io.github.the_actual_game.collision.UniformGridCollisionSystem;
+import io.github.the_actual_game.entities.BulletView;
+
+/**
+ * The bullet-vs-enemy pass from {@code World}: one broadphase rebuild plus one query per bullet.
+ * Bullets are not removed, so every invocation does the same work. UNIFORM_GRID rows at 32 enemies or
+ * fewer measure the brute-force scan the grid falls back to; UNIFORM_GRID_NO_SCAN rows always measure the grid.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+    /** Not a {@link CollisionBackend}: the grid with its scan limit at 0, so it is built at any enemy count. */
+    static final String UNIFORM_GRID_NO_SCAN = "UNIFORM_GRID_NO_SCAN";
+
+    @Param({"BRUTE_FORCE", "UNIFORM_GRID", UNIFORM_GRID_NO_SCAN, "BOX2D"})
+    public String backend;
+
+    private CollisionSystem collisionSystem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        collisionSystem = create(backend);
+    }
+
+    /** A {@link CollisionBackend} by name, or {@link #UNIFORM_GRID_NO_SCAN}. */
+    static CollisionSystem create(String backend) {
+        if (backend.equals(UNIFORM_GRID_NO_SCAN)) {
+            return new UniformGridCollisionSystem(UniformGridCollisionSystem.DEFAULT_CELL_SIZE, 0);
+        }
+        return CollisionBackend.valueOf(backend).create();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        collisionSystem.dispose();
+    }
+
+    @Benchmark
+    public int bulletsVsEnemies(Scenario scenario) {
+        collisionSystem.update(scenario.enemyManager.getEnemies());
+        BulletView bullets = scenario.playerManager.getBullets();
+        int hits = 0;
+        for (int i = bullets.size() - 1; i >= 0; i--) {
+            if (collisionSystem.queryFirst(bullets.getX(i), bullets.getY(i), bullets.getWidth(), bullets.getHeight()) >= 0) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
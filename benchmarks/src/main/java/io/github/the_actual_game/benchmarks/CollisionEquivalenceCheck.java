@@ -0,0 +1,159 @@
+package io.github.the_actual_game.benchmarks;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+
+import io.github.the_actual_game.collision.CollisionBackend;
+import io.github.the_actual_game.collision.CollisionSystem;
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.entities.EnemyStore;
+
+/**
+ * Checks that every collision backend reports the same hits as the brute-force reference. Enemy
+ * layouts from a handful up to a swarm, on both sides of the uniform grid's scan limit, are moved,
+ * thinned out and refilled over a number of rounds, and after each rebuild the same bullet and
+ * player boxes go through {@link CollisionSystem#queryFirst} and {@link CollisionSystem#querySwept}
+ * on every backend. Some boxes are snapped to grid cell edges, some layouts share rows and columns
+ * so the swept order has to break ties, and some enemies are dead or sit outside the grid. The
+ * uniform grid is checked as the game runs it and, as {@link CollisionBenchmark#UNIFORM_GRID_NO_SCAN},
+ * with its scan fallback off.
+ * <p>
+ * Pass backend names to compare only those against the reference. Exits non-zero on the first
+ * difference. Wired into {@code ./gradlew check} by the collisionCheck task.
+ */
+public class CollisionEquivalenceCheck {
+    private static final String[] LAYOUTS = { "level", "scattered", "swarm", "aligned" };
+    private static final int[] ENEMY_COUNTS = { 0, 1, 7, 32, 33, 200, 2000 };
+    private static final int ROUNDS = 20;
+    private static final int QUERIES = 200; // Per round and query kind
+    private static final float CELL_EDGE = 16; // The grid's default cell size, where off-by-one bucketing would show
+
+    public static void main(String[] args) {
+        String[] backends = args;
+        if (backends.length == 0) {
+            CollisionBackend[] values = CollisionBackend.values();
+            backends = new String[values.length + 1];
+            for (int i = 0; i < values.length; i++) {
+                backends[i] = values[i].name();
+            }
+            backends[values.length] = CollisionBenchmark.UNIFORM_GRID_NO_SCAN;
+        }
+        CollisionSystem reference = CollisionBackend.BRUTE_FORCE.create();
+        CollisionSystem[] systems = new CollisionSystem[backends.length];
+        for (int i = 0; i < backends.length; i++) {
+            systems[i] = CollisionBenchmark.create(backends[i]);
+        }
+
+        RandomXS128 random = new RandomXS128(Scenario.SEED);
+        EnemyStore enemies = new EnemyStore(64);
+        long queries = 0, hits = 0;
+        for (String layout : LAYOUTS) {
+            for (int count : ENEMY_COUNTS) {
+                enemies.clear();
+                fill(enemies, layout, count, random);
+                for (int round = 0; round < ROUNDS; round++) {
+                    reference.update(enemies);
+                    for (CollisionSystem system : systems) {
+                        system.update(enemies);
+                    }
+                    for (int q = 0; q < QUERIES; q++) {
+                        boolean player = q % 8 == 0;
+                        float width = player ? GameConstants.PLAYER_WIDTH : GameConstants.BULLET_WIDTH;
+                        float height = player ? GameConstants.PLAYER_HEIGHT : GameConstants.BULLET_HEIGHT;
+                        float x = random.nextFloat() * (GameConstants.SCREEN_WIDTH + width) - width;
+                        float y = random.nextFloat() * (2.5f * GameConstants.SCREEN_HEIGHT) - height;
+                        if (q % 4 == 1) {
+                            x = MathUtils.floor(x / CELL_EDGE) * CELL_EDGE;
+                            y = MathUtils.floor(y / CELL_EDGE) * CELL_EDGE;
+                        }
+                        float rise = q % 5 == 0 ? 0 : random.nextFloat() * 3 * GameConstants.ENEMY_HEIGHT;
+
+                        int first = reference.queryFirst(x, y, width, height);
+                        int swept = reference.querySwept(x, y, width, height, rise);
+                        for (int i = 0; i < systems.length; i++) {
+                            int otherFirst = systems[i].queryFirst(x, y, width, height);
+                            int otherSwept = systems[i].querySwept(x, y, width, height, rise);
+                            if (otherFirst != first || otherSwept != swept) {
+                                System.err.printf("%s layout, %d enemies, round %d: box %.3f,%.3f %.0fx%.0f rise %.3f%n",
+                                                  layout, enemies.size(), round, x, y, width, height, rise);
+                                System.err.printf("%s reports queryFirst %d and querySwept %d, %s reports %d and %d%n",
+                                                  CollisionBackend.BRUTE_FORCE, first, swept, backends[i], otherFirst, otherSwept);
+                                System.exit(1);
+                            }
+                        }
+                        queries += 2;
+                        if (first >= 0) hits++;
+                        if (swept >= 0) hits++;
+                    }
+                    advance(enemies, layout, count, random);
+                }
+            }
+        }
+        reference.dispose();
+        for (CollisionSystem system : systems) {
+            system.dispose();
+        }
+
+        System.out.printf("%d queries, %d of them hits, matched the brute-force reference on %s%n", queries, hits,
+                          String.join(", ", backends));
+    }
+
+    private static void fill(EnemyStore enemies, String layout, int count, RandomXS128 random) {
+        for (int i = 0; i < count; i++) {
+            add(enemies, layout, i, random);
+        }
+    }
+
+    private static void add(EnemyStore enemies, String layout, int i, RandomXS128 random) {
+        float width = GameConstants.ENEMY_WIDTH, height = GameConstants.ENEMY_HEIGHT;
+        float x, y;
+        switch (layout) {
+            case "level":
+                // Rows of a pane's worth of enemies, with the odd boss, as the levels spawn them
+                if (i % 10 == 9) {
+                    width *= 2;
+                    height *= 2;
+                }
+                x = (i % GameConstants.ENEMY_COUNT_PER_PANE + 1) * GameConstants.ENEMY_SPACING - width / 2
+                    + (i / GameConstants.ENEMY_COUNT_PER_PANE % 2) * GameConstants.PANE_WIDTH;
+                y = GameConstants.SCREEN_HEIGHT / 2f + (i / (2 * GameConstants.ENEMY_COUNT_PER_PANE)) * 3 * height
+                    + random.nextFloat() * height;
+                break;
+            case "swarm":
+                // As EnemyManager.spawnWave queues them, a screen's height above the top edge
+                x = random.nextFloat() * (GameConstants.SCREEN_WIDTH - width);
+                y = GameConstants.SCREEN_HEIGHT + random.nextFloat() * GameConstants.SCREEN_HEIGHT;
+                break;
+            case "aligned":
+                // Shared rows and columns on cell edges, and exact duplicates, so ties decide the swept order
+                x = random.nextInt(GameConstants.SCREEN_WIDTH / (int) CELL_EDGE) * CELL_EDGE;
+                y = random.nextInt(2 * GameConstants.SCREEN_HEIGHT / (int) CELL_EDGE) * CELL_EDGE;
+                break;
+            default:
+                // Anywhere, including past the grid's edges where boxes are clamped into the border cells
+                x = random.nextFloat() * (GameConstants.SCREEN_WIDTH + 2 * width) - 2 * width;
+                y = random.nextFloat() * (3 * GameConstants.SCREEN_HEIGHT) - 2 * height;
+                break;
+        }
+        int index = enemies.size();
+        enemies.add(x, y, width, height, 1 + random.nextInt(5), 0);
+        if (random.nextInt(8) == 0) enemies.retire(index);
+    }
+
+    // Moves everyone down, kills a few and drops or adds some, so the count crosses the scan limit now and then
+    private static void advance(EnemyStore enemies, String layout, int count, RandomXS128 random) {
+        float fall = layout.equals("aligned") ? CELL_EDGE : random.nextFloat() * GameConstants.ENEMY_HEIGHT;
+        for (int i = 0; i < enemies.size(); i++) {
+            enemies.translateY(i, -fall);
+            if (random.nextInt(16) == 0) enemies.retire(i);
+        }
+        int removals = enemies.size() == 0 ? 0 : random.nextInt(enemies.size() / 4 + 1);
+        for (int r = 0; r < removals; r++) {
+            enemies.removeIndex(random.nextInt(enemies.size()));
+        }
+        int target = random.nextBoolean() ? count : count + random.nextInt(count / 4 + 2);
+        while (enemies.size() < target) {
+            add(enemies, layout, enemies.size(), random);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.the_actual_game.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.SnapshotRing;
+import io.github.the_actual_game.simulation.World;
+
+/**
+ * Allocation regression gate for gameplay frames. Plays every level with a steering bot, capturing
+ * every frame into a rewind ring and rewinding a second now and then as the game screen does, warms
+ * up the JIT and the entity pools, then measures the bytes this thread allocates over a run of frames
+ * through {@link com.sun.management.ThreadMXBean}. Exits non-zero if any frame allocated.
+ * Wired into {@code ./gradlew check} by the allocationCheck task.
+ */
+public class FrameAllocationCheck {
+    private static final int WARMUP_FRAMES = 200_000;
+    private static final int MEASURED_FRAMES = 100_000;
+    private static final int REWIND_EVERY = 1000; // Frames
+    private static final int REWIND_FRAMES = 120;
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("Thread allocation accounting is not supported on this JVM, skipping");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        World world = new World(Scenario.SEED);
+        InputState input = new InputState();
+        SnapshotRing snapshots = new SnapshotRing(5 * 120, 16 * 1024);
+        run(world, input, snapshots, WARMUP_FRAMES);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        run(world, input, snapshots, MEASURED_FRAMES);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        world.dispose();
+
+        double perFrame = allocated / (double) MEASURED_FRAMES;
+        System.out.printf("Allocated %d bytes over %d frames (%.3f bytes/frame)%n", allocated, MEASURED_FRAMES, perFrame);
+        if (allocated > 0) {
+            System.err.println("Gameplay frames must not allocate");
+            System.exit(1);
+        }
+    }
+
+    private static void run(World world, InputState input, SnapshotRing snapshots, int frames) {
+        for (int frame = 0; frame < frames; frame++) {
+            if (!world.getGameStateManager().isPlaying() && !world.getGameStateManager().isLevelComplete()) {
+                world.reset();
+                snapshots.clear();
+                continue;
+            }
+            if (frame % REWIND_EVERY == 0) {
+                for (int i = 0; i < REWIND_FRAMES; i++) {
+                    snapshots.stepBack(world);
+                }
+            }
+            Scenario.steer(world, input);
+            world.step(input, Scenario.DELTA);
+            snapshots.capture(world);
+        }
+    }
+}
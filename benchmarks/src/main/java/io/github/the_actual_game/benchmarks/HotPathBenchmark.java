@@ -0,0 +1,62 @@
+package io.github.the_actual_game.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.the_actual_game.simulation.InputState;
+
+/** Per-frame update cost of each manager on a populated {@link Scenario}. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HotPathBenchmark {
+    private final InputState input = new InputState();
+
+    @Benchmark
+    public int enemyManagerUpdate(Scenario scenario) {
+        scenario.enemyManager.update(Scenario.DELTA, scenario.playerManager.getPlayer());
+        scenario.recycle();
+        return scenario.enemyManager.getEnemies().size();
+    }
+
+    @Benchmark
+    public int gateManagerUpdate(Scenario scenario) {
+        scenario.gateManager.update(Scenario.DELTA, scenario.playerManager.getBullets());
+        scenario.recycle();
+        return scenario.gateManager.getGates().size();
+    }
+
+    @Benchmark
+    public int playerManagerShoot(Scenario scenario) {
+        scenario.playerManager.shoot();
+        scenario.recycle();
+        return scenario.playerManager.getBullets().size();
+    }
+
+    /** Spawns, shots and the timer expiries due in one step; the cost scales with due events, not timers. */
+    @Benchmark
+    public int timelineAdvance(Scenario scenario) {
+        int fired = scenario.timeline.advance(Scenario.DELTA);
+        scenario.recycle();
+        return fired;
+    }
+
+    @Benchmark
+    public int playerManagerUpdate(Scenario scenario) {
+        scenario.playerManager.update(Scenario.DELTA, input);
+        scenario.recycle();
+        return scenario.playerManager.getBullets().size();
+    }
+}
@@ -0,0 +1,343 @@
+package io.github.the_actual_game.benchmarks;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import io.github.the_actual_game.net.LockstepSession;
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.World;
+
+/**
+ * Loopback test for {@link LockstepSession}: two peers in this JVM, each on its own UDP socket,
+ * talk through a relay that adds latency, jitter, reordering and loss. Time is virtual, one tick
+ * per step, so a run takes seconds and does not depend on the machine. One peer hitches now and
+ * then and catches up with a burst of steps, like a slow frame. Checks that
+ * <ul>
+ *   <li>both peers end on exactly the state of a local world stepped with the inputs as applied,</li>
+ *   <li>no checksum mismatch was reported, and predictions were corrected by rollbacks on the way,</li>
+ *   <li>each peer sent a few hundred bytes per second at most,</li>
+ *   <li>peers that let the enemies through reach game over, keep stepping in sync on the ended game,
+ *       and restart together on the frame the second of them confirms, into the same new game,</li>
+ *   <li>a world changed behind one peer's back is reported as a desync.</li>
+ * </ul>
+ * Exits non-zero on failure. Wired into {@code ./gradlew check} by the netcodeCheck task.
+ */
+public class NetcodeCheck {
+    private static final int STEPS_PER_SECOND = 120;
+    private static final long TICK_NANOS = 1_000_000_000L / STEPS_PER_SECOND;
+    private static final int INPUT_DELAY = 3;
+    private static final int MAX_ROLLBACK = 20;
+    private static final int FRAMES = 60 * STEPS_PER_SECOND;
+    private static final int MAX_BYTES_PER_SECOND = 1000;
+
+    private static final long LATENCY_NANOS = 40_000_000L;
+    private static final long JITTER_NANOS = 20_000_000L;
+    private static final double LOSS = 0.05;
+    private static final int HITCH_EVERY = 300; // Ticks between the second peer's hitches
+    private static final int HITCH_TICKS = 6;
+    private static final int MAX_STEPS_PER_TICK = 8;
+    private static final int MAX_SECONDS_TO_LOSE = 600;
+
+    public static void main(String[] args) throws IOException {
+        boolean passed = checkSession();
+        passed &= checkGameOverAndRestart();
+        passed &= checkDesyncDetection();
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean checkSession() throws IOException {
+        try (Link link = new Link(new Random(1))) {
+            Peer[] peers = link.peers;
+            run(link, FRAMES, -1);
+
+            World reference = reference(peers, FRAMES);
+            byte[] expected = state(reference);
+
+            boolean passed = true;
+            float seconds = link.tick * (float) TICK_NANOS / 1e9f;
+            System.out.printf("%d frames in %.1f s over %d ms +-%d ms, %.0f%% loss; score %d, level %d%n",
+                              FRAMES, seconds, LATENCY_NANOS / 1_000_000, JITTER_NANOS / 1_000_000, LOSS * 100,
+                              reference.getScore(), reference.getGameStateManager().getCurrentLevel());
+            for (Peer peer : peers) {
+                LockstepSession session = peer.session;
+                float bytesPerSecond = session.getBytesSent() / seconds;
+                System.out.printf("player %d: %d packets, %.0f B/s sent, %d rollbacks (%d frames, deepest %d), %d stalls%n",
+                                  session.getLocalPlayer() + 1, session.getPacketsSent(), bytesPerSecond,
+                                  session.getRollbacks(), session.getResimulatedFrames(), session.getDeepestRollback(),
+                                  session.getStalls());
+                if (!Arrays.equals(state(peer.world), expected)) {
+                    System.err.println("Player " + (session.getLocalPlayer() + 1) + " ended on a different state than the reference");
+                    passed = false;
+                }
+                if (session.getDesyncFrame() != LockstepSession.NO_FRAME) {
+                    System.err.println("Player " + (session.getLocalPlayer() + 1) + " reported a desync at frame " + session.getDesyncFrame());
+                    passed = false;
+                }
+                if (bytesPerSecond > MAX_BYTES_PER_SECOND) {
+                    System.err.println("Player " + (session.getLocalPlayer() + 1) + " sent more than " + MAX_BYTES_PER_SECOND + " B/s");
+                    passed = false;
+                }
+            }
+            if (peers[0].session.getRollbacks() + peers[1].session.getRollbacks() == 0) {
+                System.err.println("No prediction was ever corrected, the run did not exercise rollback");
+                passed = false;
+            }
+            reference.dispose();
+            return passed;
+        }
+    }
+
+    // Both players stand about until the enemies end the game, wait, then each confirm in turn
+    private static boolean checkGameOverAndRestart() throws IOException {
+        try (Link link = new Link(new Random(3))) {
+            Peer[] peers = link.peers;
+            for (Peer peer : peers) {
+                peer.idle = true;
+            }
+            int frames = 0;
+            while (!peers[0].world.getGameStateManager().isGameOver()) {
+                if (frames >= MAX_SECONDS_TO_LOSE * STEPS_PER_SECOND) {
+                    System.err.println("Idle players did not lose within " + MAX_SECONDS_TO_LOSE + " s");
+                    return false;
+                }
+                frames += 10 * STEPS_PER_SECOND;
+                run(link, frames, -1);
+            }
+            int score = peers[0].world.getScore();
+            long seed = peers[0].world.getSeed();
+            frames += 5 * STEPS_PER_SECOND; // The ended game keeps stepping and hashing
+            run(link, frames, -1);
+
+            boolean passed = true;
+            peers[0].confirmPending = true;
+            frames += 2 * STEPS_PER_SECOND;
+            run(link, frames, -1);
+            if (!peers[1].world.getGameStateManager().isEnded() || !peers[1].world.getGameStateManager().hasVotedRestart(0)) {
+                System.err.println("One player's confirm should only be a vote to restart");
+                passed = false;
+            }
+            peers[1].confirmPending = true;
+            frames += 2 * STEPS_PER_SECOND;
+            run(link, frames, -1);
+            for (Peer peer : peers) {
+                peer.idle = false;
+            }
+            frames += 10 * STEPS_PER_SECOND;
+            run(link, frames, -1);
+
+            World reference = reference(peers, frames);
+            System.out.printf("Game over with score %d, restarted once both confirmed; %d points into the new game%n",
+                              score, reference.getScore());
+            if (reference.getSeed() != seed + 1 || !reference.getGameStateManager().isPlaying()) {
+                System.err.println("The game did not restart on the next seed");
+                passed = false;
+            }
+            byte[] expected = state(reference);
+            for (Peer peer : peers) {
+                int player = peer.session.getLocalPlayer() + 1;
+                if (!Arrays.equals(state(peer.world), expected)) {
+                    System.err.println("Player " + player + " ended on a different state than the reference");
+                    passed = false;
+                }
+                if (peer.session.getDesyncFrame() != LockstepSession.NO_FRAME) {
+                    System.err.println("Player " + player + " reported a desync at frame " + peer.session.getDesyncFrame());
+                    passed = false;
+                }
+            }
+            reference.dispose();
+            return passed;
+        }
+    }
+
+    // Moves the second player's world on its own mid-run; the checksums must catch it
+    private static boolean checkDesyncDetection() throws IOException {
+        int tamperFrame = 10 * STEPS_PER_SECOND;
+        try (Link link = new Link(new Random(2))) {
+            run(link, 20 * STEPS_PER_SECOND, tamperFrame);
+            int detected = link.peers[0].session.getDesyncFrame();
+            System.out.println("Tampered with frame " + tamperFrame + ", desync reported at frame " + detected);
+            if (detected == LockstepSession.NO_FRAME || detected < tamperFrame) {
+                System.err.println("The desync was not reported correctly");
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static void run(Link link, int frames, int tamperFrame) throws IOException {
+        Peer[] peers = link.peers;
+        // Play until both peers simulated every frame, then until both confirmed them
+        while (peers[0].session.getConfirmedFrame() < frames || peers[1].session.getConfirmedFrame() < frames) {
+            long now = link.tick * TICK_NANOS;
+            boolean hitch = link.tick % HITCH_EVERY < HITCH_TICKS;
+            for (Peer peer : peers) {
+                peer.session.poll(now);
+                peer.pendingSteps++;
+                if (peer == peers[1] && hitch) continue;
+                for (int steps = 0; peer.pendingSteps > 0 && steps < MAX_STEPS_PER_TICK; steps++) {
+                    if (peer.session.getFrame() >= frames || !peer.step()) break;
+                    peer.pendingSteps--;
+                }
+                if (peer == peers[1] && tamperFrame >= 0 && peer.session.getFrame() >= tamperFrame) {
+                    // Every tick, since a rollback restores the untouched snapshot
+                    peer.world.getPlayerManager(0).getPlayer().y += 0.01f;
+                }
+                peer.session.poll(now);
+            }
+            link.pump(now);
+            if (++link.tick > 10L * frames) {
+                throw new IllegalStateException("The peers stopped making progress at frames "
+                                                + peers[0].session.getFrame() + " and " + peers[1].session.getFrame());
+            }
+        }
+    }
+
+    // A local world stepped with the inputs both peers applied, restarting the way the session does
+    private static World reference(Peer[] peers, int frames) {
+        World reference = new World(peers[0].seed, 2);
+        reference.reset(); // As the handshake does
+        InputState[] inputs = { new InputState(), new InputState() };
+        for (int frame = 0; frame < frames; frame++) {
+            peers[0].inputAt(frame, inputs[0]);
+            peers[1].inputAt(frame, inputs[1]);
+            reference.step(inputs, 1f / STEPS_PER_SECOND);
+            if (reference.isRestartAgreed()) {
+                reference.reset(reference.getSeed() + 1);
+            }
+        }
+        return reference;
+    }
+
+    private static byte[] state(World world) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        world.writeState(buffer);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /** One player: its world, its session and a bot that plays it. */
+    private static class Peer {
+        final long seed;
+        final World world;
+        final LockstepSession session;
+        final Random random;
+        final InputState input = new InputState();
+        final List<Byte> sampled = new ArrayList<>(); // Input k applies at frame k + INPUT_DELAY
+        int pendingSteps;
+        int swerve; // Steps left of steering the wrong way
+        boolean idle; // Only swerves, so enemies get through
+        boolean confirmPending; // Presses confirm on the next step that goes through
+
+        Peer(long seed, int player, DatagramChannel channel) throws IOException {
+            this.seed = seed;
+            world = new World(seed, 2);
+            session = new LockstepSession(world, player, channel, STEPS_PER_SECOND, INPUT_DELAY, MAX_ROLLBACK);
+            random = new Random(seed);
+        }
+
+        // Steers under the lowest enemy as seen in its own, partly predicted, world, with a random swerve now and then
+        boolean step() {
+            if (idle) {
+                input.set(false, false, false);
+            } else {
+                Scenario.steer(world, session.getLocalPlayer(), input);
+            }
+            if (random.nextInt(20) == 0) {
+                swerve = random.nextInt(30);
+            }
+            if (swerve > 0) {
+                swerve--;
+                input.left = !input.left;
+                input.right = !input.left;
+            }
+            input.confirm |= confirmPending;
+            if (!session.step(input)) return false;
+            confirmPending = false;
+            sampled.add((byte) ((input.left ? 1 : 0) | (input.right ? 2 : 0) | (input.confirm ? 4 : 0)));
+            return true;
+        }
+
+        void inputAt(int frame, InputState out) {
+            int k = frame - INPUT_DELAY;
+            int buttons = k >= 0 ? sampled.get(k) : 0;
+            out.set((buttons & 1) != 0, (buttons & 2) != 0, (buttons & 4) != 0);
+        }
+    }
+
+    /** The two peers and the lossy relay between them; peer i talks to relay socket i, which forwards to the other peer. */
+    private static class Link implements AutoCloseable {
+        final Peer[] peers = new Peer[2];
+        final DatagramChannel[] relay = new DatagramChannel[2];
+        final Random random;
+        final List<Packet> inFlight = new ArrayList<>();
+        final ByteBuffer buffer = ByteBuffer.allocate(2048);
+        long tick;
+
+        Link(Random random) throws IOException {
+            this.random = random;
+            InetAddress loopback = InetAddress.getLoopbackAddress();
+            DatagramChannel[] sockets = new DatagramChannel[2];
+            for (int i = 0; i < 2; i++) {
+                sockets[i] = DatagramChannel.open().bind(new InetSocketAddress(loopback, 0));
+                relay[i] = DatagramChannel.open().bind(new InetSocketAddress(loopback, 0));
+            }
+            for (int i = 0; i < 2; i++) {
+                sockets[i].connect(relay[i].getLocalAddress());
+                relay[i].connect(sockets[i].getLocalAddress());
+                relay[i].configureBlocking(false);
+            }
+            // Different seeds on purpose: the handshake must bring the second world onto the first one's
+            peers[0] = new Peer(random.nextLong(), 0, sockets[0]);
+            peers[1] = new Peer(random.nextLong(), 1, sockets[1]);
+        }
+
+        /** Takes what each peer sent, drops some, and delivers the rest to the other peer once their delay passed. */
+        void pump(long now) throws IOException {
+            for (int from = 0; from < 2; from++) {
+                while (true) {
+                    buffer.clear();
+                    if (relay[from].read(buffer) <= 0) break;
+                    if (random.nextDouble() < LOSS) continue;
+                    long delay = LATENCY_NANOS + (long) ((random.nextDouble() * 2 - 1) * JITTER_NANOS);
+                    inFlight.add(new Packet(1 - from, now + delay, Arrays.copyOf(buffer.array(), buffer.position())));
+                }
+            }
+            for (int i = inFlight.size() - 1; i >= 0; i--) {
+                Packet packet = inFlight.get(i);
+                if (packet.due <= now) {
+                    relay[packet.to].write(ByteBuffer.wrap(packet.bytes));
+                    inFlight.remove(i);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (int i = 0; i < 2; i++) {
+                peers[i].session.close();
+                peers[i].world.dispose();
+                relay[i].close();
+            }
+        }
+    }
+
+    private static class Packet {
+        final int to;
+        final long due;
+        final byte[] bytes;
+
+        Packet(int to, long due, byte[] bytes) {
+            this.to = to;
+            this.due = due;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.the_actual_game.benchmarks;
+
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.entities.EnemyStore;
+import io.github.the_actual_game.entities.GateStore;
+import io.github.the_actual_game.entities.PlayerManager;
+import io.github.the_actual_game.screens.GameStateManager;
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.World;
+
+/**
+ * Checks that the step rate does not change what happens. Each session is played by a bot at
+ * 30 Hz, and the same inputs, held for the substeps of each 30 Hz step, are fed to copies of the
+ * world stepped at 120 and 240 Hz. After every 30 Hz step all three must agree on every discrete
+ * outcome: score, lives, shot count and interval, level, game state, which enemies are still alive
+ * and how much life they have left, and the gates' power levels. Positions may differ by float
+ * rounding only; the largest difference is reported.
+ * <p>
+ * The bot takes gates, so kills, gate upgrades, lives lost and level ends all get exercised.
+ * Level-complete confirmations are their own step in every world, since they do not advance time.
+ * Exits non-zero on the first mismatch. Wired into {@code ./gradlew check} by the rateCheck task.
+ */
+public class RateEquivalenceCheck {
+    private static final int BASE_RATE = 30;
+    private static final int[] SUBSTEPS = { 4, 8 }; // 120 and 240 Hz
+    private static final int SESSIONS = 100;
+    private static final float MAX_SECONDS = 180;
+    private static final float POSITION_TOLERANCE = 0.01f; // Pixels
+    private static final double TIME_TOLERANCE = 1e-9; // Seconds; a level ends mid-step at a time solved from positions
+
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : SESSIONS;
+        AutoplayPolicy policy = AutoplayPolicy.parse("best/triage");
+        InputState input = new InputState();
+        int steps = 0, levelsCleared = 0, livesLost = 0;
+        long score = 0;
+        float drift = 0;
+
+        for (int session = 0; session < sessions; session++) {
+            long seed = Scenario.SEED + session;
+            World coarse = new World(seed);
+            World[] fine = new World[SUBSTEPS.length];
+            for (int i = 0; i < fine.length; i++) {
+                fine[i] = new World(seed);
+            }
+            policy.reset(seed);
+
+            for (int step = 0; step < MAX_SECONDS * BASE_RATE; step++) {
+                GameStateManager state = coarse.getGameStateManager();
+                if (state.isLevelComplete()) {
+                    input.set(false, false, true);
+                    coarse.step(input, 1f / BASE_RATE);
+                    for (World world : fine) {
+                        world.step(input, 1f / BASE_RATE);
+                    }
+                    levelsCleared++;
+                } else if (state.isPlaying()) {
+                    policy.steer(coarse, input);
+                    coarse.step(input, 1f / BASE_RATE);
+                    for (int i = 0; i < fine.length; i++) {
+                        for (int k = 0; k < SUBSTEPS[i]; k++) {
+                            fine[i].step(input, 1f / (BASE_RATE * SUBSTEPS[i]));
+                        }
+                    }
+                } else {
+                    break; // Game over
+                }
+                steps++;
+
+                for (int i = 0; i < fine.length; i++) {
+                    String mismatch = compare(coarse, fine[i]);
+                    if (mismatch != null) {
+                        System.err.printf("Seed %d, %.3f s: %d Hz and %d Hz disagree on %s%n", seed,
+                                          coarse.getTimeline().getTime(), BASE_RATE, BASE_RATE * SUBSTEPS[i], mismatch);
+                        System.exit(1);
+                    }
+                    drift = Math.max(drift, positionDrift(coarse, fine[i]));
+                }
+            }
+            score += coarse.getScore();
+            livesLost += GameConstants.PLAYER_DEFAULT_LIFE - Math.max(0, coarse.getPlayerManager().getLives());
+            coarse.dispose();
+            for (World world : fine) {
+                world.dispose();
+            }
+        }
+
+        System.out.printf("%d sessions, %d steps at %d Hz matched at 120 and 240 Hz: %d points, %d levels cleared, %d lives lost%n",
+                          sessions, steps, BASE_RATE, score, levelsCleared, livesLost);
+        System.out.printf("Largest position difference %.5f px%n", drift);
+        if (drift > POSITION_TOLERANCE) {
+            System.err.println("Positions drifted apart by more than " + POSITION_TOLERANCE + " px");
+            System.exit(1);
+        }
+    }
+
+    // The first discrete outcome the two worlds disagree on, or null
+    private static String compare(World a, World b) {
+        if (a.getScore() != b.getScore()) return "score " + a.getScore() + " vs " + b.getScore();
+        GameStateManager stateA = a.getGameStateManager(), stateB = b.getGameStateManager();
+        if (stateA.isPlaying() != stateB.isPlaying() || stateA.isLevelComplete() != stateB.isLevelComplete()
+            || stateA.getCurrentLevel() != stateB.getCurrentLevel()) {
+            return "game state";
+        }
+        if (Math.abs(a.getTimeline().getTime() - b.getTimeline().getTime()) > TIME_TOLERANCE) {
+            return "time " + a.getTimeline().getTime() + " vs " + b.getTimeline().getTime();
+        }
+        PlayerManager playerA = a.getPlayerManager(), playerB = b.getPlayerManager();
+        if (playerA.getLives() != playerB.getLives()) return "lives " + playerA.getLives() + " vs " + playerB.getLives();
+        if (playerA.getShotCount() != playerB.getShotCount()) return "shot count";
+        if (playerA.getShootingInterval() != playerB.getShootingInterval()) return "shooting interval";
+        if (playerA.getPlayer().x != playerB.getPlayer().x) return "player x " + playerA.getPlayer().x + " vs " + playerB.getPlayer().x;
+
+        // Store order depends on when removals happened, so compare what the stores hold, not their layout
+        EnemyStore enemiesA = a.getEnemyManager().getEnemies(), enemiesB = b.getEnemyManager().getEnemies();
+        if (liveEnemies(enemiesA) != liveEnemies(enemiesB)) return "live enemies";
+        if (lifeLeft(enemiesA) != lifeLeft(enemiesB)) return "enemy life";
+        GateStore gatesA = a.getGateManager().getGates(), gatesB = b.getGateManager().getGates();
+        if (gatesA.size() != gatesB.size()) return "gates";
+        if (powerLevels(gatesA) != powerLevels(gatesB)) return "gate power levels";
+        return null;
+    }
+
+    private static int liveEnemies(EnemyStore enemies) {
+        int alive = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.isAlive(i)) alive++;
+        }
+        return alive;
+    }
+
+    // Weighted by x, so life moving from one enemy to another does not cancel out
+    private static double lifeLeft(EnemyStore enemies) {
+        double sum = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.isAlive(i)) sum += enemies.getLife(i) * (1 + enemies.getX(i));
+        }
+        return sum;
+    }
+
+    // Left and right gates weighted apart, for the same reason
+    private static long powerLevels(GateStore gates) {
+        long sum = 0;
+        for (int i = 0; i < gates.size(); i++) {
+            sum += gates.getPowerLevel(i) * (gates.getX(i) == 0 ? 1 : 1000);
+        }
+        return sum;
+    }
+
+    // Largest difference in the lowest enemy's and gate's heights
+    private static float positionDrift(World a, World b) {
+        return Math.max(Math.abs(lowestEnemy(a) - lowestEnemy(b)), Math.abs(lowestGate(a) - lowestGate(b)));
+    }
+
+    private static float lowestEnemy(World world) {
+        EnemyStore enemies = world.getEnemyManager().getEnemies();
+        float lowest = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.isAlive(i) && (lowest == 0 || enemies.getY(i) < lowest)) lowest = enemies.getY(i);
+        }
+        return lowest;
+    }
+
+    private static float lowestGate(World world) {
+        GateStore gates = world.getGateManager().getGates();
+        float lowest = 0;
+        for (int i = 0; i < gates.size(); i++) {
+            if (lowest == 0 || gates.getY(i) < lowest) lowest = gates.getY(i);
+        }
+        return lowest;
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.the_actual_game.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.Replay;
+import io.github.the_actual_game.simulation.ReplayPlayer;
+import io.github.the_actual_game.simulation.ReplayRecorder;
+import io.github.the_actual_game.simulation.World;
+
+/**
+ * Headless replay tool. {@code play <file> [repeats]} re-simulates a recorded session as fast as
+ * possible and prints the final state and throughput; every repeat must end in the same state.
+ * {@code record <file> <seconds> [seed]} records a bot session to use as a perf fixture.
+ * Run through the replay task, e.g. {@code ./gradlew :benchmarks:replay -PreplayArgs="play replays/last.replay 20"}.
+ */
+public class ReplayPlayback {
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("play")) {
+            play(Paths.get(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : 1);
+        } else if (args.length >= 3 && args[0].equals("record")) {
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : Scenario.SEED;
+            record(Paths.get(args[1]), Float.parseFloat(args[2]), seed);
+        } else {
+            System.err.println("Usage: play <file> [repeats] | record <file> <seconds> [seed]");
+            System.exit(2);
+        }
+    }
+
+    private static void play(Path file, int repeats) throws IOException {
+        Replay replay = Replay.read(file);
+        System.out.printf("%s: seed %d, level table %08x, %d steps at %d Hz (%.1f s), %d bytes of input%n", file,
+            replay.getSeed(), replay.getLevelChecksum(), replay.getStepCount(), replay.getStepsPerSecond(),
+            replay.getDuration(), replay.getEncodedSize());
+
+        World world = new World(replay.getSeed());
+        InputState input = new InputState();
+        ReplayPlayer player = new ReplayPlayer(replay);
+        int firstScore = -1;
+        int firstLevel = -1;
+        for (int i = 0; i < repeats; i++) {
+            long start = System.nanoTime();
+            int steps = player.playToEnd(world, input);
+            long elapsed = System.nanoTime() - start;
+            int score = world.getScore();
+            int level = world.getGameStateManager().getCurrentLevel();
+            System.out.printf("run %d: score %d, level %d, %.1f ms (%.0fx real time, %.0f steps/s)%n", i + 1, score,
+                level, elapsed / 1e6, replay.getDuration() / (elapsed / 1e9), steps / (elapsed / 1e9));
+            if (i == 0) {
+                firstScore = score;
+                firstLevel = level;
+            } else if (score != firstScore || level != firstLevel) {
+                System.err.println("Replay diverged from the first run");
+                System.exit(1);
+            }
+        }
+        world.dispose();
+    }
+
+    private static void record(Path file, float seconds, long seed) throws IOException {
+        World world = new World(seed);
+        InputState input = new InputState();
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.begin(seed, GameConstants.SIMULATION_RATE);
+        int steps = (int) (seconds * GameConstants.SIMULATION_RATE);
+        for (int i = 0; i < steps; i++) {
+            Scenario.steer(world, input);
+            recorder.record(input);
+            world.step(input, Scenario.DELTA);
+        }
+        Replay replay = recorder.finish();
+        replay.write(file);
+        System.out.printf("Recorded %d steps to %s, score %d, %d bytes of input%n", steps, file, world.getScore(),
+            replay.getEncodedSize());
+        world.dispose();
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.the_actual_game.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.constants.LevelRepository;
+import io.github.the_actual_game.entities.BulletStore;
+import io.github.the_actual_game.entities.EnemyManager;
+import io.github.the_actual_game.entities.EnemyStore;
+import io.github.the_actual_game.entities.GateManager;
+import io.github.the_actual_game.entities.GateStore;
+import io.github.the_actual_game.entities.GateType;
+import io.github.the_actual_game.entities.PlayerManager;
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.Timeline;
+import io.github.the_actual_game.simulation.World;
+
+/**
+ * A populated playfield: managers set to one of {@link LevelRepository} levels and filled with a fixed
+ * number of bullets, enemies and gates. {@link #recycle()} wraps entities that left the screen back to the
+ * top, so every benchmark invocation sees the same entity counts.
+ */
+@State(Scope.Thread)
+public class Scenario {
+    public static final float DELTA = 1f / GameConstants.SIMULATION_RATE; // One fixed simulation step
+    static final long SEED = 1234L;
+
+    @Param({"0", "4"})
+    public int levelIndex;
+
+    @Param({"16", "256"})
+    public int bulletCount;
+
+    @Param({"16", "1024"})
+    public int enemyCount;
+
+    @Param({"2", "16"})
+    public int gateCount;
+
+    public Timeline timeline;
+    public RandomXS128 random;
+    public PlayerManager playerManager;
+    public EnemyManager enemyManager;
+    public GateManager gateManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        timeline = new Timeline();
+        random = new RandomXS128(SEED);
+        playerManager = new PlayerManager(timeline);
+        enemyManager = new EnemyManager(timeline, random);
+        gateManager = new GateManager(timeline, random);
+        playerManager.setLevel(levelIndex);
+        enemyManager.setLevel(levelIndex);
+        gateManager.setLevel(levelIndex);
+
+        EnemyStore enemies = enemyManager.getEnemies();
+        enemies.clear();
+        for (int i = 0; i < enemyCount; i++) {
+            enemies.add(randomX(GameConstants.ENEMY_WIDTH), randomY(), GameConstants.ENEMY_WIDTH,
+                        GameConstants.ENEMY_HEIGHT, LevelRepository.get(levelIndex).getEnemyLife(), 0);
+        }
+        GateStore gates = gateManager.getGates();
+        for (int i = 0; i < gateCount; i++) {
+            gates.add(i % 2 == 0 ? 0 : GameConstants.PANE_WIDTH, randomY(), GameConstants.PANE_WIDTH, 4,
+                      random.nextBoolean() ? GateType.SPEED : GateType.SHOTS, random.nextBoolean());
+        }
+        BulletStore bullets = playerManager.getBulletStore();
+        bullets.clear();
+        for (int i = 0; i < bulletCount; i++) {
+            bullets.add(randomX(GameConstants.BULLET_WIDTH), randomY());
+        }
+    }
+
+    /** Puts the scene back to its configured counts; cheap next to the code under test. */
+    public void recycle() {
+        EnemyStore enemies = enemyManager.getEnemies();
+        while (enemies.size() > enemyCount) {
+            enemies.removeIndex(enemies.size() - 1);
+        }
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.getY(i) < GameConstants.PLAYER_INITIAL_Y) enemies.setY(i, enemies.getY(i) + GameConstants.SCREEN_HEIGHT);
+        }
+        while (enemies.size() < enemyCount) {
+            enemies.add(randomX(GameConstants.ENEMY_WIDTH), GameConstants.SCREEN_HEIGHT, GameConstants.ENEMY_WIDTH,
+                        GameConstants.ENEMY_HEIGHT, LevelRepository.get(levelIndex).getEnemyLife(), 0);
+        }
+        GateStore gates = gateManager.getGates();
+        while (gates.size() > gateCount) {
+            gates.removeIndex(gates.size() - 1);
+        }
+        for (int i = 0; i < gates.size(); i++) {
+            if (gates.getY(i) < GameConstants.PLAYER_INITIAL_Y) gates.setY(i, gates.getY(i) + GameConstants.SCREEN_HEIGHT);
+        }
+        BulletStore bullets = playerManager.getBulletStore();
+        if (bullets.size() > bulletCount) {
+            for (int i = bullets.size() - 1; i >= bulletCount; i--) bullets.removeIndex(i);
+        }
+        while (bullets.size() < bulletCount) {
+            bullets.add(randomX(GameConstants.BULLET_WIDTH), GameConstants.PLAYER_INITIAL_Y);
+        }
+    }
+
+    /** Bot input shared by the whole-world benchmarks: steer under the lowest enemy and confirm between levels. */
+    static void steer(World world, InputState input) {
+        steer(world, 0, input);
+    }
+
+    /** The same for one player of a co-op world. */
+    static void steer(World world, int playerIndex, InputState input) {
+        if (world.getGameStateManager().isLevelComplete()) {
+            input.set(false, false, true);
+            return;
+        }
+        Rectangle player = world.getPlayerManager(playerIndex).getPlayer();
+        EnemyStore enemies = world.getEnemyManager().getEnemies();
+        float playerCenter = player.x + player.width / 2;
+        float target = playerCenter;
+        float lowest = Float.MAX_VALUE;
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            if (enemies.getY(i) < lowest) {
+                lowest = enemies.getY(i);
+                target = enemies.getX(i) + enemies.getWidth(i) / 2;
+            }
+        }
+        input.set(target < playerCenter - 2, target > playerCenter + 2, false);
+    }
+
+    private float randomX(float width) {
+        return random.nextFloat() * (GameConstants.SCREEN_WIDTH - width);
+    }
+
+    private float randomY() {
+        return GameConstants.PLAYER_INITIAL_Y + random.nextFloat() * (GameConstants.SCREEN_HEIGHT - GameConstants.PLAYER_INITIAL_Y);
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.the_actual_game.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.SnapshotRing;
+import io.github.the_actual_game.simulation.World;
+
+/**
+ * Cost of the per-step rewind capture, and of one rewind step, on a world a few seconds into a
+ * level with {@code bulletCount} bullets in flight. Both should stay a small fraction of a step.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SnapshotBenchmark {
+    @Param({"0", "128", "256"})
+    public int bulletCount;
+
+    private World world;
+    private SnapshotRing snapshots;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new World(Scenario.SEED);
+        InputState input = new InputState();
+        for (int i = 0; i < 3 * 120; i++) {
+            Scenario.steer(world, input);
+            world.step(input, Scenario.DELTA);
+        }
+        for (int i = world.getPlayerManager().getBullets().size(); i < bulletCount; i++) {
+            world.getPlayerManager().getBulletStore().add(i, i);
+        }
+        snapshots = new SnapshotRing(5 * 120, 16 * 1024);
+        snapshots.capture(world);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public int capture() {
+        snapshots.capture(world);
+        return snapshots.size();
+    }
+
+    /** Captures twice and steps back once, so the ring never runs dry. */
+    @Benchmark
+    public int captureTwiceAndStepBack() {
+        snapshots.capture(world);
+        snapshots.capture(world);
+        snapshots.stepBack(world);
+        return snapshots.size();
+    }
+}
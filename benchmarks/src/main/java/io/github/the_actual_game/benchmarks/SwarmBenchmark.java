@@ -0,0 +1,80 @@
+package io.github.the_actual_game.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.World;
+
+/**
+ * Scaling acceptance test: whole-world steps in swarm mode, where waves keep the enemy count at
+ * {@code swarmSize} and the bullet count matches it. Besides steps per millisecond, the
+ * {@code entities} counter reports live entities simulated per millisecond, which should stay
+ * roughly flat as the swarm grows if an engine change scales linearly.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SwarmBenchmark {
+    @Param({"1000", "10000", "50000"})
+    public int swarmSize;
+
+    private World world;
+    private final InputState input = new InputState();
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long entities;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            entities = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new World(Scenario.SEED);
+        world.setSwarmSize(swarmSize);
+        // Let the first waves arrive so measurement starts from a full screen
+        for (int i = 0; i < 10 * GameConstants.SIMULATION_RATE; i++) {
+            advance();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public int step(Counters counters) {
+        advance();
+        counters.entities += world.getEnemyManager().getEnemies().size() + world.getPlayerManager().getBullets().size();
+        return world.getScore();
+    }
+
+    private void advance() {
+        Scenario.steer(world, input);
+        world.step(input, Scenario.DELTA);
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.the_actual_game.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.World;
+
+/**
+ * One full gameplay step of a real level, with the player steering towards the oldest enemy.
+ * The world restarts the level whenever it is won or lost, so the benchmark never idles on a menu.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorldBenchmark {
+    @Param({"0", "1", "2", "3", "4"})
+    public int levelIndex;
+
+    private World world;
+    private final InputState input = new InputState();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new World(Scenario.SEED);
+        world.setLevel(levelIndex);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public int step() {
+        if (!world.getGameStateManager().isPlaying()) {
+            world.reset();
+            world.setLevel(levelIndex);
+        }
+        Scenario.steer(world, input);
+        world.step(input, Scenario.DELTA);
+        return world.getScore();
+    }
+}
@@ -1,23 +1,34 @@
 package io.github.the_actual_game;
 
 import com.badlogic.gdx.Game;
-import io.github.the_actual_game.screens.GameScreen;
-import io.github.the_actual_game.utils.FontManager;
+import com.badlogic.gdx.assets.AssetManager;
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.constants.LevelRepository;
+import io.github.the_actual_game.profiling.StartupMetrics;
+import io.github.the_actual_game.screens.LoadingScreen;
 import io.github.the_actual_game.utils.SymbolManager;
 
 /** {@link com.badlogic.gdx.ApplicationListener} implementation shared by all platforms. */
 public class Main extends Game {
+    private AssetManager assets;
+
     @Override
     public void create() {
-        FontManager.initialize();
-        SymbolManager.initialize();
-        setScreen(new GameScreen());
+        StartupMetrics.markLaunch();
+        LevelRepository.load(GameConstants.DEV_MODE);
+        // The atlas, its fonts and the sounds load in the background behind the loading screen
+        assets = new AssetManager();
+        setScreen(new LoadingScreen(this, assets));
     }
 
     @Override
     public void dispose() {
         super.dispose();
-        FontManager.dispose();
+        // Game only hides the current screen, the game screen still has scores, a replay and a profile to write
+        if (getScreen() != null) {
+            getScreen().dispose();
+        }
         SymbolManager.dispose();
+        assets.dispose();
     }
 }
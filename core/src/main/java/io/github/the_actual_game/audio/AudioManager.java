@@ -0,0 +1,211 @@
+package io.github.the_actual_game.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Plays sound effects through a fixed pool of voices. Gameplay code calls {@link #trigger} as often as
+ * it likes; once a frame {@link #update} turns each effect's triggers into at most one play. Triggers
+ * from the same frame are coalesced into a single, louder play, an effect that played less than its
+ * minimum interval ago is dropped, and when the effect or the whole pool is out of voices the oldest
+ * voice is stopped and reused. The pool stays below the backend's OpenAL source count, so the audio
+ * thread never runs out of sources. The sounds themselves belong to the AssetManager they were
+ * {@link #queue queued} on.
+ */
+public class AudioManager implements Disposable {
+    /** Voices for all effects together. */
+    public static final int MAX_VOICES = 8;
+    /** OpenAL sources for the desktop backend: the pool plus a few for streaming music. */
+    public static final int OPENAL_SOURCES = MAX_VOICES + 4;
+
+    private static final float COALESCE_GAIN = 0.25f; // Extra volume per trigger folded into one play
+    private static final float UNKNOWN_DURATION = 1f; // Seconds a voice is held when the length is unknown
+    private static final SoundEffect[] EFFECTS = SoundEffect.values();
+
+    private final Sound[] sounds = new Sound[EFFECTS.length];
+    private final float[] durations = new float[EFFECTS.length];
+    private final int[] pending = new int[EFFECTS.length];
+    private final double[] lastPlay = new double[EFFECTS.length];
+
+    // Voice pool; a free slot has effect -1
+    private final int[] voiceEffect = new int[MAX_VOICES];
+    private final long[] voiceId = new long[MAX_VOICES];
+    private final double[] voiceStart = new double[MAX_VOICES];
+    private final double[] voiceEnd = new double[MAX_VOICES];
+
+    private double time;
+    private long plays;
+    private long coalesced;
+    private long dropped;
+    private long stolen;
+
+    /** Queues every effect on the AssetManager, preferring the pre-decoded PCM over the source file. */
+    public static void queue(AssetManager assets) {
+        for (SoundEffect effect : EFFECTS) {
+            String file = fileFor(effect);
+            if (!file.equals(effect.decodedFile)) {
+                Gdx.app.log("AudioManager", effect.decodedFile + " not found, decoding " + effect.sourceFile);
+            }
+            assets.load(file, Sound.class);
+        }
+    }
+
+    private static String fileFor(SoundEffect effect) {
+        return Gdx.files.internal(effect.decodedFile).exists() ? effect.decodedFile : effect.sourceFile;
+    }
+
+    /** Takes the effects {@link #queue} put on the AssetManager; they must have finished loading. */
+    public AudioManager(AssetManager assets) {
+        for (int e = 0; e < EFFECTS.length; e++) {
+            SoundEffect effect = EFFECTS[e];
+            String file = fileFor(effect);
+            sounds[e] = assets.get(file, Sound.class);
+            durations[e] = file.equals(effect.decodedFile) ? wavDuration(Gdx.files.internal(file)) : UNKNOWN_DURATION;
+            lastPlay[e] = Double.NEGATIVE_INFINITY;
+        }
+        for (int v = 0; v < MAX_VOICES; v++) {
+            voiceEffect[v] = -1;
+        }
+    }
+
+    /** Asks for the effect to play; the request is resolved at the next {@link #update}. */
+    public void trigger(SoundEffect effect) {
+        pending[effect.ordinal()]++;
+    }
+
+    /** Advances the voice clock by the frame's delta and plays, merges or drops the pending triggers. */
+    public void update(float delta) {
+        time += delta;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceEffect[v] >= 0 && voiceEnd[v] <= time) {
+                voiceEffect[v] = -1;
+            }
+        }
+
+        for (int e = 0; e < EFFECTS.length; e++) {
+            int triggers = pending[e];
+            if (triggers == 0) continue;
+            pending[e] = 0;
+            coalesced += triggers - 1;
+            if (time - lastPlay[e] < EFFECTS[e].minInterval) {
+                dropped++;
+                continue;
+            }
+            float volume = Math.min(1f, EFFECTS[e].volume * (1 + COALESCE_GAIN * (triggers - 1)));
+            play(e, volume);
+        }
+    }
+
+    private void play(int effect, float volume) {
+        int voice = pickVoice(effect);
+        if (voiceEffect[voice] >= 0) {
+            sounds[voiceEffect[voice]].stop(voiceId[voice]);
+            stolen++;
+        }
+        long id = sounds[effect].play(volume);
+        if (id == -1) {
+            // The backend had no source left after all, e.g. another Sound user holds them
+            voiceEffect[voice] = -1;
+            dropped++;
+            return;
+        }
+        voiceEffect[voice] = effect;
+        voiceId[voice] = id;
+        voiceStart[voice] = time;
+        voiceEnd[voice] = time + durations[effect];
+        lastPlay[effect] = time;
+        plays++;
+    }
+
+    // A free slot if the effect is under its own limit, otherwise the oldest voice to steal:
+    // the effect's own oldest once it is at its limit, else the oldest in the pool
+    private int pickVoice(int effect) {
+        int own = 0, oldestOwn = -1, oldest = -1, free = -1;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceEffect[v] < 0) {
+                if (free < 0) free = v;
+                continue;
+            }
+            if (oldest < 0 || voiceStart[v] < voiceStart[oldest]) oldest = v;
+            if (voiceEffect[v] == effect) {
+                own++;
+                if (oldestOwn < 0 || voiceStart[v] < voiceStart[oldestOwn]) oldestOwn = v;
+            }
+        }
+        if (own >= EFFECTS[effect].maxVoices) return oldestOwn;
+        return free >= 0 ? free : oldest;
+    }
+
+    // Reads the length from the canonical header SoundCompiler writes
+    private static float wavDuration(FileHandle file) {
+        byte[] header = new byte[44];
+        try (InputStream in = file.read()) {
+            int read = 0;
+            while (read < header.length) {
+                int n = in.read(header, read, header.length - read);
+                if (n < 0) return UNKNOWN_DURATION;
+                read += n;
+            }
+        } catch (IOException e) {
+            return UNKNOWN_DURATION;
+        }
+        int channels = littleEndian(header, 22, 2);
+        int sampleRate = littleEndian(header, 24, 4);
+        int bits = littleEndian(header, 34, 2);
+        int dataBytes = littleEndian(header, 40, 4);
+        int bytesPerSecond = sampleRate * channels * (bits / 8);
+        return bytesPerSecond > 0 ? dataBytes / (float) bytesPerSecond : UNKNOWN_DURATION;
+    }
+
+    private static int littleEndian(byte[] bytes, int offset, int length) {
+        int value = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    /** Appends the counters, e.g. "audio 120 plays, 30 coalesced, 12 dropped, 2 stolen". */
+    public void appendStats(StringBuilder out) {
+        out.append("audio ").append(plays).append(" plays, ")
+           .append(coalesced).append(" coalesced, ")
+           .append(dropped).append(" dropped, ")
+           .append(stolen).append(" stolen");
+    }
+
+    public long getPlays() {
+        return plays;
+    }
+
+    /** Triggers folded into another trigger's play. */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /** Plays skipped by the minimum interval or because the backend had no source. */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /** Voices cut short to make room for a newer play. */
+    public long getStolen() {
+        return stolen;
+    }
+
+    /** Stops the voices still sounding; the AssetManager disposes the sounds. */
+    @Override
+    public void dispose() {
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceEffect[v] >= 0) {
+                sounds[voiceEffect[v]].stop(voiceId[v]);
+                voiceEffect[v] = -1;
+            }
+        }
+    }
+}
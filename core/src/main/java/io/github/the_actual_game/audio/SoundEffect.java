@@ -0,0 +1,23 @@
+package io.github.the_actual_game.audio;
+
+/** The game's sound effects and how often each may play. */
+public enum SoundEffect {
+    // Shots can come every 50 ms; a tenth of a second between lasers still reads as rapid fire
+    LASER("sounds/laser.wav", "laser-gun-81720.mp3", 0.6f, 0.1f, 3);
+
+    /** PCM produced by the compileSounds build task. */
+    final String decodedFile;
+    /** The source file, loaded when the build step has not run, e.g. from an IDE launch. */
+    final String sourceFile;
+    final float volume;
+    final float minInterval; // Seconds between two plays of this effect
+    final int maxVoices; // Plays of this effect that may sound at once
+
+    SoundEffect(String decodedFile, String sourceFile, float volume, float minInterval, int maxVoices) {
+        this.decodedFile = decodedFile;
+        this.sourceFile = sourceFile;
+        this.volume = volume;
+        this.minInterval = minInterval;
+        this.maxVoices = maxVoices;
+    }
+}
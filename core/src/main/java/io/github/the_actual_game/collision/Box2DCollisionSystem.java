@@ -0,0 +1,133 @@
+package io.github.the_actual_game.collision;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.QueryCallback;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.the_actual_game.entities.EnemyStore;
+
+/**
+ * Backend built on the Box2D dynamic AABB tree. Each enemy slot owns a static sensor body that is
+ * moved with setTransform, and queries go through {@link World#QueryAABB}. The world is never stepped;
+ * Box2D only supplies the broadphase, the exact overlap test is still {@link EnemyStore#overlaps}.
+ */
+public class Box2DCollisionSystem implements CollisionSystem, QueryCallback {
+    private final World world;
+    private final BodyDef bodyDef = new BodyDef();
+    private final PolygonShape shape;
+    private final Array<Body> bodies = new Array<Body>();
+    private final Array<Fixture> fixtures = new Array<Fixture>();
+    private float[] fixtureWidths = new float[16];
+    private float[] fixtureHeights = new float[16];
+    private int activeBodies;
+    private EnemyStore enemies;
+    private float queryX, queryY, queryWidth, queryHeight;
+    private int best;
+    private boolean swept; // Which order reportFixture keeps, see querySwept
+
+    public Box2DCollisionSystem() {
+        Box2D.init(); // Before any Box2D object, field initializers included
+        world = new World(new Vector2(0, 0), false);
+        shape = new PolygonShape();
+        bodyDef.type = BodyDef.BodyType.StaticBody;
+    }
+
+    @Override
+    public void update(EnemyStore enemies) {
+        this.enemies = enemies;
+        int count = enemies.size();
+        while (bodies.size < count) {
+            Body body = world.createBody(bodyDef);
+            body.setUserData(Integer.valueOf(bodies.size));
+            bodies.add(body);
+            fixtures.add(null);
+        }
+        if (fixtureWidths.length < bodies.size) {
+            fixtureWidths = Arrays.copyOf(fixtureWidths, bodies.size * 2);
+            fixtureHeights = Arrays.copyOf(fixtureHeights, bodies.size * 2);
+        }
+
+        for (int i = 0; i < count; i++) {
+            float width = enemies.getWidth(i), height = enemies.getHeight(i);
+            Body body = bodies.get(i);
+            if (fixtures.get(i) == null || fixtureWidths[i] != width || fixtureHeights[i] != height) {
+                resizeFixture(i, body, width, height);
+            }
+            if (i >= activeBodies) body.setActive(true);
+            body.setTransform(enemies.getX(i) + width / 2, enemies.getY(i) + height / 2, 0);
+        }
+        // Park the slots that have no enemy this step
+        for (int i = count; i < activeBodies; i++) {
+            bodies.get(i).setActive(false);
+        }
+        activeBodies = count;
+    }
+
+    private void resizeFixture(int index, Body body, float width, float height) {
+        Fixture old = fixtures.get(index);
+        if (old != null) body.destroyFixture(old);
+        shape.setAsBox(width / 2, height / 2);
+        Fixture fixture = body.createFixture(shape, 0);
+        fixture.setSensor(true);
+        fixtures.set(index, fixture);
+        fixtureWidths[index] = width;
+        fixtureHeights[index] = height;
+    }
+
+    @Override
+    public int queryFirst(float x, float y, float width, float height) {
+        queryX = x;
+        queryY = y;
+        queryWidth = width;
+        queryHeight = height;
+        best = -1;
+        swept = false;
+        world.QueryAABB(this, x, y, x + width, y + height);
+        return best;
+    }
+
+    @Override
+    public int querySwept(float x, float y, float width, float height, float rise) {
+        queryX = x;
+        queryY = y;
+        queryWidth = width;
+        queryHeight = height + rise;
+        best = -1;
+        swept = true;
+        world.QueryAABB(this, x, y, x + width, y + queryHeight);
+        return best;
+    }
+
+    @Override
+    public boolean reportFixture(Fixture fixture) {
+        int index = (Integer) fixture.getBody().getUserData();
+        if (swept) {
+            if (index < activeBodies && enemies.isAlive(index) && enemies.overlaps(index, queryX, queryY, queryWidth, queryHeight)
+                && BruteForceCollisionSystem.meetsBefore(enemies, index, best)) {
+                best = index;
+            }
+        } else if (index < activeBodies && (best < 0 || index < best)) {
+            if (enemies.isAlive(index) && enemies.overlaps(index, queryX, queryY, queryWidth, queryHeight)) {
+                best = index;
+            }
+        }
+        return true; // Keep going, the tree does not report in index order
+    }
+
+    @Override
+    public void dispose() {
+        shape.dispose();
+        world.dispose();
+        bodies.clear();
+        fixtures.clear();
+        enemies = null;
+    }
+}
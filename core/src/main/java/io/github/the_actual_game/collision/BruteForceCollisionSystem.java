@@ -0,0 +1,47 @@
+package io.github.the_actual_game.collision;
+
+import io.github.the_actual_game.entities.EnemyStore;
+
+/** Reference backend: tests the query box against every enemy. */
+public class BruteForceCollisionSystem implements CollisionSystem {
+    private EnemyStore enemies;
+
+    @Override
+    public void update(EnemyStore enemies) {
+        this.enemies = enemies;
+    }
+
+    @Override
+    public int queryFirst(float x, float y, float width, float height) {
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            if (enemies.isAlive(i) && enemies.overlaps(i, x, y, width, height)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int querySwept(float x, float y, float width, float height, float rise) {
+        int best = -1;
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            if (enemies.isAlive(i) && enemies.overlaps(i, x, y, width, height + rise) && meetsBefore(enemies, i, best)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /** The {@link #querySwept} order: true if a rising box meets enemy {@code index} before {@code best}, or best is -1. */
+    static boolean meetsBefore(EnemyStore enemies, int index, int best) {
+        if (best < 0) return true;
+        if (enemies.getY(index) != enemies.getY(best)) return enemies.getY(index) < enemies.getY(best);
+        if (enemies.getX(index) != enemies.getX(best)) return enemies.getX(index) < enemies.getX(best);
+        return index < best;
+    }
+
+    @Override
+    public void dispose() {
+        enemies = null;
+    }
+}
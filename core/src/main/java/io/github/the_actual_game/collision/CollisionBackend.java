@@ -0,0 +1,24 @@
+package io.github.the_actual_game.collision;
+
+/** The available {@link CollisionSystem} implementations, in the order the debug key cycles through them. */
+public enum CollisionBackend {
+    BRUTE_FORCE,
+    UNIFORM_GRID,
+    BOX2D;
+
+    public CollisionSystem create() {
+        switch (this) {
+            case UNIFORM_GRID:
+                return new UniformGridCollisionSystem();
+            case BOX2D:
+                return new Box2DCollisionSystem();
+            default:
+                return new BruteForceCollisionSystem();
+        }
+    }
+
+    public CollisionBackend next() {
+        CollisionBackend[] values = values();
+        return values[(ordinal() + 1) % values.length];
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.the_actual_game.collision;
+
+import com.badlogic.gdx.utils.Disposable;
+
+import io.github.the_actual_game.entities.EnemyStore;
+
+/**
+ * Broadphase for bullet-vs-enemy tests. Every backend must report the same hit as
+ * {@link BruteForceCollisionSystem}: the lowest-index live enemy overlapping the query box, and
+ * for a swept query the enemy the box meets first.
+ */
+public interface CollisionSystem extends Disposable {
+    /** Rebuilds the broadphase from the enemies' current positions. Call once per step before querying. */
+    void update(EnemyStore enemies);
+
+    /** Returns the index of the first live enemy overlapping the box, or -1 if there is none. */
+    int queryFirst(float x, float y, float width, float height);
+
+    /**
+     * Returns the live enemy a box rising by {@code rise} relative to the enemies meets first, or -1
+     * if it meets none. All enemies fall at the same speed, so that is the one with the lowest bottom
+     * edge among those overlapping the box stretched up by {@code rise}; ties go to the lower x, then
+     * the lower index. One already overlapping the box is met at once and ranks the same way.
+     */
+    int querySwept(float x, float y, float width, float height, float rise);
+}
@@ -0,0 +1,155 @@
+package io.github.the_actual_game.collision;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.entities.EnemyStore;
+
+/**
+ * Uniform spatial hash over the playfield. Enemies are bucketed into fixed-size cells with a
+ * counting sort, so each cell lists its enemies in ascending index order and a query only
+ * visits the cells the box touches. The grid also covers a screen's height above the top edge,
+ * where swarm waves queue up, so those enemies do not all pile into the top row; boxes outside
+ * that area are clamped into the border cells. With only a handful of enemies, as in a normal level,
+ * clearing and summing every cell costs more than it saves, so queries go to a
+ * {@link BruteForceCollisionSystem} instead; both report the same hits. A scan limit of 0 always
+ * builds the grid.
+ */
+public class UniformGridCollisionSystem implements CollisionSystem {
+    public static final float DEFAULT_CELL_SIZE = 16; // Under an enemy's size, so a dense swarm leaves short runs per cell
+    public static final int DEFAULT_SCAN_LIMIT = 32; // Enemies up to which a query scans them all rather than build the grid
+
+    private final float cellSize;
+    private final int scanLimit;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart; // Offset of each cell's run in cellItems, plus one end marker
+    private final int[] cellFill;
+    private int[] cellItems = new int[64];
+    private EnemyStore enemies;
+    private final BruteForceCollisionSystem scan = new BruteForceCollisionSystem();
+    private boolean gridBuilt;
+
+    public UniformGridCollisionSystem() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    public UniformGridCollisionSystem(float cellSize) {
+        this(cellSize, DEFAULT_SCAN_LIMIT);
+    }
+
+    public UniformGridCollisionSystem(float cellSize, int scanLimit) {
+        this.cellSize = cellSize;
+        this.scanLimit = scanLimit;
+        columns = MathUtils.ceil(GameConstants.SCREEN_WIDTH / cellSize);
+        rows = MathUtils.ceil(2 * GameConstants.SCREEN_HEIGHT / cellSize);
+        cellStart = new int[columns * rows + 1];
+        cellFill = new int[columns * rows];
+    }
+
+    @Override
+    public void update(EnemyStore enemies) {
+        this.enemies = enemies;
+        gridBuilt = enemies.size() > scanLimit;
+        if (!gridBuilt) {
+            scan.update(enemies);
+            return;
+        }
+        Arrays.fill(cellStart, 0);
+
+        // Count how many enemies touch each cell
+        int total = 0;
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            float x0 = enemies.getX(i), y0 = enemies.getY(i);
+            int minX = column(x0), maxX = column(x0 + enemies.getWidth(i));
+            int minY = row(y0), maxY = row(y0 + enemies.getHeight(i));
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    cellStart[y * columns + x + 1]++;
+                    total++;
+                }
+            }
+        }
+
+        // Prefix sum into run offsets
+        for (int c = 1; c < cellStart.length; c++) {
+            cellStart[c] += cellStart[c - 1];
+        }
+        if (cellItems.length < total) {
+            cellItems = new int[MathUtils.nextPowerOfTwo(total)];
+        }
+
+        // Scatter enemy indices, keeping each cell in ascending order
+        System.arraycopy(cellStart, 0, cellFill, 0, cellFill.length);
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            float x0 = enemies.getX(i), y0 = enemies.getY(i);
+            int minX = column(x0), maxX = column(x0 + enemies.getWidth(i));
+            int minY = row(y0), maxY = row(y0 + enemies.getHeight(i));
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    cellItems[cellFill[y * columns + x]++] = i;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int queryFirst(float x, float y, float width, float height) {
+        if (!gridBuilt) return scan.queryFirst(x, y, width, height);
+        int best = -1;
+        int minX = column(x), maxX = column(x + width);
+        int minY = row(y), maxY = row(y + height);
+        for (int row = minY; row <= maxY; row++) {
+            for (int column = minX; column <= maxX; column++) {
+                int cell = row * columns + column;
+                for (int k = cellStart[cell], end = cellStart[cell + 1]; k < end; k++) {
+                    int index = cellItems[k];
+                    if (best >= 0 && index >= best) break; // Runs are sorted, nothing lower follows
+                    if (enemies.isAlive(index) && enemies.overlaps(index, x, y, width, height)) {
+                        best = index;
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public int querySwept(float x, float y, float width, float height, float rise) {
+        if (!gridBuilt) return scan.querySwept(x, y, width, height, rise);
+        float sweptHeight = height + rise;
+        int best = -1;
+        int minX = column(x), maxX = column(x + width);
+        int minY = row(y), maxY = row(y + sweptHeight);
+        for (int row = minY; row <= maxY; row++) {
+            for (int column = minX; column <= maxX; column++) {
+                int cell = row * columns + column;
+                for (int k = cellStart[cell], end = cellStart[cell + 1]; k < end; k++) {
+                    int index = cellItems[k];
+                    if (enemies.isAlive(index) && enemies.overlaps(index, x, y, width, sweptHeight)
+                        && BruteForceCollisionSystem.meetsBefore(enemies, index, best)) {
+                        best = index;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int column(float x) {
+        return MathUtils.clamp(MathUtils.floor(x / cellSize), 0, columns - 1);
+    }
+
+    private int row(float y) {
+        return MathUtils.clamp(MathUtils.floor(y / cellSize), 0, rows - 1);
+    }
+
+    @Override
+    public void dispose() {
+        enemies = null;
+        scan.dispose();
+    }
+}
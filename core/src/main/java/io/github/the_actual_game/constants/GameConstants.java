@@ -5,6 +5,40 @@ public class GameConstants {
     public static final int SCREEN_WIDTH = 360;
     public static final int SCREEN_HEIGHT = 640;
     
+    // Dev mode (-Ddev=true): levels load from the JSON source and hot-reload when it is saved
+    public static final boolean DEV_MODE = Boolean.getBoolean("dev");
+
+    // Swarm stress mode (-Dswarm=10000): enemies per wave, 0 for the normal game. F5 cycles sizes in game.
+    public static final int SWARM_SIZE = Integer.getInteger("swarm", 0);
+
+    // Training run (-Dtraining=20): seconds of scripted play, then exit. The build records the classes
+    // such a run loads into a CDS archive, see lwjgl3/build.gradle.
+    public static final int TRAINING_SECONDS = Integer.getInteger("training", 0);
+
+    // Startup probe (-DexitAfterStartup=true): exit as soon as the game screen is interactive
+    public static final boolean EXIT_AFTER_STARTUP = Boolean.getBoolean("exitAfterStartup");
+
+    // Network co-op (-DcoopPeer=host:port -DcoopPort=7777 -DcoopPlayer=0|1): two players in lockstep over UDP,
+    // see LockstepSession. Player 0's seed is used; the other peer runs with coopPlayer=1.
+    public static final String COOP_PEER = System.getProperty("coopPeer");
+    public static final int COOP_PORT = Integer.getInteger("coopPort", 7777);
+    public static final int COOP_PLAYER = Integer.getInteger("coopPlayer", 0);
+    public static final int COOP_INPUT_DELAY = 3; // Steps, 25 ms at the default rate
+    public static final int COOP_MAX_ROLLBACK = 20; // Steps of prediction before the game waits for the peer
+
+    // Rewind (hold R): every step is captured into a SnapshotRing covering this many seconds.
+    // -DsnapshotFile=session.snap keeps the ring in a memory-mapped file, so a restart resumes the session.
+    public static final int REWIND_SECONDS = 5;
+    public static final int SNAPSHOT_SLOT_BYTES = 16 * 1024; // Room for a full bullet pool and a busy level
+    public static final String SNAPSHOT_FILE = System.getProperty("snapshotFile");
+
+    // Worker threads for the per-step job graph (-DjobThreads=0 runs every system on the calling thread)
+    public static final int JOB_THREADS = Integer.getInteger("jobThreads", Math.max(0, Runtime.getRuntime().availableProcessors() - 1));
+
+    // Simulation timing
+    public static final int SIMULATION_RATE = 120; // Fixed steps per second, override with -DsimRate=
+    public static final int MAX_STEPS_PER_FRAME = 8; // Catch-up cap after a long frame
+
     // Pane constants
     public static final int NUMBER_OF_PANES = 2;
     public static final float PANE_WIDTH = SCREEN_WIDTH / NUMBER_OF_PANES;
@@ -38,6 +72,7 @@ public class GameConstants {
     public static final float BULLET_WIDTH = 6;
     public static final float BULLET_HEIGHT = 12;
     public static final float BASE_BULLET_SPEED = 400; // Consistent bullet speed
+    public static final int MAX_BULLETS = 256; // Bullet pool size, well above the ~140 alive at max fire rate
 
     // Gate constants
     public static final float GATE_WIDTH = PANE_WIDTH; // Fill entire pane width
@@ -47,8 +82,8 @@ public class GameConstants {
     public static final int MAX_SHOTS = 5;
     public static final int MIN_SHOTS = 1;
 
-    // Level constants
-    public static final int MAX_LEVELS = 5;
+    // Level constants. The game loads its levels from assets/levels/levels.json through LevelRepository;
+    // these built-in copies are only the fallback for headless runs without assets.
     public static final LevelConfig[] LEVEL_CONFIGS = new LevelConfig[] {
         // Level 1 - Easy (5 hits to kill)
         new LevelConfig(
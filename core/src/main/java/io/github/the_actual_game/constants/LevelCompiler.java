@@ -0,0 +1,25 @@
+package io.github.the_actual_game.constants;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/** Build step behind the compileLevels task: {@code LevelCompiler <levels.json> <levels.bin>}. */
+public class LevelCompiler {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LevelCompiler <source.json> <output.bin>");
+            System.exit(2);
+        }
+        Path source = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        LevelConfig[] levels = LevelRepository.parseJson(new String(Files.readAllBytes(source), StandardCharsets.UTF_8));
+        try (OutputStream out = Files.newOutputStream(output)) {
+            LevelRepository.writeBinary(levels, out);
+        }
+        System.out.println("Compiled " + levels.length + " levels to " + output + " (" + Files.size(output) + " bytes)");
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.the_actual_game.constants;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.CRC32;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+/**
+ * The level table the game plays. Levels are written by hand in {@value #SOURCE_FILE} and compiled
+ * by the compileLevels Gradle task into {@value #BINARY_FILE}, a fixed-layout blob that loads without
+ * any parsing. Until {@link #load} finds either file, the built-in {@link GameConstants#LEVEL_CONFIGS}
+ * are used, which keeps headless tools and benchmarks working without assets.
+ */
+public class LevelRepository {
+    public static final String SOURCE_FILE = "levels/levels.json";
+    public static final String BINARY_FILE = "levels/levels.bin";
+
+    private static final int MAGIC = 0x4C564C53; // "LVLS"
+    private static final int VERSION = 1;
+
+    private static LevelConfig[] levels = GameConstants.LEVEL_CONFIGS;
+    private static int checksum = checksum(levels);
+
+    /** Loads the compiled levels, or parses the JSON source if preferSource is set or nothing was compiled. */
+    public static void load(boolean preferSource) {
+        long start = System.nanoTime();
+        FileHandle binary = Gdx.files.internal(BINARY_FILE);
+        FileHandle source = Gdx.files.internal(SOURCE_FILE);
+        String loadedFrom;
+        try {
+            if (!preferSource && binary.exists()) {
+                setLevels(readBinary(binary.readBytes()));
+                loadedFrom = BINARY_FILE;
+            } else if (source.exists()) {
+                setLevels(parseJson(source.readString()));
+                loadedFrom = SOURCE_FILE;
+            } else {
+                loadedFrom = "built-in defaults";
+            }
+        } catch (IOException | RuntimeException e) {
+            Gdx.app.error("LevelRepository", "Could not load levels, keeping the current ones", e);
+            return;
+        }
+        Gdx.app.log("LevelRepository", "Loaded " + levels.length + " levels from " + loadedFrom
+            + " in " + (System.nanoTime() - start) / 1000 + " us");
+    }
+
+    public static int count() {
+        return levels.length;
+    }
+
+    /** Returns the config for a 0-based level index, clamped to the levels that exist. */
+    public static LevelConfig get(int index) {
+        return levels[clamp(index)];
+    }
+
+    /**
+     * CRC32 of the current table in its compiled layout. Replays and co-op peers compare it, since
+     * the same seed and input only play out the same way against the same levels.
+     */
+    public static int checksum() {
+        return checksum;
+    }
+
+    public static int clamp(int index) {
+        if (index < 0) return 0;
+        if (index >= levels.length) return levels.length - 1;
+        return index;
+    }
+
+    /** Swaps in a new level table. Call on the render thread; running managers pick it up on reload. */
+    public static void setLevels(LevelConfig[] newLevels) {
+        if (newLevels.length == 0) throw new IllegalArgumentException("At least one level is required");
+        levels = newLevels;
+        checksum = checksum(newLevels);
+    }
+
+    static int checksum(LevelConfig[] configs) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            writeBinary(configs, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        return (int) crc.getValue();
+    }
+
+    public static LevelConfig[] parseJson(String json) {
+        JsonValue root = new JsonReader().parse(json);
+        if (root == null || !root.isArray()) throw new IllegalArgumentException("Levels must be a JSON array");
+        LevelConfig[] parsed = new LevelConfig[root.size];
+        int i = 0;
+        for (JsonValue level = root.child; level != null; level = level.next) {
+            parsed[i] = new LevelConfig(
+                i + 1,
+                level.getInt("enemyCount"),
+                level.getFloat("enemySpeed"),
+                level.getInt("enemyLife"),
+                level.getFloat("gateSpeed"),
+                level.getInt("gateSpawnInterval"),
+                level.getFloat("bulletSpeed"));
+            i++;
+        }
+        return parsed;
+    }
+
+    public static void writeBinary(LevelConfig[] configs, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(configs.length);
+        for (LevelConfig config : configs) {
+            out.writeInt(config.getEnemyCount());
+            out.writeFloat(config.getEnemySpeed());
+            out.writeInt(config.getEnemyLife());
+            out.writeFloat(config.getGateSpeed());
+            out.writeInt(config.getGateSpawnInterval());
+            out.writeFloat(config.getBulletSpeed());
+        }
+        out.flush();
+    }
+
+    public static LevelConfig[] readBinary(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) throw new IOException("Not a compiled level file");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("Unsupported level file version " + version);
+        int count = in.readInt();
+        if (count <= 0 || count > 1000) throw new IOException("Bad level count " + count);
+        LevelConfig[] configs = new LevelConfig[count];
+        for (int i = 0; i < count; i++) {
+            configs[i] = new LevelConfig(i + 1, in.readInt(), in.readFloat(), in.readInt(), in.readFloat(),
+                                         in.readInt(), in.readFloat());
+        }
+        return configs;
+    }
+}
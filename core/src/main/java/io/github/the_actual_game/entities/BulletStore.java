@@ -0,0 +1,134 @@
+package io.github.the_actual_game.entities;
+
+import java.nio.ByteBuffer;
+
+import io.github.the_actual_game.constants.GameConstants;
+
+/**
+ * Fixed-capacity bullet pool stored as parallel arrays. Adding a bullet writes a few values and
+ * removing one swaps the last bullet into its slot, so neither allocates nor shifts the arrays.
+ * Swap-remove changes the order of the remaining bullets, so loops that remove while iterating
+ * must walk from the end.
+ */
+public class BulletStore implements BulletView {
+    private final float[] x;
+    private final double[] y; // See getExactY
+    private final float[] previousY; // Position at the start of the last step, for render interpolation
+    private int size;
+    private int dropped;
+
+    public BulletStore(int capacity) {
+        x = new float[capacity];
+        y = new double[capacity];
+        previousY = new float[capacity];
+    }
+
+    /** Adds a bullet, or drops it and returns false if the store is full. */
+    public boolean add(float bulletX, float bulletY) {
+        if (size == x.length) {
+            dropped++;
+            return false;
+        }
+        x[size] = bulletX;
+        y[size] = bulletY;
+        previousY[size] = bulletY;
+        size++;
+        return true;
+    }
+
+    public void removeIndex(int index) {
+        size--;
+        x[index] = x[size];
+        y[index] = y[size];
+        previousY[index] = previousY[size];
+    }
+
+    /** Remembers where every bullet starts the step, for render interpolation. */
+    public void beginStep() {
+        for (int i = 0; i < size; i++) {
+            previousY[i] = (float) y[i];
+        }
+    }
+
+    public void translateY(int index, double amount) {
+        y[index] += amount;
+    }
+
+    /** Y interpolated between the previous and current step. */
+    public float getInterpolatedY(int index, float alpha) {
+        return previousY[index] + ((float) y[index] - previousY[index]) * alpha;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public float getX(int index) {
+        return x[index];
+    }
+
+    @Override
+    public float getY(int index) {
+        return (float) y[index];
+    }
+
+    /**
+     * Height before rounding to float. Moves add up in double, so however a stretch of time is cut
+     * into steps the height comes out the same to well below a float's precision, and contact times
+     * solved from it agree; see {@link io.github.the_actual_game.simulation.World}.
+     */
+    public double getExactY(int index) {
+        return y[index];
+    }
+
+    @Override
+    public float getWidth() {
+        return GameConstants.BULLET_WIDTH;
+    }
+
+    @Override
+    public float getHeight() {
+        return GameConstants.BULLET_HEIGHT;
+    }
+
+    @Override
+    public boolean overlaps(int index, float boxX, float boxY, float boxWidth, float boxHeight) {
+        return x[index] < boxX + boxWidth && x[index] + GameConstants.BULLET_WIDTH > boxX
+            && y[index] < boxY + boxHeight && y[index] + GameConstants.BULLET_HEIGHT > boxY;
+    }
+
+    /** Writes the bullets in store order; the capacity is not part of the state. */
+    public void writeState(ByteBuffer out) {
+        out.putInt(size).putInt(dropped);
+        for (int i = 0; i < size; i++) {
+            out.putFloat(x[i]).putDouble(y[i]).putFloat(previousY[i]);
+        }
+    }
+
+    /** Reads what {@link #writeState} wrote; the store must be at least as large as the one written. */
+    public void readState(ByteBuffer in) {
+        size = in.getInt();
+        dropped = in.getInt();
+        if (size > x.length) throw new IllegalStateException("Snapshot holds " + size + " bullets, capacity is " + x.length);
+        for (int i = 0; i < size; i++) {
+            x[i] = in.getFloat();
+            y[i] = in.getDouble();
+            previousY[i] = in.getFloat();
+        }
+    }
+
+    public int getCapacity() {
+        return x.length;
+    }
+
+    /** Number of shots discarded because the store was full. */
+    public int getDropped() {
+        return dropped;
+    }
+}
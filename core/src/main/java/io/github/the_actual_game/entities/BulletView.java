@@ -0,0 +1,20 @@
+package io.github.the_actual_game.entities;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/** Read-only access to the live bullets for collision and rendering code. */
+public interface BulletView {
+    int size();
+
+    float getX(int index);
+
+    float getY(int index);
+
+    /** All bullets share one size. */
+    float getWidth();
+
+    float getHeight();
+
+    /** Same test as {@link Rectangle#overlaps} between the bullet at {@code index} and the box. */
+    boolean overlaps(int index, float boxX, float boxY, float boxWidth, float boxHeight);
+}
@@ -1,42 +1,75 @@
 package io.github.the_actual_game.entities;
 
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.graphics.Color;
+import java.nio.ByteBuffer;
+
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
 import io.github.the_actual_game.constants.GameConstants;
 import io.github.the_actual_game.constants.LevelConfig;
-import io.github.the_actual_game.entities.Enemy;
-import com.badlogic.gdx.math.MathUtils;
+import io.github.the_actual_game.constants.LevelRepository;
+import io.github.the_actual_game.rendering.RenderQueue;
+import io.github.the_actual_game.simulation.Timeline;
+import com.badlogic.gdx.math.RandomXS128;
 
 public class EnemyManager {
-    private Array<Enemy> enemies;
+    private final EnemyStore enemies = new EnemyStore(64);
+    private final Timeline timeline;
+    private final RandomXS128 random;
+    private final Runnable spawnDue = this::onSpawnDue;
+    private int spawnEvent = Timeline.NONE;
+    private double nextSpawnTime;
     private LevelConfig currentLevelConfig;
     private int remainingEnemies;
     private int currentLevel;
     private boolean bossSpawned;
-    private float spawnTimer;
     private static final float MIN_SPAWN_INTERVAL = 2.5f;
     private static final float MAX_SPAWN_INTERVAL = 6.0f;
+    private static final float BOSS_SIZE_MULTIPLIER = 2.0f;
+    private static final int BOSS_HEALTH_MULTIPLIER = 3;
 
-    public EnemyManager() {
-        enemies = new Array<Enemy>();
+    public EnemyManager(Timeline timeline, RandomXS128 random) {
+        this.timeline = timeline;
+        this.random = random;
+        timeline.register(spawnDue);
         setLevel(0); // Start at level 1 (index 0)
     }
 
     public void setLevel(int level) {
         // Ensure level is within bounds
-        if (level < 0) level = 0;
-        if (level >= GameConstants.MAX_LEVELS) level = GameConstants.MAX_LEVELS - 1;
+        level = LevelRepository.clamp(level);
         
         currentLevel = level;
-        currentLevelConfig = GameConstants.LEVEL_CONFIGS[level];
+        currentLevelConfig = LevelRepository.get(level);
         remainingEnemies = currentLevelConfig.getEnemyCount();
         enemies.clear();
         bossSpawned = false;
-        spawnTimer = 0;
+        timeline.cancel(spawnEvent);
+        nextSpawnTime = timeline.getTime();
         // Spawn first enemy immediately
         spawnNewEnemy();
+        scheduleNextSpawn();
+    }
+
+    /**
+     * Picks up an edited level table without restarting the level. Speed and life apply from the
+     * next step and the next spawn; the enemy count applies when the level is next started.
+     */
+    public void reloadLevelConfig() {
+        currentLevelConfig = LevelRepository.get(currentLevel);
+    }
+
+    // Each spawn draws the gap to the next one once, uniformly between the min and max interval
+    private void scheduleNextSpawn() {
+        if (remainingEnemies <= 0) {
+            spawnEvent = Timeline.NONE;
+            return;
+        }
+        nextSpawnTime += randomRange(MIN_SPAWN_INTERVAL, MAX_SPAWN_INTERVAL);
+        spawnEvent = timeline.schedule(nextSpawnTime, spawnDue);
+    }
+
+    private void onSpawnDue() {
+        spawnNewEnemy();
+        scheduleNextSpawn();
     }
 
     private void spawnInitialEnemies() {
@@ -49,63 +82,89 @@ public class EnemyManager {
         // Generate a random x position within screen bounds
         float minX = GameConstants.ENEMY_WIDTH;
         float maxX = GameConstants.SCREEN_WIDTH - GameConstants.ENEMY_WIDTH;
-        float x = MathUtils.random(minX, maxX);
+        float x = randomRange(minX, maxX);
         float y = GameConstants.SCREEN_HEIGHT; // Start at the top of the screen
         
         if (!bossSpawned && remainingEnemies == 1) {
             // Spawn boss as the last enemy
             x = GameConstants.SCREEN_WIDTH / 2 - (GameConstants.ENEMY_WIDTH * 2); // Center the boss
-            enemies.add(new BossEnemy(x, y, GameConstants.ENEMY_WIDTH, GameConstants.ENEMY_HEIGHT, 
-                                    currentLevelConfig.getEnemyLife()));
+            // Starts green like regular enemies, at twice the size and three times the life
+            enemies.add(x, y,
+                        GameConstants.ENEMY_WIDTH * BOSS_SIZE_MULTIPLIER,
+                        GameConstants.ENEMY_HEIGHT * BOSS_SIZE_MULTIPLIER,
+                        currentLevelConfig.getEnemyLife() * BOSS_HEALTH_MULTIPLIER,
+                        EnemyStore.BOSS);
             bossSpawned = true;
         } else {
-            enemies.add(new Enemy(x, y, GameConstants.ENEMY_WIDTH, GameConstants.ENEMY_HEIGHT, 
-                                currentLevelConfig.getEnemyLife()));
+            enemies.add(x, y, GameConstants.ENEMY_WIDTH, GameConstants.ENEMY_HEIGHT, currentLevelConfig.getEnemyLife(), 0);
         }
         remainingEnemies--;
     }
 
-    public void update(float delta, Rectangle player) {
-        // Update spawn timer
-        spawnTimer += delta;
-        
-        // Randomly spawn new enemies
-        if (remainingEnemies > 0 && spawnTimer >= MathUtils.random(MIN_SPAWN_INTERVAL, MAX_SPAWN_INTERVAL)) {
-            spawnNewEnemy();
-            spawnTimer = 0;
+    /**
+     * Adds {@code count} regular enemies on top of the level's own spawns, spread over a screen's
+     * height above the top edge so they stream in rather than arrive as one row. Used by swarm mode.
+     */
+    public void spawnWave(int count) {
+        float minX = 0;
+        float maxX = GameConstants.SCREEN_WIDTH - GameConstants.ENEMY_WIDTH;
+        for (int i = 0; i < count; i++) {
+            float y = GameConstants.SCREEN_HEIGHT + randomRange(0, GameConstants.SCREEN_HEIGHT);
+            enemies.add(randomRange(minX, maxX), y, GameConstants.ENEMY_WIDTH, GameConstants.ENEMY_HEIGHT,
+                        currentLevelConfig.getEnemyLife(), 0);
         }
+    }
+
+    private float randomRange(float min, float max) {
+        return min + random.nextFloat() * (max - min);
+    }
 
-        // Remove enemies that are no longer needed
-        for (int i = enemies.size - 1; i >= 0; i--) {
-            Enemy enemy = enemies.get(i);
-            if (!enemy.isAlive() || enemy.rect.y + enemy.rect.height < 0) {
+    public void update(float delta, Rectangle player) {
+        // New enemies are spawned by the timeline, see onSpawnDue()
+        beginStep();
+        removeExpired();
+        move(delta, 0, enemies.size());
+    }
+
+    /** Remembers where the enemies start the step, for render interpolation. */
+    public void beginStep() {
+        enemies.beginStep();
+    }
+
+    /** Removes enemies that are dead or below the screen. */
+    public void removeExpired() {
+        // Walk from the end, swap-remove pulls the last one in
+        for (int i = enemies.size() - 1; i >= 0; i--) {
+            if (!enemies.isAlive(i) || enemies.getY(i) + enemies.getHeight(i) < 0) {
                 enemies.removeIndex(i);
             }
         }
+    }
 
-        // Update remaining enemies
-        for (Enemy enemy : enemies) {
-            if (!enemy.isAlive()) continue;
-            // Move enemy downward using level-specific speed
-            enemy.rect.y -= currentLevelConfig.getEnemySpeed() * delta;
+    /** Moves enemies [from, to) downward using level-specific speed; disjoint ranges may run in parallel. */
+    public void move(double delta, int from, int to) {
+        double fall = -getSpeed() * delta;
+        for (int i = from; i < to; i++) {
+            enemies.translateY(i, fall);
         }
     }
 
     public boolean checkCollisions(Rectangle player) {
-        for (Enemy enemy : enemies) {
-            if (!enemy.isAlive()) continue;
-            if (enemy.rect.overlaps(player)) {
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            if (enemies.isAlive(i) && enemies.overlaps(i, player.x, player.y, player.width, player.height)) {
                 return true;
             }
         }
         return false;
     }
 
-    public void render(ShapeRenderer shapeRenderer) {
-        for (Enemy enemy : enemies) {
-            if (!enemy.isAlive()) continue;
-            shapeRenderer.setColor(enemy.getColor());
-            shapeRenderer.rect(enemy.rect.x, enemy.rect.y, enemy.rect.width, enemy.rect.height);
+    /** @param alpha how far between the previous and current step to draw, 0 to 1 */
+    public void render(RenderQueue queue, float alpha) {
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            if (!enemies.isAlive(i)) continue;
+            float previousY = enemies.getPreviousY(i);
+            float y = previousY + (enemies.getY(i) - previousY) * alpha;
+            queue.rect(enemies.getX(i), y, enemies.getWidth(i), enemies.getHeight(i), enemies.getColor(i));
         }
     }
 
@@ -113,12 +172,39 @@ public class EnemyManager {
         setLevel(0);
     }
 
-    public Array<Enemy> getEnemies() {
+    /** Writes the spawn schedule and every enemy; the level table itself is not part of the state. */
+    public void writeState(ByteBuffer out) {
+        out.putInt(currentLevel).putInt(remainingEnemies).put((byte) (bossSpawned ? 1 : 0));
+        out.putInt(spawnEvent).putDouble(nextSpawnTime);
+        enemies.writeState(out);
+    }
+
+    public void readState(ByteBuffer in) {
+        currentLevel = in.getInt();
+        currentLevelConfig = LevelRepository.get(currentLevel);
+        remainingEnemies = in.getInt();
+        bossSpawned = in.get() != 0;
+        spawnEvent = in.getInt();
+        nextSpawnTime = in.getDouble();
+        enemies.readState(in);
+    }
+
+    public EnemyStore getEnemies() {
         return enemies;
     }
 
+    /** Pixels per second the enemies fall at on this level. */
+    public float getSpeed() {
+        return currentLevelConfig.getEnemySpeed();
+    }
+
+    /** Enemies of this level that have not spawned yet. */
+    public int getRemainingSpawns() {
+        return Math.max(0, remainingEnemies);
+    }
+
     public boolean isLevelComplete() {
-        return remainingEnemies <= 0 && enemies.size == 0;
+        return remainingEnemies <= 0 && enemies.size() == 0;
     }
 
     public int getCurrentLevel() {
@@ -0,0 +1,236 @@
+package io.github.the_actual_game.entities;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.Color;
+
+/**
+ * Every enemy's components in parallel primitive arrays, packed densely in [0, size). Systems walk
+ * the arrays by index instead of chasing one object per enemy. Removal swaps the last enemy into
+ * the freed slot, so loops that remove while iterating must walk from the end; code that needs to
+ * keep referring to one enemy across steps holds a {@link #handleAt handle} instead of an index.
+ * Bosses are regular entries with {@link #BOSS} set in their flags. The arrays grow on demand and
+ * never shrink, so a steady enemy count does not allocate.
+ */
+public class EnemyStore {
+    public static final int BOSS = 1;
+    public static final int NO_ENEMY = EntityIds.INVALID;
+
+    private static final float FULL_HEALTH_COLOR = Color.toFloatBits(0f, 1f, 0f, 1f); // Green
+
+    private float[] x;
+    private double[] y; // See getExactY
+    private float[] previousY; // Position at the start of the last step, for render interpolation
+    private float[] width;
+    private float[] height;
+    private int[] life;
+    private int[] initialLife;
+    private float[] color; // Packed ABGR, see Color.toFloatBits
+    private byte[] flags;
+    private int size;
+    private final EntityIds ids;
+
+    public EnemyStore(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        x = new float[capacity];
+        y = new double[capacity];
+        previousY = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        life = new int[capacity];
+        initialLife = new int[capacity];
+        color = new float[capacity];
+        flags = new byte[capacity];
+        ids = new EntityIds(capacity);
+    }
+
+    /** Adds an enemy and returns its handle. */
+    public int add(float enemyX, float enemyY, float enemyWidth, float enemyHeight, int enemyLife, int enemyFlags) {
+        if (size == x.length) grow();
+        int i = size++;
+        x[i] = enemyX;
+        y[i] = enemyY;
+        previousY[i] = enemyY;
+        width[i] = enemyWidth;
+        height[i] = enemyHeight;
+        life[i] = enemyLife;
+        initialLife[i] = enemyLife;
+        color[i] = FULL_HEALTH_COLOR;
+        flags[i] = (byte) enemyFlags;
+        return ids.create(i);
+    }
+
+    public void removeIndex(int index) {
+        int last = --size;
+        ids.remove(index, last);
+        x[index] = x[last];
+        y[index] = y[last];
+        previousY[index] = previousY[last];
+        width[index] = width[last];
+        height[index] = height[last];
+        life[index] = life[last];
+        initialLife[index] = initialLife[last];
+        color[index] = color[last];
+        flags[index] = flags[last];
+    }
+
+    public void clear() {
+        ids.clear(size);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int handleAt(int index) {
+        return ids.handleAt(index);
+    }
+
+    /** Current index of the enemy a handle refers to, or {@link #NO_ENEMY} once it was removed. */
+    public int indexOf(int handle) {
+        return ids.indexOf(handle, size);
+    }
+
+    /** Places the enemy at a new height without interpolating from the old one. */
+    public void setY(int index, float newY) {
+        y[index] = newY;
+        previousY[index] = newY;
+    }
+
+    /** Remembers where every enemy starts the step, for render interpolation. */
+    public void beginStep() {
+        for (int i = 0; i < size; i++) {
+            previousY[i] = (float) y[i];
+        }
+    }
+
+    public void translateY(int index, double amount) {
+        y[index] += amount;
+    }
+
+    /** Takes the enemy out of play without a kill, e.g. once it left the screen; it is removed with the dead ones. */
+    public void retire(int index) {
+        life[index] = 0;
+    }
+
+    /** Applies damage and recolours by remaining life. Returns true if this hit killed the enemy. */
+    public boolean hit(int index, int damage) {
+        if (life[index] <= 0) return false;
+        life[index] -= damage;
+        if (life[index] <= 0) return true;
+
+        float lifePercentage = life[index] / (float) initialLife[index];
+        if ((flags[index] & BOSS) != 0) {
+            if (lifePercentage > 0.5f) {
+                // Transition from green to dark red (reduce green, increase red)
+                float transition = (1 - lifePercentage) * 2; // 0 to 1 for upper half
+                color[index] = Color.toFloatBits(transition, 1 - transition, 0, 1);
+            } else {
+                // Transition to darker red, keep red at max and reduce green to half
+                float transition = lifePercentage * 2; // 0 to 1 for lower half
+                color[index] = Color.toFloatBits(1, transition * 0.5f, 0, 1);
+            }
+        } else {
+            if (lifePercentage > 0.5f) {
+                // Transition from green to yellow (reduce green, increase red)
+                float transition = (1 - lifePercentage) * 2;
+                color[index] = Color.toFloatBits(transition, 1, 0, 1);
+            } else {
+                // Transition from yellow to red (reduce green)
+                float transition = lifePercentage * 2;
+                color[index] = Color.toFloatBits(1, transition, 0, 1);
+            }
+        }
+        return false;
+    }
+
+    public boolean isAlive(int index) {
+        return life[index] > 0;
+    }
+
+    public boolean isBoss(int index) {
+        return (flags[index] & BOSS) != 0;
+    }
+
+    /** Same test as {@link com.badlogic.gdx.math.Rectangle#overlaps} against the query box. */
+    public boolean overlaps(int index, float boxX, float boxY, float boxWidth, float boxHeight) {
+        return boxX < x[index] + width[index] && boxX + boxWidth > x[index]
+            && boxY < y[index] + height[index] && boxY + boxHeight > y[index];
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return (float) y[index];
+    }
+
+    /** Height before rounding to float, see {@link BulletStore#getExactY}. */
+    public double getExactY(int index) {
+        return y[index];
+    }
+
+    public float getPreviousY(int index) {
+        return previousY[index];
+    }
+
+    public float getWidth(int index) {
+        return width[index];
+    }
+
+    public float getHeight(int index) {
+        return height[index];
+    }
+
+    public int getLife(int index) {
+        return life[index];
+    }
+
+    /** Colour packed with {@link Color#toFloatBits}. */
+    public float getColor(int index) {
+        return color[index];
+    }
+
+    /** Writes every enemy as one fixed-size record, then the handle bookkeeping. */
+    public void writeState(ByteBuffer out) {
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            out.putFloat(x[i]).putDouble(y[i]).putFloat(previousY[i]).putFloat(width[i]).putFloat(height[i]);
+            out.putInt(life[i]).putInt(initialLife[i]).putFloat(color[i]).put(flags[i]);
+        }
+        ids.writeState(out, size);
+    }
+
+    public void readState(ByteBuffer in) {
+        size = in.getInt();
+        while (x.length < size) grow();
+        for (int i = 0; i < size; i++) {
+            x[i] = in.getFloat();
+            y[i] = in.getDouble();
+            previousY[i] = in.getFloat();
+            width[i] = in.getFloat();
+            height[i] = in.getFloat();
+            life[i] = in.getInt();
+            initialLife[i] = in.getInt();
+            color[i] = in.getFloat();
+            flags[i] = in.get();
+        }
+        ids.readState(in, size);
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        life = Arrays.copyOf(life, capacity);
+        initialLife = Arrays.copyOf(initialLife, capacity);
+        color = Arrays.copyOf(color, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+}
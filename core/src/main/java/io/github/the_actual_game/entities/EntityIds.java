@@ -0,0 +1,130 @@
+package io.github.the_actual_game.entities;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Stable handles for entities that live in a dense, swap-removed component store. A handle packs an
+ * id with the id's generation; the id maps to the entity's current dense index. Removing an entity
+ * bumps its id's generation, so handles kept past removal resolve to -1 instead of to whichever
+ * entity reuses the slot.
+ */
+class EntityIds {
+    static final int INVALID = -1;
+
+    private static final int ID_BITS = 20;
+    private static final int ID_MASK = (1 << ID_BITS) - 1;
+    private static final int GENERATION_MASK = Integer.MAX_VALUE >>> ID_BITS;
+
+    private int[] denseOfId;
+    private int[] generationOfId;
+    private int[] idOfDense;
+    private int[] freeIds;
+    private int freeCount;
+    private int nextId;
+
+    EntityIds(int capacity) {
+        denseOfId = new int[capacity];
+        generationOfId = new int[capacity];
+        idOfDense = new int[capacity];
+        freeIds = new int[capacity];
+    }
+
+    /** Assigns an id to a new entity at {@code dense} and returns its handle. */
+    int create(int dense) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (nextId > ID_MASK) throw new IllegalStateException("Too many entities");
+            id = nextId++;
+            if (id == denseOfId.length) grow();
+        }
+        if (dense >= idOfDense.length) {
+            idOfDense = Arrays.copyOf(idOfDense, Math.max(dense + 1, idOfDense.length * 2));
+        }
+        denseOfId[id] = dense;
+        idOfDense[dense] = id;
+        return handle(id);
+    }
+
+    /** Records a swap-remove: the entity at {@code dense} goes away and the one at {@code last} moves into its slot. */
+    void remove(int dense, int last) {
+        int id = idOfDense[dense];
+        generationOfId[id] = (generationOfId[id] + 1) & GENERATION_MASK;
+        freeIds[freeCount++] = id;
+        if (dense != last) {
+            int movedId = idOfDense[last];
+            idOfDense[dense] = movedId;
+            denseOfId[movedId] = dense;
+        }
+    }
+
+    int handleAt(int dense) {
+        return handle(idOfDense[dense]);
+    }
+
+    /** Dense index of a live handle, or {@link #INVALID} if that entity was removed. */
+    int indexOf(int handle, int size) {
+        if (handle < 0) return INVALID;
+        int id = handle & ID_MASK;
+        if (id >= nextId || generationOfId[id] != handle >>> ID_BITS) return INVALID;
+        int dense = denseOfId[id];
+        return dense < size && idOfDense[dense] == id ? dense : INVALID;
+    }
+
+    /** Frees every id of the first {@code size} entities, invalidating their handles. */
+    void clear(int size) {
+        for (int dense = 0; dense < size; dense++) {
+            int id = idOfDense[dense];
+            generationOfId[id] = (generationOfId[id] + 1) & GENERATION_MASK;
+            freeIds[freeCount++] = id;
+        }
+    }
+
+    /** Writes the id bookkeeping for a store of {@code size} entities, so handles survive {@link #readState}. */
+    void writeState(ByteBuffer out, int size) {
+        out.putInt(nextId);
+        for (int id = 0; id < nextId; id++) {
+            out.putInt(generationOfId[id]);
+            out.putInt(denseOfId[id]);
+        }
+        out.putInt(freeCount);
+        for (int i = 0; i < freeCount; i++) {
+            out.putInt(freeIds[i]);
+        }
+        for (int dense = 0; dense < size; dense++) {
+            out.putInt(idOfDense[dense]);
+        }
+    }
+
+    void readState(ByteBuffer in, int size) {
+        nextId = in.getInt();
+        while (denseOfId.length < nextId) grow();
+        for (int id = 0; id < nextId; id++) {
+            generationOfId[id] = in.getInt();
+            denseOfId[id] = in.getInt();
+        }
+        freeCount = in.getInt();
+        for (int i = 0; i < freeCount; i++) {
+            freeIds[i] = in.getInt();
+        }
+        if (idOfDense.length < size) {
+            idOfDense = Arrays.copyOf(idOfDense, size);
+        }
+        for (int dense = 0; dense < size; dense++) {
+            idOfDense[dense] = in.getInt();
+        }
+    }
+
+    private int handle(int id) {
+        return (generationOfId[id] << ID_BITS) | id;
+    }
+
+    private void grow() {
+        int capacity = denseOfId.length * 2;
+        denseOfId = Arrays.copyOf(denseOfId, capacity);
+        generationOfId = Arrays.copyOf(generationOfId, capacity);
+        freeIds = Arrays.copyOf(freeIds, capacity);
+    }
+}
@@ -1,63 +1,123 @@
 package io.github.the_actual_game.entities;
 
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Align;
 import io.github.the_actual_game.constants.GameConstants;
 import io.github.the_actual_game.constants.LevelConfig;
+import io.github.the_actual_game.constants.LevelRepository;
+import io.github.the_actual_game.rendering.CachedText;
+import io.github.the_actual_game.rendering.RenderQueue;
+import io.github.the_actual_game.simulation.Timeline;
+import io.github.the_actual_game.utils.AtlasRegions;
+import io.github.the_actual_game.utils.SymbolManager;
 
 public class GateManager {
-    private Array<Gate> gates;
-    private float spawnTimer;
+    private final GateStore gates = new GateStore(16);
+    private final Timeline timeline;
+    private final RandomXS128 random;
+    private final Runnable spawnDue = this::onSpawnDue;
+    private int spawnEvent = Timeline.NONE;
+    private double nextSpawnTime;
     private LevelConfig currentLevelConfig;
+    private int currentLevel;
     private static final float GATE_HEIGHT = 4;  // Make gates thin lines
+    private static final float SYMBOL_SIZE = 32;
+    // Precomputed gradient and labels, indexed by powerLevel - MIN_POWER_LEVEL
+    private static final float[] GATE_COLORS = new float[GateStore.MAX_POWER_LEVEL - GateStore.MIN_POWER_LEVEL + 1];
+    private static final String[] POWER_LABELS = new String[GateStore.MAX_POWER_LEVEL - GateStore.MIN_POWER_LEVEL + 1];
+    private final CachedText[] labels = new CachedText[POWER_LABELS.length]; // Created on the first render
+
+    static {
+        for (int level = GateStore.MIN_POWER_LEVEL; level <= GateStore.MAX_POWER_LEVEL; level++) {
+            if (level > 0) {
+                // Transition from white to green for positive
+                float intensity = level / (float)GateStore.MAX_POWER_LEVEL;
+                GATE_COLORS[level - GateStore.MIN_POWER_LEVEL] = Color.toFloatBits(1 - intensity, 1, 1 - intensity, 1);
+            } else {
+                // Transition from white to red for negative
+                float intensity = Math.abs(level) / (float)Math.abs(GateStore.MIN_POWER_LEVEL);
+                GATE_COLORS[level - GateStore.MIN_POWER_LEVEL] = Color.toFloatBits(1, 1 - intensity, 1 - intensity, 1);
+            }
+            POWER_LABELS[level - GateStore.MIN_POWER_LEVEL] = String.valueOf(Math.abs(level));
+        }
+    }
 
-    public GateManager() {
-        gates = new Array<Gate>();
-        spawnTimer = 0;
+    public GateManager(Timeline timeline, RandomXS128 random) {
+        this.timeline = timeline;
+        this.random = random;
+        timeline.register(spawnDue);
         setLevel(0); // Start at level 1 (index 0)
     }
 
     public void setLevel(int level) {
         // Ensure level is within bounds
-        if (level < 0) level = 0;
-        if (level >= GameConstants.MAX_LEVELS) level = GameConstants.MAX_LEVELS - 1;
+        level = LevelRepository.clamp(level);
         
-        currentLevelConfig = GameConstants.LEVEL_CONFIGS[level];
+        currentLevel = level;
+        currentLevelConfig = LevelRepository.get(level);
         gates.clear();
-        spawnTimer = 0;
+        timeline.cancel(spawnEvent);
+        nextSpawnTime = timeline.getTime() + currentLevelConfig.getGateSpawnInterval();
+        spawnEvent = timeline.schedule(nextSpawnTime, spawnDue);
     }
 
-    public void update(float delta, Array<Rectangle> bullets) {
-        spawnTimer += delta;
-        if (spawnTimer >= currentLevelConfig.getGateSpawnInterval()) {
-            spawnGatePair();
-            spawnTimer = 0;
-        }
+    /** Picks up an edited level table; a new spawn interval applies after the pair already scheduled. */
+    public void reloadLevelConfig() {
+        currentLevelConfig = LevelRepository.get(currentLevel);
+    }
+
+    private void onSpawnDue() {
+        spawnGatePair();
+        // Step from the due time rather than now, so pairs stay evenly spaced whatever the step rate
+        nextSpawnTime += currentLevelConfig.getGateSpawnInterval();
+        spawnEvent = timeline.schedule(nextSpawnTime, spawnDue);
+    }
 
-        // Check bullet collisions with gates
-        for (Gate gate : gates) {
-            if (!gate.isUsed()) {
-                for (Rectangle bullet : bullets) {
-                    if (bullet.overlaps(gate.rect)) {
-                        gate.hit(); // Improve gate's power level
-                        // Removed bullet removal to allow pass-through
-                    }
+    /**
+     * Stand-alone step for benchmarks: improves each gate once per bullet that enters it within
+     * {@code delta}, then moves the gates. The world instead resolves bullet crossings in time
+     * order together with its other contacts.
+     */
+    public void update(float delta, BulletView bullets) {
+        beginStep();
+        float reach = (currentLevelConfig.getBulletSpeed() + getSpeed()) * delta;
+        for (int g = 0; g < gates.size(); g++) {
+            if (gates.isUsed(g)) continue;
+            float x = gates.getX(g), y = gates.getY(g), width = gates.getWidth(g);
+            int hits = 0;
+            for (int i = 0, n = bullets.size(); i < n; i++) {
+                // Bullets pass through gates and count once, as their top edge crosses the gate's bottom edge
+                float gap = y - bullets.getY(i) - bullets.getHeight();
+                if (gap > 0 && gap <= reach && bullets.getX(i) < x + width && bullets.getX(i) + bullets.getWidth() > x) {
+                    hits++;
                 }
             }
+            gates.hit(g, hits);
         }
+        move(delta);
+    }
+
+    /** Remembers where the gates start the step, for render interpolation. */
+    public void beginStep() {
+        gates.beginStep();
+    }
 
-        // Update and remove gates
-        for (int i = gates.size - 1; i >= 0; i--) {
-            Gate gate = gates.get(i);
-            gate.rect.y -= currentLevelConfig.getGateSpeed() * delta;
-            gate.update(delta); // Update rotation
-            
-            // Remove gates that are off screen or used
-            if (gate.rect.y + gate.rect.height < 0 || gate.isUsed()) {
+    /** Pixels per second the gates fall at on this level. */
+    public float getSpeed() {
+        return currentLevelConfig.getGateSpeed();
+    }
+
+    /** Moves and spins the gates, then removes the ones that are off screen or used. */
+    public void move(double delta) {
+        double fall = getSpeed() * delta;
+        for (int i = gates.size() - 1; i >= 0; i--) {
+            gates.advance(i, fall, (float) delta);
+            if (gates.getY(i) + gates.getHeight(i) < 0 || gates.isUsed(i)) {
                 gates.removeIndex(i);
             }
         }
@@ -65,22 +125,78 @@ public class GateManager {
 
     private void spawnGatePair() {
         float halfScreenWidth = GameConstants.SCREEN_WIDTH / 2;
-        boolean leftIsPositive = MathUtils.randomBoolean();
-        
-        // Left gate
-        gates.add(new Gate(0, GameConstants.SCREEN_HEIGHT, halfScreenWidth, GATE_HEIGHT, leftIsPositive));
-        
-        // Right gate (opposite of left gate)
-        gates.add(new Gate(halfScreenWidth, GameConstants.SCREEN_HEIGHT, halfScreenWidth, GATE_HEIGHT, !leftIsPositive));
+        boolean leftIsPositive = random.nextBoolean();
+
+        // Left gate, then the right one with the opposite sign
+        gates.add(0, GameConstants.SCREEN_HEIGHT, halfScreenWidth, GATE_HEIGHT, randomGateType(), leftIsPositive);
+        gates.add(halfScreenWidth, GameConstants.SCREEN_HEIGHT, halfScreenWidth, GATE_HEIGHT, randomGateType(), !leftIsPositive);
+    }
+
+    private GateType randomGateType() {
+        return random.nextFloat() < 0.5f ? GateType.SPEED : GateType.SHOTS;
+    }
+
+    /** @param alpha how far between the previous and current step to draw, 0 to 1 */
+    public void render(RenderQueue queue, BitmapFont font, float alpha) {
+        for (int i = 0; i < gates.size(); i++) {
+            if (gates.isUsed(i)) continue;
+            float x = gates.getX(i), width = gates.getWidth(i);
+            float previousY = gates.getPreviousY(i);
+            float y = previousY + (gates.getY(i) - previousY) * alpha;
+            float rotation = gates.getRotation(i), previousRotation = gates.getPreviousRotation(i);
+            float to = rotation < previousRotation ? rotation + 360 : rotation; // Unwrap past 360
+            float drawRotation = previousRotation + (to - previousRotation) * alpha;
+            int level = gates.getPowerLevel(i) - GateStore.MIN_POWER_LEVEL;
+
+            // Draw the line with color based on power level
+            queue.rect(x, y, width, gates.getHeight(i), GATE_COLORS[level]);
+
+            // Draw the rotating symbol above the line, rotated around its center
+            TextureRegion symbol = SymbolManager.getSymbol(getSymbolRegion(i));
+            float centerX = x + (width - SYMBOL_SIZE) / 2;
+            float centerY = y + 30;
+            queue.sprite(symbol,
+                         centerX, centerY,
+                         SYMBOL_SIZE/2, SYMBOL_SIZE/2,
+                         SYMBOL_SIZE, SYMBOL_SIZE,
+                         drawRotation);
+
+            // Draw power level centred under the symbol
+            queue.text(getLabel(font, level), centerX + SYMBOL_SIZE / 2, centerY - 10);
+        }
+    }
+
+    // The labels never change, so each is laid out once and shared by every gate showing it
+    private CachedText getLabel(BitmapFont font, int level) {
+        if (labels[level] == null) {
+            labels[level] = new CachedText(font, POWER_LABELS[level], Color.WHITE, Align.center);
+        }
+        return labels[level];
     }
 
-    public void render(ShapeRenderer shapeRenderer, SpriteBatch batch, BitmapFont font) {
-        for (Gate gate : gates) {
-            gate.render(shapeRenderer, batch, font);
+    private int getSymbolRegion(int index) {
+        if (gates.getType(index) == GateType.SPEED) {
+            return gates.isPositive(index) ? AtlasRegions.SPEED_UP : AtlasRegions.SPEED_DOWN;
+        } else {
+            return gates.isPositive(index) ? AtlasRegions.SHOTS_UP : AtlasRegions.SHOTS_DOWN;
         }
     }
 
-    public Array<Gate> getGates() {
+    /** Writes the spawn schedule and every gate; the level table itself is not part of the state. */
+    public void writeState(ByteBuffer out) {
+        out.putInt(currentLevel).putInt(spawnEvent).putDouble(nextSpawnTime);
+        gates.writeState(out);
+    }
+
+    public void readState(ByteBuffer in) {
+        currentLevel = in.getInt();
+        currentLevelConfig = LevelRepository.get(currentLevel);
+        spawnEvent = in.getInt();
+        nextSpawnTime = in.getDouble();
+        gates.readState(in);
+    }
+
+    public GateStore getGates() {
         return gates;
     }
 
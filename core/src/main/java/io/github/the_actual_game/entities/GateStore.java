@@ -0,0 +1,225 @@
+package io.github.the_actual_game.entities;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Every gate's components in parallel primitive arrays, laid out like {@link EnemyStore}: dense in
+ * [0, size), swap-removed, so loops that remove while iterating walk from the end, with
+ * generation-checked handles for anything that outlives a step.
+ */
+public class GateStore {
+    public static final int MAX_POWER_LEVEL = 5;
+    public static final int MIN_POWER_LEVEL = -5;
+
+    private static final float ROTATION_SPEED = 90f; // Degrees per second
+
+    private float[] x;
+    private double[] y; // See getExactY
+    private float[] previousY; // Position and rotation at the start of the last step, for render interpolation
+    private float[] width;
+    private float[] height;
+    private float[] rotation;
+    private float[] previousRotation;
+    private byte[] powerLevel; // Negative = bad, Positive = good
+    private byte[] type; // GateType ordinal
+    private boolean[] used;
+    private int size;
+    private final EntityIds ids;
+
+    public GateStore(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        x = new float[capacity];
+        y = new double[capacity];
+        previousY = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        rotation = new float[capacity];
+        previousRotation = new float[capacity];
+        powerLevel = new byte[capacity];
+        type = new byte[capacity];
+        used = new boolean[capacity];
+        ids = new EntityIds(capacity);
+    }
+
+    /** Adds an unused gate at power level 1 or -1 and returns its handle. */
+    public int add(float gateX, float gateY, float gateWidth, float gateHeight, GateType gateType, boolean isPositive) {
+        if (size == x.length) grow();
+        int i = size++;
+        x[i] = gateX;
+        y[i] = gateY;
+        previousY[i] = gateY;
+        width[i] = gateWidth;
+        height[i] = gateHeight;
+        rotation[i] = 0;
+        previousRotation[i] = 0;
+        powerLevel[i] = (byte) (isPositive ? 1 : -1);
+        type[i] = (byte) gateType.ordinal();
+        used[i] = false;
+        return ids.create(i);
+    }
+
+    public void removeIndex(int index) {
+        int last = --size;
+        ids.remove(index, last);
+        x[index] = x[last];
+        y[index] = y[last];
+        previousY[index] = previousY[last];
+        width[index] = width[last];
+        height[index] = height[last];
+        rotation[index] = rotation[last];
+        previousRotation[index] = previousRotation[last];
+        powerLevel[index] = powerLevel[last];
+        type[index] = type[last];
+        used[index] = used[last];
+    }
+
+    public void clear() {
+        ids.clear(size);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int handleAt(int index) {
+        return ids.handleAt(index);
+    }
+
+    /** Current index of the gate a handle refers to, or -1 once it was removed. */
+    public int indexOf(int handle) {
+        return ids.indexOf(handle, size);
+    }
+
+    /** Places the gate at a new height without interpolating from the old one. */
+    public void setY(int index, float newY) {
+        y[index] = newY;
+        previousY[index] = newY;
+    }
+
+    /** Remembers where every gate starts the step, for render interpolation. */
+    public void beginStep() {
+        for (int i = 0; i < size; i++) {
+            previousY[i] = (float) y[i];
+        }
+        System.arraycopy(rotation, 0, previousRotation, 0, size);
+    }
+
+    /** Moves the gate down and spins its symbol. */
+    public void advance(int index, double fall, float delta) {
+        y[index] -= fall;
+        rotation[index] += ROTATION_SPEED * delta;
+        if (rotation[index] >= 360) {
+            rotation[index] -= 360;
+        }
+    }
+
+    /** Bullets passed through: raise the power level by one per bullet, capped at {@link #MAX_POWER_LEVEL}. */
+    public void hit(int index, int bullets) {
+        if (!used[index] && bullets > 0) {
+            powerLevel[index] = (byte) Math.min(MAX_POWER_LEVEL, powerLevel[index] + bullets);
+        }
+    }
+
+    public boolean overlaps(int index, float boxX, float boxY, float boxWidth, float boxHeight) {
+        return boxX < x[index] + width[index] && boxX + boxWidth > x[index]
+            && boxY < y[index] + height[index] && boxY + boxHeight > y[index];
+    }
+
+    public boolean isPositive(int index) {
+        return powerLevel[index] > 0;
+    }
+
+    public boolean isUsed(int index) {
+        return used[index];
+    }
+
+    public void setUsed(int index) {
+        used[index] = true;
+    }
+
+    public int getPowerLevel(int index) {
+        return powerLevel[index];
+    }
+
+    public GateType getType(int index) {
+        return GateType.of(type[index]);
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return (float) y[index];
+    }
+
+    /** Height before rounding to float, see {@link BulletStore#getExactY}. */
+    public double getExactY(int index) {
+        return y[index];
+    }
+
+    public float getPreviousY(int index) {
+        return previousY[index];
+    }
+
+    public float getWidth(int index) {
+        return width[index];
+    }
+
+    public float getHeight(int index) {
+        return height[index];
+    }
+
+    public float getRotation(int index) {
+        return rotation[index];
+    }
+
+    public float getPreviousRotation(int index) {
+        return previousRotation[index];
+    }
+
+    /** Writes every gate as one fixed-size record, then the handle bookkeeping. */
+    public void writeState(ByteBuffer out) {
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            out.putFloat(x[i]).putDouble(y[i]).putFloat(previousY[i]).putFloat(width[i]).putFloat(height[i]);
+            out.putFloat(rotation[i]).putFloat(previousRotation[i]);
+            out.put(powerLevel[i]).put(type[i]).put((byte) (used[i] ? 1 : 0));
+        }
+        ids.writeState(out, size);
+    }
+
+    public void readState(ByteBuffer in) {
+        size = in.getInt();
+        while (x.length < size) grow();
+        for (int i = 0; i < size; i++) {
+            x[i] = in.getFloat();
+            y[i] = in.getDouble();
+            previousY[i] = in.getFloat();
+            width[i] = in.getFloat();
+            height[i] = in.getFloat();
+            rotation[i] = in.getFloat();
+            previousRotation[i] = in.getFloat();
+            powerLevel[i] = in.get();
+            type[i] = in.get();
+            used[i] = in.get() != 0;
+        }
+        ids.readState(in, size);
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+        previousRotation = Arrays.copyOf(previousRotation, capacity);
+        powerLevel = Arrays.copyOf(powerLevel, capacity);
+        type = Arrays.copyOf(type, capacity);
+        used = Arrays.copyOf(used, capacity);
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.the_actual_game.entities;
+
+/** What a gate upgrades when the player passes through it. */
+public enum GateType {
+    SPEED,
+    SHOTS;
+
+    private static final GateType[] VALUES = values();
+
+    static GateType of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
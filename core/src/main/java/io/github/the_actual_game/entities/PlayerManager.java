@@ -1,95 +1,188 @@
 package io.github.the_actual_game.entities;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
+import java.nio.ByteBuffer;
+
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
 import io.github.the_actual_game.constants.GameConstants;
 import io.github.the_actual_game.constants.LevelConfig;
+import io.github.the_actual_game.constants.LevelRepository;
+import io.github.the_actual_game.rendering.RenderQueue;
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.Timeline;
 
 public class PlayerManager {
+    private final int index; // 0 for the first player; co-op adds more, see World
+    private final int playerCount;
     private Rectangle player;
-    private Array<Rectangle> bullets;
+    private float previousX; // Position at the start of the last step, for render interpolation
+    // Exact position; player.x is this rounded. Whole-step moves add up the same at any step rate.
+    private double positionX;
+    private double stepStartX; // Where the current step started, at stepStart, moving at stepVelocityX
+    private double stepStart;
+    private float stepVelocityX;
+    private BulletStore bullets;
     private int lives;
-    private float invulnerabilityTimer;
+    private final Timeline timeline;
+    private final Runnable shotDue = this::onShotDue;
+    private final Runnable invulnerabilityOver = this::onInvulnerabilityOver;
+    private int shotEvent = Timeline.NONE;
+    private int invulnerabilityEvent = Timeline.NONE;
+    private double lastShotTime;
+    private double invulnerableUntil;
+    private boolean invulnerable;
+    private boolean shotFired;
+    private boolean godMode;
+    private static final Color BULLET_COLOR = new Color(0.8f, 0f, 1f, 1f); // Bright purple color
+    private static final Color[] PLAYER_COLORS = { Color.BLUE, Color.ORANGE };
+    private static final Color[] BULLET_COLORS = { BULLET_COLOR, new Color(1f, 0.85f, 0.2f, 1f) }; // Purple, gold
+    private static final float HUD_ROW_HEIGHT = 25;
     private static final float INVULNERABILITY_DURATION = 2.0f; // 2 seconds of invulnerability after being hit
     private LevelConfig currentLevelConfig;
-    private float shootingTimer = 0;
+    private int currentLevel;
     private float currentShootingInterval;
     private int currentShotCount;
 
-    public PlayerManager() {
+    public PlayerManager(Timeline timeline) {
+        this(timeline, 0, 1);
+    }
+
+    /** Player {@code index} of {@code playerCount}; each starts centred in its own share of the screen width. */
+    public PlayerManager(Timeline timeline, int index, int playerCount) {
+        if (index < 0 || index >= PLAYER_COLORS.length) throw new IllegalArgumentException("Player index: " + index);
+        this.timeline = timeline;
+        this.index = index;
+        this.playerCount = playerCount;
+        timeline.register(shotDue);
+        timeline.register(invulnerabilityOver);
         player = new Rectangle();
         player.width = GameConstants.PLAYER_WIDTH;
         player.height = GameConstants.PLAYER_HEIGHT;
-        player.x = GameConstants.SCREEN_WIDTH/2 - player.width/2;
+        player.x = startX();
         player.y = GameConstants.PLAYER_INITIAL_Y;
-        bullets = new Array<Rectangle>();
+        previousX = player.x;
+        positionX = player.x;
+        bullets = new BulletStore(GameConstants.MAX_BULLETS);
         lives = GameConstants.PLAYER_DEFAULT_LIFE;
-        invulnerabilityTimer = 0;
         currentShootingInterval = GameConstants.DEFAULT_SHOOTING_INTERVAL;
         currentShotCount = GameConstants.DEFAULT_SHOT_COUNT;
         setLevel(0); // Start at level 1 (index 0)
+        startShooting();
+    }
+
+    private float startX() {
+        return GameConstants.SCREEN_WIDTH * (2 * index + 1) / (2f * playerCount) - player.width / 2;
     }
 
     public void setLevel(int level) {
         // Ensure level is within bounds
-        if (level < 0) level = 0;
-        if (level >= GameConstants.MAX_LEVELS) level = GameConstants.MAX_LEVELS - 1;
+        level = LevelRepository.clamp(level);
         
-        currentLevelConfig = GameConstants.LEVEL_CONFIGS[level];
+        currentLevel = level;
+        currentLevelConfig = LevelRepository.get(level);
     }
 
-    public void update(float delta) {
-        // Update invulnerability timer
-        if (invulnerabilityTimer > 0) {
-            invulnerabilityTimer -= delta;
-        }
+    /** Picks up an edited level table, e.g. a new bullet speed, without restarting the level. */
+    public void reloadLevelConfig() {
+        currentLevelConfig = LevelRepository.get(currentLevel);
+    }
 
-        // Handle player movement
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
-            player.x -= GameConstants.PLAYER_SPEED * delta;
+    public void update(float delta, InputState input) {
+        beginStep(input);
+        moveTo(stepStart + delta);
+        moveBullets(delta, 0, bullets.size());
+        removeSpentBullets();
+    }
+
+    /** Takes the step's input and remembers where the player and bullets start it, see {@link #getXAt}. */
+    public void beginStep(InputState input) {
+        previousX = player.x;
+        bullets.beginStep();
+        stepStartX = positionX;
+        stepStart = timeline.getTime();
+        stepVelocityX = 0;
+        if (input.left) {
+            stepVelocityX -= GameConstants.PLAYER_SPEED;
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
-            player.x += GameConstants.PLAYER_SPEED * delta;
+        if (input.right) {
+            stepVelocityX += GameConstants.PLAYER_SPEED;
         }
+    }
 
-        // Keep player within screen bounds
-        if (player.x < 0) player.x = 0;
-        if (player.x > GameConstants.SCREEN_WIDTH - player.width) {
-            player.x = GameConstants.SCREEN_WIDTH - player.width;
+    /**
+     * Where the player is at {@code time} within the current step: it moves at a constant speed
+     * from where the step started and stops at the screen edges.
+     */
+    public double getXAt(double time) {
+        double x = stepStartX + stepVelocityX * (time - stepStart);
+        return Math.max(0, Math.min(GameConstants.SCREEN_WIDTH - player.width, x));
+    }
+
+    /** Horizontal speed during the current step, negative to the left, before the screen edges stop it. */
+    public float getVelocityX() {
+        return stepVelocityX;
+    }
+
+    /** Moves the player to where it is at {@code time} within the current step. */
+    public void moveTo(double time) {
+        positionX = getXAt(time);
+        player.x = (float) positionX;
+    }
+
+    /** Pixels per second the bullets rise at on this level. */
+    public float getBulletSpeed() {
+        return currentLevelConfig.getBulletSpeed();
+    }
+
+    /** Advances bullets [from, to). Touches nothing outside the range, so disjoint ranges may run in parallel. */
+    public void moveBullets(double delta, int from, int to) {
+        double bulletStep = getBulletSpeed() * delta;
+        for (int i = from; i < to; i++) {
+            bullets.translateY(i, bulletStep);
         }
+    }
 
-        // Update bullets
-        for (int i = bullets.size - 1; i >= 0; i--) {
-            Rectangle bullet = bullets.get(i);
-            bullet.y += currentLevelConfig.getBulletSpeed() * delta;
-            if (bullet.y > GameConstants.SCREEN_HEIGHT) {
+    /** Drops the bullets that left the top of the screen. */
+    public void removeSpentBullets() {
+        for (int i = bullets.size() - 1; i >= 0; i--) {
+            if (bullets.getY(i) > GameConstants.SCREEN_HEIGHT) {
                 bullets.removeIndex(i);
             }
         }
+    }
 
-        // Handle auto-shooting
-        shootingTimer += delta;
-        if (shootingTimer >= currentShootingInterval) {
-            shoot();
-            shootingTimer = 0;
-        }
+    // Auto-shooting: one timeline event per shot, each scheduling the next
+    private void startShooting() {
+        timeline.cancel(shotEvent);
+        lastShotTime = timeline.getTime();
+        shotEvent = timeline.schedule(lastShotTime + currentShootingInterval, shotDue);
+    }
+
+    private void onShotDue() {
+        shoot();
+        shotFired = true;
+        lastShotTime += currentShootingInterval;
+        shotEvent = timeline.schedule(lastShotTime + currentShootingInterval, shotDue);
+    }
+
+    // Moves the pending shot so a new interval applies from the last shot, as the old per-frame timer did
+    private void rescheduleShot() {
+        if (!timeline.cancel(shotEvent)) return;
+        double due = Math.max(lastShotTime + currentShootingInterval, timeline.getTime());
+        shotEvent = timeline.schedule(due, shotDue);
     }
 
-    private void shoot() {
+    private void onInvulnerabilityOver() {
+        invulnerable = false;
+        invulnerabilityEvent = Timeline.NONE;
+    }
+
+    public void shoot() {
         float totalWidth = (currentShotCount - 1) * GameConstants.MULTI_SHOT_SPREAD;
         float startX = player.x + player.width / 2 - totalWidth / 2;
 
         for (int i = 0; i < currentShotCount; i++) {
-            Rectangle bullet = new Rectangle();
-            bullet.width = GameConstants.BULLET_WIDTH;
-            bullet.height = GameConstants.BULLET_HEIGHT;
-            bullet.x = startX + (i * GameConstants.MULTI_SHOT_SPREAD);
-            bullet.y = player.y + player.height;
-            bullets.add(bullet);
+            bullets.add(startX + (i * GameConstants.MULTI_SHOT_SPREAD), player.y + player.height);
         }
     }
 
@@ -104,6 +197,7 @@ public class PlayerManager {
             currentShootingInterval = Math.min(GameConstants.MAX_SHOOTING_INTERVAL, 
                                            currentShootingInterval + adjustment);
         }
+        rescheduleShot();
     }
 
     public void adjustShotCount(int powerLevel) {
@@ -119,38 +213,43 @@ public class PlayerManager {
         }
     }
 
-    public boolean handleShooting() {
-        // This method is now only used to tell the game screen if a shot was fired this frame
-        return shootingTimer == 0;
+    /** True if an auto-shot fired since the last call; tells the game screen to play the sound. */
+    public boolean consumeShotFired() {
+        boolean fired = shotFired;
+        shotFired = false;
+        return fired;
     }
 
-    public void render(ShapeRenderer shapeRenderer) {
-        // Draw player with blinking effect when invulnerable
-        if (invulnerabilityTimer <= 0 || (int)(invulnerabilityTimer * 10) % 2 == 0) {
-            shapeRenderer.setColor(Color.BLUE);
-            shapeRenderer.rect(player.x, player.y, player.width, player.height);
+    /** @param alpha how far between the previous and current step to draw, 0 to 1 */
+    public void render(RenderQueue queue, float alpha) {
+        Color bulletColor = BULLET_COLORS[index];
+
+        // Draw player with blinking effect when invulnerable; a player out of lives is gone
+        float invulnerabilityLeft = invulnerable ? (float) (invulnerableUntil - timeline.getTime()) : 0;
+        if (isAlive() && (invulnerabilityLeft <= 0 || (int)(invulnerabilityLeft * 10) % 2 == 0)) {
+            float x = previousX + (player.x - previousX) * alpha;
+            queue.rect(x, player.y, player.width, player.height, PLAYER_COLORS[index]);
         }
 
-        // Draw bullets in purple
-        shapeRenderer.setColor(new Color(0.8f, 0f, 1f, 1f)); // Bright purple color
-        for (Rectangle bullet : bullets) {
-            shapeRenderer.rect(bullet.x, bullet.y, bullet.width, bullet.height);
+        // Draw bullets in purple, or the second player's gold
+        for (int i = 0; i < bullets.size(); i++) {
+            queue.rect(bullets.getX(i), bullets.getInterpolatedY(i, alpha), bullets.getWidth(), bullets.getHeight(), bulletColor);
         }
 
+        // Each player's indicators get their own row below the top edge
+        float y = GameConstants.SCREEN_HEIGHT - 30 - index * HUD_ROW_HEIGHT;
+
         // Draw life indicators in the top-left corner
-        shapeRenderer.setColor(Color.RED);
+        Color lifeColor = index == 0 ? Color.RED : PLAYER_COLORS[index];
         for (int i = 0; i < lives; i++) {
             float x = 10 + i * (GameConstants.PLAYER_WIDTH * 0.5f + 5);
-            float y = GameConstants.SCREEN_HEIGHT - 30;
-            shapeRenderer.rect(x, y, GameConstants.PLAYER_WIDTH * 0.5f, GameConstants.PLAYER_HEIGHT * 0.5f);
+            queue.rect(x, y, GameConstants.PLAYER_WIDTH * 0.5f, GameConstants.PLAYER_HEIGHT * 0.5f, lifeColor);
         }
 
         // Draw shot count indicator in the top-right corner
-        shapeRenderer.setColor(new Color(0.8f, 0f, 1f, 1f)); // Match bullet color
         for (int i = 0; i < currentShotCount; i++) {
             float x = GameConstants.SCREEN_WIDTH - 30 - i * (GameConstants.BULLET_WIDTH + 5);
-            float y = GameConstants.SCREEN_HEIGHT - 30;
-            shapeRenderer.rect(x, y, GameConstants.BULLET_WIDTH, GameConstants.BULLET_HEIGHT);
+            queue.rect(x, y, GameConstants.BULLET_WIDTH, GameConstants.BULLET_HEIGHT, bulletColor);
         }
     }
 
@@ -158,38 +257,115 @@ public class PlayerManager {
         return player;
     }
 
-    public Array<Rectangle> getBullets() {
+    /** Read-only view for collision code. */
+    public BulletView getBullets() {
+        return bullets;
+    }
+
+    /** Mutable store, for the world to remove bullets that hit something. */
+    public BulletStore getBulletStore() {
         return bullets;
     }
 
     public void reset() {
-        player.x = GameConstants.SCREEN_WIDTH/2 - player.width/2;
+        player.x = startX();
         player.y = GameConstants.PLAYER_INITIAL_Y;
+        previousX = player.x;
+        positionX = player.x;
         bullets.clear();
         lives = GameConstants.PLAYER_DEFAULT_LIFE;
-        invulnerabilityTimer = 0;
-        shootingTimer = 0;
+        timeline.cancel(invulnerabilityEvent);
+        invulnerable = false;
+        shotFired = false;
         currentShootingInterval = GameConstants.DEFAULT_SHOOTING_INTERVAL;
         currentShotCount = GameConstants.DEFAULT_SHOT_COUNT;
         setLevel(0);
+        startShooting();
     }
 
     public boolean isInvulnerable() {
-        return invulnerabilityTimer > 0;
+        return invulnerable;
     }
 
     public void hit() {
-        if (!isInvulnerable()) {
+        if (!godMode && !isInvulnerable()) {
             lives--;
-            invulnerabilityTimer = INVULNERABILITY_DURATION;
+            invulnerable = true;
+            invulnerableUntil = timeline.getTime() + INVULNERABILITY_DURATION;
+            invulnerabilityEvent = timeline.schedule(invulnerableUntil, invulnerabilityOver);
+            if (lives <= 0) {
+                timeline.cancel(shotEvent); // Out of the game; in co-op the other player plays on
+            }
+        }
+    }
+
+    /** Stress runs: hits cost no lives, so the session never ends. */
+    public void setGodMode(boolean godMode) {
+        this.godMode = godMode;
+    }
+
+    /** Replaces the bullet store with a larger one if needed. Bullets in flight are dropped. */
+    public void ensureBulletCapacity(int capacity) {
+        if (capacity > bullets.getCapacity()) {
+            bullets = new BulletStore(capacity);
         }
     }
 
+    /** Writes everything {@link #reset} and the steps change; the level table itself is not part of the state. */
+    public void writeState(ByteBuffer out) {
+        out.putDouble(positionX).putFloat(player.y).putFloat(previousX);
+        out.putInt(lives).putInt(currentLevel).putFloat(currentShootingInterval).putInt(currentShotCount);
+        out.putInt(shotEvent).putDouble(lastShotTime);
+        out.putInt(invulnerabilityEvent).putDouble(invulnerableUntil);
+        out.put((byte) ((invulnerable ? 1 : 0) | (shotFired ? 2 : 0) | (godMode ? 4 : 0)));
+        out.putInt(bullets.getCapacity());
+        bullets.writeState(out);
+    }
+
+    public void readState(ByteBuffer in) {
+        positionX = in.getDouble();
+        player.x = (float) positionX;
+        player.y = in.getFloat();
+        previousX = in.getFloat();
+        lives = in.getInt();
+        setLevel(in.getInt());
+        currentShootingInterval = in.getFloat();
+        currentShotCount = in.getInt();
+        shotEvent = in.getInt();
+        lastShotTime = in.getDouble();
+        invulnerabilityEvent = in.getInt();
+        invulnerableUntil = in.getDouble();
+        int flags = in.get();
+        invulnerable = (flags & 1) != 0;
+        shotFired = (flags & 2) != 0;
+        godMode = (flags & 4) != 0;
+        ensureBulletCapacity(in.getInt());
+        bullets.readState(in);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
     public boolean isAlive() {
         return lives > 0;
     }
 
+    /** True if an enemy reaching the player now would cost a life. */
+    public boolean isVulnerable() {
+        return isAlive() && !invulnerable && !godMode;
+    }
+
     public int getLives() {
         return lives;
     }
+
+    public int getShotCount() {
+        return currentShotCount;
+    }
+
+    /** Seconds between auto-shots, between {@link GameConstants#MIN_SHOOTING_INTERVAL} and the max. */
+    public float getShootingInterval() {
+        return currentShootingInterval;
+    }
 }
@@ -0,0 +1,484 @@
+package io.github.the_actual_game.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.PortUnreachableException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import io.github.the_actual_game.constants.LevelRepository;
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.World;
+
+/**
+ * Two-player co-op over UDP. The peers run the same deterministic {@link World} and only exchange
+ * their inputs, so a session costs a few hundred bytes per second whatever happens on screen.
+ * <p>
+ * A local input applies {@code inputDelay} frames after it was sampled, which hides that much
+ * latency outright. Beyond that the remote player is predicted to keep their last known input; when
+ * the real input turns out different, the world is rewound to the snapshot before the first wrong
+ * frame and stepped forward again. Snapshots of the last {@code maxRollback} frames are kept for
+ * that, and {@link #step} refuses to run further ahead of the remote input than it could roll back.
+ * <p>
+ * Every {@link #CHECKSUM_INTERVAL} frames each peer hashes its snapshot once the frame is confirmed,
+ * i.e. both inputs before it are known, and sends the hash along; a mismatch is reported by
+ * {@link #getDesyncFrame}. Both worlds must be freshly built for two players; the handshake resets
+ * them to player 0's seed, and refuses a peer whose level table is not the same as ours.
+ * <p>
+ * Once the game has ended, each player's confirm counts as a vote to play again. On the frame both
+ * have voted the session resets the world to the next seed, so the peers start the new game on the
+ * same frame, and rollback or checksums need no special case.
+ * <p>
+ * Wire format, big-endian:
+ * <pre>
+ * HELLO  type, protocol, player, seed (long), steps per second (int), level table checksum (int)
+ * INPUT  type, ack (int), first frame (int), frame count (short), runs, checksum frame (int), checksum (int)
+ * </pre>
+ * An INPUT packet repeats every local input the peer has not acknowledged, so a lost packet only
+ * delays input until the next one. Runs are one byte each: the buttons in the low 3 bits, the run
+ * length minus one above them. Packets go out when the local input changes and otherwise at
+ * {@link #HEARTBEAT_NANOS} intervals.
+ */
+public class LockstepSession implements Closeable {
+    public static final int CHECKSUM_INTERVAL = 30;
+    public static final int NO_FRAME = -1;
+
+    private static final int HISTORY = 256; // Frames of input kept; must exceed twice the delay plus rollback
+    private static final int HISTORY_MASK = HISTORY - 1;
+    private static final int CHECKSUM_SLOTS = 16;
+    private static final int MAX_FRAMES_PER_PACKET = 128;
+    private static final int MAX_RUN = 32;
+    private static final long HEARTBEAT_NANOS = 50_000_000L;
+    private static final long HELLO_NANOS = 250_000_000L;
+    private static final int INITIAL_SNAPSHOT_BYTES = 16 * 1024;
+
+    private static final byte HELLO = 1;
+    private static final byte INPUT = 2;
+    private static final byte PROTOCOL = 4; // Bump on wire changes and with Replay.VERSION: peers must step the same simulation
+    private static final int LEFT = 1;
+    private static final int RIGHT = 2;
+    private static final int CONFIRM = 4;
+
+    private final World world;
+    private final int localPlayer;
+    private final DatagramChannel channel;
+    private final int stepsPerSecond;
+    private final float stepDelta;
+    private final int inputDelay;
+    private final int maxRollback;
+
+    // Inputs by frame & HISTORY_MASK, as button bits
+    private final byte[] localInputs = new byte[HISTORY];
+    private final byte[] remoteInputs = new byte[HISTORY];
+    private final byte[] usedRemoteInputs = new byte[HISTORY]; // What each simulated frame assumed
+    private final InputState[] stepInputs = { new InputState(), new InputState() };
+
+    // World state at the start of each of the last frames, by frame % length
+    private final ByteBuffer[] snapshots;
+    private final int[] snapshotFrames;
+    private final CRC32 crc = new CRC32();
+
+    private boolean connected;
+    private int currentFrame; // Next frame to simulate
+    private int localKnownUntil; // Local inputs are set for frames below this
+    private int remoteKnownUntil; // Remote inputs arrived for frames below this
+    private int peerAck; // The peer holds our inputs below this
+    private int firstMispredicted = Integer.MAX_VALUE;
+    private byte lastRemoteInput;
+
+    private int nextChecksumFrame = CHECKSUM_INTERVAL;
+    private int lastChecksumFrame = NO_FRAME;
+    private int lastChecksum;
+    private final int[] localChecksumFrames = new int[CHECKSUM_SLOTS];
+    private final int[] localChecksums = new int[CHECKSUM_SLOTS];
+    private final int[] remoteChecksumFrames = new int[CHECKSUM_SLOTS];
+    private final int[] remoteChecksums = new int[CHECKSUM_SLOTS];
+    private int desyncFrame = NO_FRAME;
+
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(1024);
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(1024);
+    private boolean sendPending;
+    private boolean helloRequested;
+    private long lastSendNanos;
+    private long lastHelloNanos;
+
+    private long bytesSent;
+    private long bytesReceived;
+    private long packetsSent;
+    private long packetsReceived;
+    private long rollbacks;
+    private long resimulatedFrames;
+    private int deepestRollback;
+    private long stalls;
+
+    /**
+     * @param world a new world built for two players
+     * @param localPlayer 0 or 1; player 0's seed is used
+     * @param channel a channel connected to the peer; the session switches it to non-blocking and closes it
+     * @param inputDelay frames between sampling a local input and applying it
+     * @param maxRollback frames the session may run ahead of the remote input
+     */
+    public LockstepSession(World world, int localPlayer, DatagramChannel channel, int stepsPerSecond,
+                           int inputDelay, int maxRollback) throws IOException {
+        if (world.getPlayerCount() != 2) throw new IllegalArgumentException("Co-op needs a two player world");
+        if (localPlayer != 0 && localPlayer != 1) throw new IllegalArgumentException("Player: " + localPlayer);
+        if (!channel.isConnected()) throw new IllegalArgumentException("Channel is not connected to a peer");
+        if (inputDelay < 0 || maxRollback < 1 || 2 * (inputDelay + maxRollback) >= HISTORY - MAX_RUN) {
+            throw new IllegalArgumentException("Input delay " + inputDelay + ", rollback " + maxRollback);
+        }
+        this.world = world;
+        this.localPlayer = localPlayer;
+        this.channel = channel;
+        this.stepsPerSecond = stepsPerSecond;
+        this.stepDelta = 1f / stepsPerSecond;
+        this.inputDelay = inputDelay;
+        this.maxRollback = maxRollback;
+        channel.configureBlocking(false);
+
+        snapshots = new ByteBuffer[maxRollback + 2];
+        snapshotFrames = new int[snapshots.length];
+        for (int i = 0; i < snapshots.length; i++) {
+            snapshots[i] = ByteBuffer.allocate(INITIAL_SNAPSHOT_BYTES);
+        }
+        Arrays.fill(snapshotFrames, NO_FRAME);
+        Arrays.fill(localChecksumFrames, NO_FRAME);
+        Arrays.fill(remoteChecksumFrames, NO_FRAME);
+        localKnownUntil = inputDelay; // The first frames run without local input
+        helloRequested = true; // On the first poll
+    }
+
+    /**
+     * Receives whatever arrived, rolls back right away if it corrects a prediction, so the next
+     * render shows the corrected state, and sends the handshake, pending input or a heartbeat.
+     * Call every frame.
+     */
+    public void poll(long nowNanos) throws IOException {
+        receive();
+        if (connected) {
+            rollbackIfMispredicted();
+            updateChecksums();
+        }
+        if (!connected || helloRequested) {
+            if (helloRequested || nowNanos - lastHelloNanos >= HELLO_NANOS) {
+                sendHello(nowNanos);
+            }
+        }
+        if (connected && (sendPending || nowNanos - lastSendNanos >= HEARTBEAT_NANOS)) {
+            sendInput(nowNanos);
+        }
+    }
+
+    /**
+     * Applies {@code input} {@code inputDelay} frames from now and simulates the next frame, first
+     * rolling back if a remote input arrived that differs from the prediction. Returns false without
+     * doing anything while the peer is not connected or too far behind; try again next frame with
+     * the same input.
+     */
+    public boolean step(InputState input) {
+        if (!connected) return false;
+        if (currentFrame - remoteKnownUntil >= maxRollback) {
+            stalls++;
+            return false;
+        }
+        rollbackIfMispredicted();
+
+        int frame = currentFrame + inputDelay;
+        byte buttons = encode(input);
+        localInputs[frame & HISTORY_MASK] = buttons;
+        localKnownUntil = frame + 1;
+        if (frame == 0 || buttons != localInputs[(frame - 1) & HISTORY_MASK]) {
+            sendPending = true;
+        }
+
+        simulate(currentFrame++);
+        updateChecksums();
+        return true;
+    }
+
+    private void rollbackIfMispredicted() {
+        if (firstMispredicted >= currentFrame) {
+            firstMispredicted = Integer.MAX_VALUE;
+            return;
+        }
+        int from = firstMispredicted;
+        firstMispredicted = Integer.MAX_VALUE;
+        loadSnapshot(from);
+        for (int frame = from; frame < currentFrame; frame++) {
+            simulate(frame);
+        }
+        rollbacks++;
+        resimulatedFrames += currentFrame - from;
+        deepestRollback = Math.max(deepestRollback, currentFrame - from);
+    }
+
+    private void simulate(int frame) {
+        saveSnapshot(frame);
+        decode(localInputs[frame & HISTORY_MASK], stepInputs[localPlayer]);
+        byte remote = frame < remoteKnownUntil ? remoteInputs[frame & HISTORY_MASK] : lastRemoteInput;
+        usedRemoteInputs[frame & HISTORY_MASK] = remote;
+        decode(remote, stepInputs[1 - localPlayer]);
+        world.step(stepInputs, stepDelta);
+        if (world.isRestartAgreed()) {
+            world.reset(world.getSeed() + 1);
+        }
+    }
+
+    private void saveSnapshot(int frame) {
+        int slot = frame % snapshots.length;
+        while (true) {
+            ByteBuffer snapshot = snapshots[slot];
+            snapshot.clear();
+            try {
+                world.writeState(snapshot);
+                snapshot.flip();
+                snapshotFrames[slot] = frame;
+                return;
+            } catch (BufferOverflowException e) {
+                snapshots[slot] = ByteBuffer.allocate(snapshot.capacity() * 2);
+            }
+        }
+    }
+
+    private void loadSnapshot(int frame) {
+        int slot = frame % snapshots.length;
+        if (snapshotFrames[slot] != frame) {
+            throw new IllegalStateException("Frame " + frame + " is outside the rollback window");
+        }
+        snapshots[slot].rewind();
+        world.readState(snapshots[slot]);
+    }
+
+    // Hashes each checkpoint frame once every input before it is known; its snapshot is then final
+    private void updateChecksums() {
+        int confirmed = Math.min(remoteKnownUntil, currentFrame - 1);
+        while (nextChecksumFrame <= confirmed) {
+            int frame = nextChecksumFrame;
+            int slot = frame % snapshots.length;
+            if (snapshotFrames[slot] != frame) {
+                throw new IllegalStateException("Checkpoint " + frame + " is outside the rollback window");
+            }
+            ByteBuffer snapshot = snapshots[slot];
+            snapshot.rewind();
+            crc.reset();
+            crc.update(snapshot);
+            lastChecksumFrame = frame;
+            lastChecksum = (int) crc.getValue();
+            int checksumSlot = (frame / CHECKSUM_INTERVAL) % CHECKSUM_SLOTS;
+            localChecksumFrames[checksumSlot] = frame;
+            localChecksums[checksumSlot] = lastChecksum;
+            compareChecksums(checksumSlot);
+            nextChecksumFrame += CHECKSUM_INTERVAL;
+        }
+    }
+
+    private void compareChecksums(int checksumSlot) {
+        int frame = localChecksumFrames[checksumSlot];
+        if (frame != NO_FRAME && remoteChecksumFrames[checksumSlot] == frame
+            && localChecksums[checksumSlot] != remoteChecksums[checksumSlot]
+            && (desyncFrame == NO_FRAME || frame < desyncFrame)) {
+            desyncFrame = frame;
+        }
+    }
+
+    private void receive() throws IOException {
+        while (true) {
+            receiveBuffer.clear();
+            int length;
+            try {
+                length = channel.read(receiveBuffer);
+            } catch (PortUnreachableException e) {
+                continue; // The peer is not listening yet; the ICMP error is consumed
+            }
+            if (length <= 0) return;
+            receiveBuffer.flip();
+            bytesReceived += length;
+            packetsReceived++;
+            byte type = receiveBuffer.get();
+            if (type == HELLO) {
+                receiveHello(receiveBuffer);
+            } else if (type == INPUT && connected) {
+                receiveInput(receiveBuffer);
+            }
+        }
+    }
+
+    private void receiveHello(ByteBuffer in) throws IOException {
+        byte protocol = in.get();
+        if (protocol != PROTOCOL) {
+            throw new IOException("Incompatible peer: protocol " + protocol); // The rest may be laid out differently
+        }
+        int player = in.get();
+        long seed = in.getLong();
+        int peerStepsPerSecond = in.getInt();
+        int peerLevels = in.getInt();
+        if (player != 1 - localPlayer || peerStepsPerSecond != stepsPerSecond || peerLevels != LevelRepository.checksum()) {
+            throw new IOException(String.format("Incompatible peer: player %d, %d steps per second, level table %08x",
+                                                player, peerStepsPerSecond, peerLevels));
+        }
+        if (!connected) {
+            connected = true;
+            world.reset(localPlayer == 0 ? world.getSeed() : seed);
+            sendPending = true; // Starts the heartbeat
+        }
+        helloRequested = true; // Answer, the peer may not have had ours
+    }
+
+    private void receiveInput(ByteBuffer in) {
+        peerAck = Math.max(peerAck, in.getInt());
+        int frame = in.getInt();
+        int end = frame + (in.getShort() & 0xFFFF);
+        while (frame < end) {
+            int run = in.get() & 0xFF;
+            byte buttons = (byte) (run & 7);
+            int runEnd = Math.min(end, frame + (run >>> 3) + 1);
+            for (; frame < runEnd; frame++) {
+                if (frame != remoteKnownUntil) continue; // Already have it
+                remoteInputs[frame & HISTORY_MASK] = buttons;
+                if (frame < currentFrame && usedRemoteInputs[frame & HISTORY_MASK] != buttons) {
+                    firstMispredicted = Math.min(firstMispredicted, frame);
+                }
+                remoteKnownUntil++;
+                lastRemoteInput = buttons;
+            }
+        }
+        int checksumFrame = in.getInt();
+        int checksum = in.getInt();
+        if (checksumFrame != NO_FRAME) {
+            int checksumSlot = (checksumFrame / CHECKSUM_INTERVAL) % CHECKSUM_SLOTS;
+            remoteChecksumFrames[checksumSlot] = checksumFrame;
+            remoteChecksums[checksumSlot] = checksum;
+            compareChecksums(checksumSlot);
+        }
+    }
+
+    private void sendHello(long nowNanos) throws IOException {
+        sendBuffer.clear();
+        sendBuffer.put(HELLO).put(PROTOCOL).put((byte) localPlayer).putLong(world.getSeed()).putInt(stepsPerSecond)
+            .putInt(LevelRepository.checksum());
+        send();
+        helloRequested = false;
+        lastHelloNanos = nowNanos;
+    }
+
+    private void sendInput(long nowNanos) throws IOException {
+        int from = Math.max(peerAck, localKnownUntil - MAX_FRAMES_PER_PACKET);
+        sendBuffer.clear();
+        sendBuffer.put(INPUT).putInt(remoteKnownUntil).putInt(from).putShort((short) (localKnownUntil - from));
+        int frame = from;
+        while (frame < localKnownUntil) {
+            byte buttons = localInputs[frame & HISTORY_MASK];
+            int length = 1;
+            while (length < MAX_RUN && frame + length < localKnownUntil
+                   && localInputs[(frame + length) & HISTORY_MASK] == buttons) {
+                length++;
+            }
+            sendBuffer.put((byte) (((length - 1) << 3) | buttons));
+            frame += length;
+        }
+        sendBuffer.putInt(lastChecksumFrame).putInt(lastChecksum);
+        send();
+        sendPending = false;
+        lastSendNanos = nowNanos;
+    }
+
+    private void send() throws IOException {
+        sendBuffer.flip();
+        int length = sendBuffer.remaining();
+        try {
+            channel.write(sendBuffer);
+        } catch (PortUnreachableException e) {
+            return; // Not up yet; the handshake and the unacknowledged inputs are resent
+        }
+        bytesSent += length;
+        packetsSent++;
+    }
+
+    private static byte encode(InputState input) {
+        return (byte) ((input.left ? LEFT : 0) | (input.right ? RIGHT : 0) | (input.confirm ? CONFIRM : 0));
+    }
+
+    private static void decode(byte buttons, InputState input) {
+        input.set((buttons & LEFT) != 0, (buttons & RIGHT) != 0, (buttons & CONFIRM) != 0);
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /** Frames simulated so far. */
+    public int getFrame() {
+        return currentFrame;
+    }
+
+    /** Frames simulated with both players' real inputs; the world state after them is final. */
+    public int getConfirmedFrame() {
+        return Math.min(currentFrame, remoteKnownUntil);
+    }
+
+    /** Frames the simulation runs ahead of the last remote input that arrived. */
+    public int getPredictedFrames() {
+        return Math.max(0, currentFrame - remoteKnownUntil);
+    }
+
+    /** First checkpoint frame whose checksum differs between the peers, or {@link #NO_FRAME}. */
+    public int getDesyncFrame() {
+        return desyncFrame;
+    }
+
+    public int getLocalPlayer() {
+        return localPlayer;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    public long getPacketsReceived() {
+        return packetsReceived;
+    }
+
+    public long getRollbacks() {
+        return rollbacks;
+    }
+
+    /** Frames stepped a second time because of rollbacks. */
+    public long getResimulatedFrames() {
+        return resimulatedFrames;
+    }
+
+    public int getDeepestRollback() {
+        return deepestRollback;
+    }
+
+    /** Steps refused because the remote input was too far behind. */
+    public long getStalls() {
+        return stalls;
+    }
+
+    public void appendStats(StringBuilder out) {
+        out.append("net frame ").append(currentFrame)
+           .append(" ahead ").append(getPredictedFrames())
+           .append(" rollbacks ").append(rollbacks)
+           .append(" stalls ").append(stalls)
+           .append(" sent ").append(bytesSent).append(" B");
+        if (desyncFrame != NO_FRAME) {
+            out.append(" DESYNC at ").append(desyncFrame);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
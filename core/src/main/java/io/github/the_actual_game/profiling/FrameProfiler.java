@@ -0,0 +1,123 @@
+package io.github.the_actual_game.profiling;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Lightweight timing probes for the frame loop. Wrap a section as
+ * {@code long start = FrameProfiler.begin(); ... FrameProfiler.end(Section.X, start);}.
+ * While disabled, begin() returns 0 and end() returns immediately, so probes can stay in shipped code.
+ * Each section keeps a rolling window of its last {@link #WINDOW} samples for percentiles, plus
+ * all-time count, total and max. Only the render thread may record.
+ */
+public final class FrameProfiler {
+    public enum Section {
+        FRAME,
+        SIMULATION,
+        TIMELINE,
+        PLAYER_UPDATE,
+        GATE_UPDATE,
+        ENEMY_UPDATE,
+        GATE_COLLISIONS,
+        PLAYER_COLLISIONS,
+        BULLET_COLLISIONS,
+        RENDER_SUBMIT,
+        RENDER_FLUSH
+    }
+
+    public static final int WINDOW = 600; // Ten seconds of frames at 60 fps, five of steps at 120 Hz
+    private static final Section[] SECTIONS = Section.values();
+
+    private static boolean enabled = Boolean.getBoolean("profile");
+    private static final long[][] samples = new long[SECTIONS.length][WINDOW];
+    private static final int[] next = new int[SECTIONS.length];
+    private static final int[] filled = new int[SECTIONS.length];
+    private static final long[] count = new long[SECTIONS.length];
+    private static final long[] total = new long[SECTIONS.length];
+    private static final long[] max = new long[SECTIONS.length];
+    private static final long[] scratch = new long[WINDOW];
+
+    private FrameProfiler() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void end(Section section, long start) {
+        if (!enabled || start == 0) return; // start == 0: probe began while disabled
+        record(section, System.nanoTime() - start);
+    }
+
+    public static void record(Section section, long nanos) {
+        int s = section.ordinal();
+        samples[s][next[s]] = nanos;
+        next[s] = (next[s] + 1) % WINDOW;
+        if (filled[s] < WINDOW) filled[s]++;
+        count[s]++;
+        total[s] += nanos;
+        if (nanos > max[s]) max[s] = nanos;
+    }
+
+    /**
+     * Fills {@code out} with p50, p95, p99 and max in nanoseconds over the rolling window.
+     * Returns false, leaving {@code out} untouched, if the section has no samples yet.
+     */
+    public static boolean percentiles(Section section, long[] out) {
+        int s = section.ordinal();
+        int n = filled[s];
+        if (n == 0) return false;
+        System.arraycopy(samples[s], 0, scratch, 0, n);
+        Arrays.sort(scratch, 0, n);
+        out[0] = scratch[(int) (0.50 * (n - 1))];
+        out[1] = scratch[(int) (0.95 * (n - 1))];
+        out[2] = scratch[(int) (0.99 * (n - 1))];
+        out[3] = scratch[n - 1];
+        return true;
+    }
+
+    public static Section[] sections() {
+        return SECTIONS;
+    }
+
+    public static void reset() {
+        for (int s = 0; s < SECTIONS.length; s++) {
+            next[s] = 0;
+            filled[s] = 0;
+            count[s] = 0;
+            total[s] = 0;
+            max[s] = 0;
+        }
+    }
+
+    /** Writes one row per recorded section, in microseconds. Does nothing if nothing was recorded. */
+    public static void writeCsv(Path file) throws IOException {
+        boolean any = false;
+        for (long c : count) any |= c > 0;
+        if (!any) return;
+
+        long[] window = new long[4];
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("section,count,mean_us,p50_us,p95_us,p99_us,window_max_us,max_us\n");
+            for (Section section : SECTIONS) {
+                int s = section.ordinal();
+                if (count[s] == 0 || !percentiles(section, window)) continue;
+                out.write(String.format(Locale.ROOT, "%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f%n",
+                    section.name().toLowerCase(Locale.ROOT), count[s], total[s] / (double) count[s] / 1000.0,
+                    window[0] / 1000.0, window[1] / 1000.0, window[2] / 1000.0, window[3] / 1000.0, max[s] / 1000.0));
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.the_actual_game.profiling;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+
+import io.github.the_actual_game.rendering.RenderQueue;
+
+/**
+ * Draws the {@link FrameProfiler} percentiles as text, one line per section. The lines are rebuilt
+ * twice a second into reused buffers, so the overlay does not allocate per frame.
+ */
+public class ProfilerOverlay {
+    private static final float REFRESH_INTERVAL = 0.5f;
+    private static final float LINE_HEIGHT = 18;
+    private static final Color TEXT_COLOR = new Color(1, 1, 0.6f, 1);
+
+    private final FrameProfiler.Section[] sections = FrameProfiler.sections();
+    private final String[] names = new String[sections.length];
+    private final StringBuilder[] lines = new StringBuilder[sections.length + 1];
+    private final long[] window = new long[4];
+    private float sinceRefresh = REFRESH_INTERVAL;
+
+    public ProfilerOverlay() {
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = new StringBuilder(64);
+        }
+        for (int i = 0; i < sections.length; i++) {
+            names[i] = sections[i].name().toLowerCase();
+        }
+        lines[0].append("section  p50 p95 p99 max (us)");
+    }
+
+    public void render(RenderQueue queue, BitmapFont font, float delta, float x, float top) {
+        sinceRefresh += delta;
+        if (sinceRefresh >= REFRESH_INTERVAL) {
+            sinceRefresh = 0;
+            refresh();
+        }
+        for (int i = 0; i < lines.length; i++) {
+            queue.text(font, lines[i], x, top - i * LINE_HEIGHT, TEXT_COLOR);
+        }
+    }
+
+    private void refresh() {
+        for (int i = 0; i < sections.length; i++) {
+            StringBuilder line = lines[i + 1];
+            line.setLength(0);
+            line.append(names[i]);
+            if (FrameProfiler.percentiles(sections[i], window)) {
+                for (long nanos : window) {
+                    line.append(' ').append(nanos / 1000);
+                }
+            } else {
+                line.append(" -");
+            }
+        }
+    }
+}
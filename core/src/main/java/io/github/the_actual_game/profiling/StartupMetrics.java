@@ -0,0 +1,76 @@
+package io.github.the_actual_game.profiling;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Startup latency. Time to first frame runs from launch until the loading screen has drawn once;
+ * time to interactive runs until the game screen has drawn its first frame and takes input. The
+ * desktop launcher dates launch back to JVM start, so class loading and linking before
+ * {@code main} count too; other platforms start the clock in {@code Main.create()}. Each run appends
+ * one row to a CSV, so the numbers can be compared across releases and JVM options.
+ */
+public final class StartupMetrics {
+    private static long launchNanos = -1;
+    private static long firstFrameNanos = -1;
+    private static long interactiveNanos = -1;
+
+    private StartupMetrics() {}
+
+    /** Marks the start of the clock; later calls are ignored. */
+    public static void markLaunch() {
+        markLaunch(0);
+    }
+
+    /** Marks the start of the clock the given time in the past, e.g. the JVM's uptime; later calls are ignored. */
+    public static void markLaunch(long millisAgo) {
+        if (launchNanos < 0) launchNanos = System.nanoTime() - millisAgo * 1_000_000;
+    }
+
+    public static void markFirstFrame() {
+        if (firstFrameNanos < 0) firstFrameNanos = System.nanoTime();
+    }
+
+    /** Returns true the first time it is called, so the caller can report once. */
+    public static boolean markInteractive() {
+        if (interactiveNanos >= 0) return false;
+        interactiveNanos = System.nanoTime();
+        return true;
+    }
+
+    public static float getTimeToFirstFrameMs() {
+        return millisSinceLaunch(firstFrameNanos);
+    }
+
+    public static float getTimeToInteractiveMs() {
+        return millisSinceLaunch(interactiveNanos);
+    }
+
+    private static float millisSinceLaunch(long nanos) {
+        return launchNanos < 0 || nanos < 0 ? -1 : (nanos - launchNanos) / 1e6f;
+    }
+
+    public static String summary() {
+        return String.format(Locale.ROOT, "first frame %.0f ms, interactive %.0f ms",
+            getTimeToFirstFrameMs(), getTimeToInteractiveMs());
+    }
+
+    /** Appends "timestamp,version,first_frame_ms,interactive_ms", writing the header if the file is new. */
+    public static void appendCsv(Path file) throws IOException {
+        String version = StartupMetrics.class.getPackage().getImplementationVersion();
+        StringBuilder out = new StringBuilder();
+        if (!Files.exists(file)) {
+            out.append("timestamp,version,first_frame_ms,interactive_ms\n");
+        }
+        out.append(Instant.now()).append(',')
+           .append(version != null ? version : "dev").append(',')
+           .append(String.format(Locale.ROOT, "%.1f,%.1f%n", getTimeToFirstFrameMs(), getTimeToInteractiveMs()));
+        Files.write(file, out.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.the_actual_game.profiling;
+
+import java.util.Locale;
+
+/**
+ * Sustained throughput for swarm runs. Each frame reports its CPU time, the time spent stepping the
+ * simulation, the steps run and the live entity count; once a second the window is folded into
+ * frame time (mean and worst) and entities simulated per millisecond of simulation time.
+ * Totals since the last {@link #reset} back the summary printed when a run ends.
+ */
+public class SwarmStats {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private long windowStart = -1;
+    private int windowFrames;
+    private long windowFrameNanos;
+    private long windowMaxFrameNanos;
+    private long windowSimNanos;
+    private long windowEntitySteps;
+
+    private float meanFrameMs;
+    private float maxFrameMs;
+    private float entitiesPerMs;
+    private int entities;
+
+    private long totalFrames;
+    private long totalFrameNanos;
+    private long totalSimNanos;
+    private long totalEntitySteps;
+
+    public void record(long frameNanos, long simulationNanos, int steps, int liveEntities) {
+        long now = System.nanoTime();
+        if (windowStart < 0) windowStart = now;
+        entities = liveEntities;
+        windowFrames++;
+        windowFrameNanos += frameNanos;
+        windowMaxFrameNanos = Math.max(windowMaxFrameNanos, frameNanos);
+        windowSimNanos += simulationNanos;
+        windowEntitySteps += (long) steps * liveEntities;
+        totalFrames++;
+        totalFrameNanos += frameNanos;
+        totalSimNanos += simulationNanos;
+        totalEntitySteps += (long) steps * liveEntities;
+
+        if (now - windowStart >= WINDOW_NANOS) {
+            meanFrameMs = windowFrameNanos / 1e6f / windowFrames;
+            maxFrameMs = windowMaxFrameNanos / 1e6f;
+            entitiesPerMs = windowSimNanos > 0 ? windowEntitySteps / (windowSimNanos / 1e6f) : 0;
+            windowStart = now;
+            windowFrames = 0;
+            windowFrameNanos = 0;
+            windowMaxFrameNanos = 0;
+            windowSimNanos = 0;
+            windowEntitySteps = 0;
+        }
+    }
+
+    /** Appends the last completed window, e.g. "12000 entities  4.1 ms/frame (max 9.8)  8500 entities/ms". */
+    public void appendTo(StringBuilder out) {
+        out.append(entities).append(" entities  ");
+        appendMs(out, meanFrameMs).append(" ms/frame (max ");
+        appendMs(out, maxFrameMs).append(")  ");
+        out.append((int) entitiesPerMs).append(" entities/ms");
+    }
+
+    public String summary() {
+        if (totalFrames == 0) return "no frames recorded";
+        return String.format(Locale.ROOT, "%d frames, mean %.2f ms/frame, %.0f entities/ms simulated",
+            totalFrames, totalFrameNanos / 1e6 / totalFrames,
+            totalSimNanos > 0 ? totalEntitySteps / (totalSimNanos / 1e6) : 0.0);
+    }
+
+    public void reset() {
+        windowStart = -1;
+        windowFrames = 0;
+        windowFrameNanos = 0;
+        windowMaxFrameNanos = 0;
+        windowSimNanos = 0;
+        windowEntitySteps = 0;
+        meanFrameMs = 0;
+        maxFrameMs = 0;
+        entitiesPerMs = 0;
+        totalFrames = 0;
+        totalFrameNanos = 0;
+        totalSimNanos = 0;
+        totalEntitySteps = 0;
+    }
+
+    // One decimal without String.format, so the HUD line stays allocation-free
+    private static StringBuilder appendMs(StringBuilder out, float ms) {
+        int tenths = Math.round(ms * 10);
+        return out.append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.the_actual_game.rendering;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Align;
+
+/**
+ * A line of text whose glyph layout and vertices are kept between frames. Callers may rebuild the
+ * content every frame as before; {@link #set} compares it with the last value and only marks the text
+ * for a new layout when it differs, so a static or slowly changing line is laid out once and then
+ * redrawn from its {@link BitmapFontCache}. Moving the text only offsets the cached vertices. One
+ * instance can be queued several times per frame at different positions.
+ */
+public class CachedText {
+    private final BitmapFont font;
+    private final int align;
+    private final BitmapFontCache cache;
+    private final GlyphLayout layout = new GlyphLayout();
+    private final StringBuilder content = new StringBuilder();
+    private final Color color = new Color();
+    private boolean dirty = true;
+
+    /** A line drawn with its left edge at the queued x. */
+    public CachedText(BitmapFont font, Color color) {
+        this(font, color, Align.left);
+    }
+
+    /** @param align {@link Align#left} or {@link Align#center}, relative to the queued x */
+    public CachedText(BitmapFont font, Color color, int align) {
+        this.font = font;
+        this.align = align;
+        this.color.set(color);
+        cache = font.newFontCache();
+    }
+
+    /** A line that never changes. */
+    public CachedText(BitmapFont font, CharSequence text, Color color, int align) {
+        this(font, color, align);
+        set(text);
+    }
+
+    /** Replaces the content; cheap when it equals the current one. Returns this for chaining. */
+    public CachedText set(CharSequence text) {
+        if (!contentEquals(text)) {
+            content.setLength(0);
+            content.append(text);
+            dirty = true;
+        }
+        return this;
+    }
+
+    public CachedText setColor(Color color) {
+        if (!this.color.equals(color)) {
+            this.color.set(color);
+            dirty = true;
+        }
+        return this;
+    }
+
+    private boolean contentEquals(CharSequence text) {
+        int length = text.length();
+        if (length != content.length()) return false;
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) != content.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /** Draws at the given position, laying the text out first if it changed. Returns whether it did. */
+    boolean draw(SpriteBatch batch, float x, float y) {
+        boolean laidOut = dirty;
+        if (dirty) {
+            layout.setText(font, content, color, 0, align, false);
+            cache.setText(layout, 0, 0);
+            dirty = false;
+        }
+        cache.setPosition(x, y);
+        cache.draw(batch);
+        return laidOut;
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.the_actual_game.rendering;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Draws filled, axis-aligned, single-coloured quads from vertex data the caller already wrote with
+ * {@link #putQuad}: four corners of x, y and a packed colour each. The mesh's vertex buffer and its
+ * index buffer are allocated once; {@link #draw} copies the quads into the vertex buffer in one bulk
+ * copy, uploads it and issues one indexed draw, one per {@link #MAX_QUADS} quads. Unlike
+ * ShapeRenderer there are no per-vertex calls and no colour state, so colour changes cost nothing.
+ */
+public class QuadBatch implements Disposable {
+    public static final int VERTEX_FLOATS = 3; // x, y, packed colour
+    public static final int QUAD_FLOATS = 4 * VERTEX_FLOATS;
+    /**
+     * Quads per upload and draw call. Mesh indices are GL_UNSIGNED_SHORT, which address 65536 vertices at
+     * four per quad; the (short) casts below wrap past 32767, which GL reads back as unsigned.
+     */
+    public static final int MAX_QUADS = 16383;
+
+    private static final String VERTEX_SHADER =
+        "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+        + "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+        + "uniform mat4 u_projTrans;\n"
+        + "varying vec4 v_color;\n"
+        + "void main() {\n"
+        + "   v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+        + "   v_color.a = v_color.a * (255.0/254.0);\n" // Undo the alpha rounding of Color#toFloatBits
+        + "   gl_Position = u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+        + "}\n";
+    private static final String FRAGMENT_SHADER =
+        "#ifdef GL_ES\n"
+        + "precision mediump float;\n"
+        + "#endif\n"
+        + "varying vec4 v_color;\n"
+        + "void main() {\n"
+        + "   gl_FragColor = v_color;\n"
+        + "}\n";
+
+    private final Mesh mesh;
+    private final ShaderProgram shader;
+    private final Matrix4 projection = new Matrix4();
+    private int drawCalls;
+
+    public QuadBatch() {
+        mesh = new Mesh(false, MAX_QUADS * 4, MAX_QUADS * 6,
+                        new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                        VertexAttribute.ColorPacked());
+        // Every quad uses the same two triangles over its own four vertices
+        short[] indices = new short[MAX_QUADS * 6];
+        for (int quad = 0, i = 0; quad < MAX_QUADS; quad++, i += 6) {
+            short first = (short) (quad * 4);
+            indices[i] = first;
+            indices[i + 1] = (short) (first + 1);
+            indices[i + 2] = (short) (first + 2);
+            indices[i + 3] = (short) (first + 2);
+            indices[i + 4] = (short) (first + 3);
+            indices[i + 5] = first;
+        }
+        mesh.setIndices(indices);
+
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            throw new IllegalStateException("Error compiling quad shader: " + shader.getLog());
+        }
+    }
+
+    /** Writes quad number {@code quad} into {@code vertices}, which must hold at least (quad + 1) * QUAD_FLOATS floats. */
+    public static void putQuad(float[] vertices, int quad, float x, float y, float width, float height, float packedColor) {
+        int i = quad * QUAD_FLOATS;
+        float right = x + width, top = y + height;
+        vertices[i] = x;
+        vertices[i + 1] = y;
+        vertices[i + 2] = packedColor;
+        vertices[i + 3] = right;
+        vertices[i + 4] = y;
+        vertices[i + 5] = packedColor;
+        vertices[i + 6] = right;
+        vertices[i + 7] = top;
+        vertices[i + 8] = packedColor;
+        vertices[i + 9] = x;
+        vertices[i + 10] = top;
+        vertices[i + 11] = packedColor;
+    }
+
+    public void setProjectionMatrix(Matrix4 matrix) {
+        projection.set(matrix);
+    }
+
+    /** Draws the first {@code quads} quads of {@code vertices}, in order. */
+    public void draw(float[] vertices, int quads) {
+        drawCalls = 0;
+        if (quads == 0) return;
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", projection);
+        for (int first = 0; first < quads; first += MAX_QUADS) {
+            int count = Math.min(MAX_QUADS, quads - first);
+            mesh.setVertices(vertices, first * QUAD_FLOATS, count * QUAD_FLOATS);
+            mesh.render(shader, GL20.GL_TRIANGLES, 0, count * 6);
+            drawCalls++;
+        }
+    }
+
+    /** Draw calls the last {@link #draw} issued. */
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    @Override
+    public void dispose() {
+        mesh.dispose();
+        shader.dispose();
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.the_actual_game.rendering;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Align;
+
+/**
+ * Collects a frame's draw commands and submits them in two passes: every filled rectangle in one
+ * {@link QuadBatch} draw, then every sprite followed by every text run in one SpriteBatch pass. Symbols
+ * and fonts are baked onto one atlas page, so the pass does not switch textures. Rectangles are written
+ * straight into their vertex data as they are queued; the other commands are stored in growable
+ * parallel arrays and only hold references, so a steady-state frame does not allocate. The
+ * CharSequences passed to {@link #text} must stay unchanged until {@link #flush}. Plain text is laid
+ * out again on every flush, {@link CachedText} only when it changed.
+ */
+public class RenderQueue {
+    private static final int SPRITE_FLOATS = 7; // x, y, originX, originY, width, height, rotation
+    private static final int TEXT_FLOATS = 2; // x, y
+
+    private float[] rectVertices = new float[64 * QuadBatch.QUAD_FLOATS]; // See QuadBatch#putQuad
+    private int rectCount;
+
+    private float[] sprites = new float[16 * SPRITE_FLOATS];
+    private TextureRegion[] spriteRegions = new TextureRegion[16];
+    private int spriteCount;
+
+    private float[] texts = new float[16 * TEXT_FLOATS];
+    private CharSequence[] textStrings = new CharSequence[16];
+    private BitmapFont[] textFonts = new BitmapFont[16];
+    private Color[] textColors = new Color[16];
+    private int[] textAligns = new int[16];
+    private CachedText[] textCaches = new CachedText[16]; // Null for plain text
+    private int textCount;
+
+    private final GlyphLayout layout = new GlyphLayout();
+    private final RenderStats stats = new RenderStats();
+
+    public void rect(float x, float y, float width, float height, Color color) {
+        rect(x, y, width, height, color.toFloatBits());
+    }
+
+    /** Same as {@link #rect(float, float, float, float, Color)} with the colour packed by {@link Color#toFloatBits}. */
+    public void rect(float x, float y, float width, float height, float packedColor) {
+        if ((rectCount + 1) * QuadBatch.QUAD_FLOATS > rectVertices.length) {
+            rectVertices = Arrays.copyOf(rectVertices, rectVertices.length * 2);
+        }
+        QuadBatch.putQuad(rectVertices, rectCount++, x, y, width, height, packedColor);
+    }
+
+    public void sprite(TextureRegion region, float x, float y, float originX, float originY,
+                       float width, float height, float rotation) {
+        if (spriteCount == spriteRegions.length) {
+            sprites = Arrays.copyOf(sprites, sprites.length * 2);
+            spriteRegions = Arrays.copyOf(spriteRegions, spriteRegions.length * 2);
+        }
+        int offset = spriteCount * SPRITE_FLOATS;
+        sprites[offset] = x;
+        sprites[offset + 1] = y;
+        sprites[offset + 2] = originX;
+        sprites[offset + 3] = originY;
+        sprites[offset + 4] = width;
+        sprites[offset + 5] = height;
+        sprites[offset + 6] = rotation;
+        spriteRegions[spriteCount++] = region;
+    }
+
+    /** Draws text with its left edge at x. */
+    public void text(BitmapFont font, CharSequence text, float x, float y, Color color) {
+        addText(font, text, x, y, color, Align.left);
+    }
+
+    /** Draws text horizontally centred on centerX. */
+    public void textCentered(BitmapFont font, CharSequence text, float centerX, float y, Color color) {
+        addText(font, text, centerX, y, color, Align.center);
+    }
+
+    /** Draws cached text at x, aligned as the text was created with. */
+    public void text(CachedText text, float x, float y) {
+        addText(null, null, x, y, null, Align.left);
+        textCaches[textCount - 1] = text;
+    }
+
+    private void addText(BitmapFont font, CharSequence text, float x, float y, Color color, int align) {
+        if (textCount == textStrings.length) {
+            int capacity = textStrings.length * 2;
+            texts = Arrays.copyOf(texts, capacity * TEXT_FLOATS);
+            textStrings = Arrays.copyOf(textStrings, capacity);
+            textFonts = Arrays.copyOf(textFonts, capacity);
+            textColors = Arrays.copyOf(textColors, capacity);
+            textAligns = Arrays.copyOf(textAligns, capacity);
+            textCaches = Arrays.copyOf(textCaches, capacity);
+        }
+        texts[textCount * TEXT_FLOATS] = x;
+        texts[textCount * TEXT_FLOATS + 1] = y;
+        textStrings[textCount] = text;
+        textFonts[textCount] = font;
+        textColors[textCount] = color;
+        textAligns[textCount] = align;
+        textCaches[textCount] = null;
+        textCount++;
+    }
+
+    /** Submits everything queued this frame and clears the queue. The projection matrices must already be set. */
+    public void flush(QuadBatch quadBatch, SpriteBatch batch) {
+        stats.rects = rectCount;
+        stats.sprites = spriteCount;
+        stats.texts = textCount;
+        stats.textLayouts = 0;
+
+        quadBatch.draw(rectVertices, rectCount);
+        stats.rectFlushes = quadBatch.getDrawCalls();
+
+        if (spriteCount > 0 || textCount > 0) {
+            batch.begin();
+            for (int i = 0; i < spriteCount; i++) {
+                int offset = i * SPRITE_FLOATS;
+                batch.draw(spriteRegions[i],
+                           sprites[offset], sprites[offset + 1],
+                           sprites[offset + 2], sprites[offset + 3],
+                           sprites[offset + 4], sprites[offset + 5],
+                           1, 1,
+                           sprites[offset + 6]);
+            }
+            for (int i = 0; i < textCount; i++) {
+                float x = texts[i * TEXT_FLOATS], y = texts[i * TEXT_FLOATS + 1];
+                if (textCaches[i] != null) {
+                    if (textCaches[i].draw(batch, x, y)) stats.textLayouts++;
+                } else {
+                    layout.setText(textFonts[i], textStrings[i], textColors[i], 0, textAligns[i], false);
+                    textFonts[i].draw(batch, layout, x, y);
+                    stats.textLayouts++;
+                }
+            }
+            batch.end();
+            stats.batchFlushes = batch.renderCalls;
+        } else {
+            stats.batchFlushes = 0;
+        }
+        clear();
+    }
+
+    public void clear() {
+        // Drop references so the queue does not keep last frame's objects alive
+        Arrays.fill(spriteRegions, 0, spriteCount, null);
+        Arrays.fill(textStrings, 0, textCount, null);
+        Arrays.fill(textFonts, 0, textCount, null);
+        Arrays.fill(textColors, 0, textCount, null);
+        Arrays.fill(textCaches, 0, textCount, null);
+        rectCount = 0;
+        spriteCount = 0;
+        textCount = 0;
+    }
+
+    /** Counters for the last {@link #flush}. */
+    public RenderStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.the_actual_game.rendering;
+
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+/** Per-frame render counters. The GL numbers are only filled in while a {@link GLProfiler} is enabled. */
+public class RenderStats {
+    public int rects;
+    public int sprites;
+    public int texts;
+    public int textLayouts; // Texts laid out in the last flush; the rest were drawn from their cache
+    public int rectFlushes; // QuadBatch draw calls in the last flush
+    public int batchFlushes; // SpriteBatch render calls in the last flush
+    public int drawCalls;
+    public int textureBindings;
+    public int shaderSwitches;
+
+    /** Copies the profiler's counters for the frame and resets it for the next one. */
+    public void capture(GLProfiler profiler) {
+        if (profiler.isEnabled()) {
+            drawCalls = profiler.getDrawCalls();
+            textureBindings = profiler.getTextureBindings();
+            shaderSwitches = profiler.getShaderSwitches();
+            profiler.reset();
+        } else {
+            drawCalls = 0;
+            textureBindings = 0;
+            shaderSwitches = 0;
+        }
+    }
+}
@@ -1,272 +1,539 @@
 package io.github.the_actual_game.screens;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.DatagramChannel;
+import java.nio.file.Paths;
 import java.util.List;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.TimeUtils;
 
+import io.github.the_actual_game.audio.AudioManager;
+import io.github.the_actual_game.audio.SoundEffect;
 import io.github.the_actual_game.constants.GameConstants;
-import io.github.the_actual_game.entities.Enemy;
-import io.github.the_actual_game.entities.EnemyManager;
-import io.github.the_actual_game.entities.Gate;
-import io.github.the_actual_game.entities.GateManager;
-import io.github.the_actual_game.entities.PlayerManager;
+import io.github.the_actual_game.net.LockstepSession;
+import io.github.the_actual_game.profiling.FrameProfiler;
+import io.github.the_actual_game.profiling.FrameProfiler.Section;
+import io.github.the_actual_game.profiling.ProfilerOverlay;
+import io.github.the_actual_game.profiling.StartupMetrics;
+import io.github.the_actual_game.profiling.SwarmStats;
+import io.github.the_actual_game.rendering.CachedText;
+import io.github.the_actual_game.rendering.QuadBatch;
+import io.github.the_actual_game.rendering.RenderQueue;
+import io.github.the_actual_game.rendering.RenderStats;
+import io.github.the_actual_game.simulation.FixedStepLoop;
+import io.github.the_actual_game.simulation.InputState;
+import io.github.the_actual_game.simulation.ReplayRecorder;
+import io.github.the_actual_game.simulation.SnapshotRing;
+import io.github.the_actual_game.simulation.World;
+import io.github.the_actual_game.utils.AtlasRegions;
+import io.github.the_actual_game.utils.Leaderboard;
+import io.github.the_actual_game.utils.LevelHotReloader;
 
 public class GameScreen implements Screen {
     private OrthographicCamera camera;
-    private ShapeRenderer shapeRenderer;
+    private QuadBatch quadBatch;
+    private RenderQueue renderQueue;
+    private GLProfiler profiler;
     private BitmapFont font;
+    private BitmapFont debugFont;
+    private ProfilerOverlay profilerOverlay;
     private SpriteBatch batch;
-    private EnemyManager enemyManager;
-    private PlayerManager playerManager;
-    private GateManager gateManager;
-    private Sound laserSound;
-    private int score = 0;
+    private World world;
+    private LockstepSession session; // Null outside network co-op
+    private boolean desyncReported;
+    private InputState input;
+    private FixedStepLoop stepLoop;
+    private ReplayRecorder replayRecorder;
+    private boolean replayValid = true; // False once a rewind, resume or level reload broke the recording
+    private SnapshotRing snapshots; // Null in co-op, which keeps its own
+    private boolean rewinding;
+    private LevelHotReloader levelReloader;
+    private boolean confirmPressed;
+    private float trainingTime; // Seconds of scripted play so far, see GameConstants.TRAINING_SECONDS
+    private AudioManager audio;
     private GameStateManager gameStateManager;
-    private int highScore = 0;
+    private enum EndScreen { NONE, ENTER_NAME, RESULT }
+    private EndScreen endScreen = EndScreen.NONE; // What follows an ended game; local, unlike the world's state
+    private Leaderboard leaderboard;
     private final String SCORE_FILE = "scores.txt";
+    private final String PROFILE_FILE = "profile.csv";
+    private final String STARTUP_FILE = "startup.csv";
+    private final String REPLAY_FILE = "replays/last.replay";
     private String currentName = "";
-
-    public GameScreen() {
+    // Reused every frame so the HUD does not build new strings
+    private final StringBuilder scoreText = new StringBuilder();
+    private final StringBuilder levelText = new StringBuilder();
+    private final StringBuilder renderStatsText = new StringBuilder();
+    private final StringBuilder swarmText = new StringBuilder();
+    private final StringBuilder audioStatsText = new StringBuilder();
+    private final StringBuilder netStatsText = new StringBuilder();
+    // HUD and menu lines; each keeps its glyph layout until its content changes
+    private CachedText scoreLine, levelLine, renderStatsLine, audioStatsLine, netStatsLine, waitingLine;
+    private CachedText levelCompleteLine, continueLine, rewindLine;
+    private CachedText newHighScoreLine, entryScoreLine, enterNameLine, nameLine, enterDoneLine;
+    private CachedText resultLine, yourScoreLine, highScoreLine, topScoresLine, restartLine;
+    private final CachedText[] leaderboardLines = new CachedText[Leaderboard.MAX_ENTRIES];
+    private final SwarmStats swarmStats = new SwarmStats();
+    private static final int[] SWARM_SIZES = {0, 1000, 10000, 50000}; // F5 cycles through these
+
+    /** Expects the fonts and the sounds {@link AudioManager#queue} put on the AssetManager to be loaded. */
+    public GameScreen(AssetManager assets) {
         camera = new OrthographicCamera();
         camera.setToOrtho(false, GameConstants.SCREEN_WIDTH, GameConstants.SCREEN_HEIGHT);
 
-        shapeRenderer = new ShapeRenderer();
+        quadBatch = new QuadBatch();
+        renderQueue = new RenderQueue();
+        profiler = new GLProfiler(Gdx.graphics);
         batch = new SpriteBatch();
-        font = new BitmapFont();
-        font.getData().setScale(2);
-
-        enemyManager = new EnemyManager();
-        playerManager = new PlayerManager();
-        gateManager = new GateManager();
+        font = assets.get(AtlasRegions.HUD_FONT_FILE, BitmapFont.class);
+        debugFont = assets.get(AtlasRegions.DEBUG_FONT_FILE, BitmapFont.class);
+        createTextLines();
+        if (GameConstants.TRAINING_SECONDS > 0) {
+            // Load the profiling overlays' classes too, they are part of a normal session
+            FrameProfiler.setEnabled(true);
+            setRenderStatsVisible(true);
+        }
+        profilerOverlay = new ProfilerOverlay();
+
+        input = new InputState();
+        stepLoop = new FixedStepLoop(Integer.getInteger("simRate", GameConstants.SIMULATION_RATE),
+                                     GameConstants.MAX_STEPS_PER_FRAME);
+        if (GameConstants.COOP_PEER != null) {
+            world = new World(TimeUtils.millis(), 2);
+            session = openSession(GameConstants.COOP_PEER);
+            if (session == null) {
+                world.dispose();
+            }
+        }
+        if (session == null) {
+            world = new World(TimeUtils.millis());
+        }
+        replayRecorder = new ReplayRecorder();
+        replayRecorder.begin(world.getSeed(), stepLoop.getStepsPerSecond());
+        if (session == null) {
+            world.setSwarmSize(GameConstants.SWARM_SIZE);
+            snapshots = openSnapshots();
+        }
+        if (GameConstants.DEV_MODE && session == null) { // A co-op peer would step a different simulation
+            try {
+                levelReloader = new LevelHotReloader(() -> {
+                    world.reloadLevelConfigs();
+                    replayValid = false;
+                });
+            } catch (IOException e) {
+                Gdx.app.error("GameScreen", "Level hot reload is unavailable", e);
+            }
+        }
 
-        // Load laser sound
-        laserSound = Gdx.audio.newSound(Gdx.files.internal("laser-gun-81720.mp3"));
-        highScore = GameStateManager.loadHighScore(SCORE_FILE);
-        gameStateManager = new GameStateManager();
+        audio = new AudioManager(assets);
+        leaderboard = new Leaderboard(SCORE_FILE);
+        gameStateManager = world.getGameStateManager();
     }
 
     @Override
     public void render(float delta) {
+        long frameStart = FrameProfiler.begin();
+        long frameStartNanos = System.nanoTime();
+
         // Clear screen
         Gdx.gl.glClearColor(0.15f, 0.15f, 0.2f, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
         // Update camera
         camera.update();
-        shapeRenderer.setProjectionMatrix(camera.combined);
+        quadBatch.setProjectionMatrix(camera.combined);
         batch.setProjectionMatrix(camera.combined);
 
-        if (gameStateManager.isPlaying()) {
-            // Update player and handle shooting
-            playerManager.update(delta);
-            if (playerManager.handleShooting() && laserSound != null) {
-                laserSound.play();
-            }
-
-            // Update gates and check for collisions
-            gateManager.update(delta, playerManager.getBullets());
-            Rectangle player = playerManager.getPlayer();
-            for (Gate gate : gateManager.getGates()) {
-                if (!gate.isUsed() && gate.rect.overlaps(player)) {
-                    int powerLevel = gate.getPowerLevel();
-                    if (gate.getType() == Gate.GateType.SPEED) {
-                        playerManager.adjustShootingSpeed(powerLevel);
-                    } else {
-                        playerManager.adjustShotCount(powerLevel);
-                    }
-                    gate.setUsed();
+        // Feed this frame's input into the simulation. SPACE is latched until a step consumes it,
+        // so a press on a frame that runs no step is not lost.
+        confirmPressed |= Gdx.input.isKeyJustPressed(Input.Keys.SPACE);
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F2)) {
+            world.setCollisionBackend(world.getCollisionBackend().next());
+            Gdx.app.log("GameScreen", "Collision backend: " + world.getCollisionBackend());
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F5)) {
+            cycleSwarmSize();
+        }
+        long start = FrameProfiler.begin();
+        long simulationStartNanos = System.nanoTime();
+        int steps = stepLoop.advance(delta);
+        pollSession();
+        // Swarm runs capture nothing, so there is nothing to rewind; once in, R holds at the oldest snapshot
+        rewinding = snapshots != null && gameStateManager.isPlaying() && Gdx.input.isKeyPressed(Input.Keys.R)
+            && world.getSwarmSize() == 0 && (rewinding || snapshots.size() > 1);
+        for (int i = 0; i < steps; i++) {
+            if (rewinding) {
+                // Back one captured step per step; at the oldest snapshot the game holds still
+                if (snapshots.stepBack(world)) {
+                    replayValid = false;
                 }
+                continue;
             }
-
-            // Update enemies and check collisions
-            enemyManager.update(delta, playerManager.getPlayer());
-
-            // Check if any enemy has passed the player or collided with them
-            Array<Enemy> enemies = enemyManager.getEnemies();
-            for (Enemy enemy : enemies) {
-                if (!enemy.isAlive()) continue;
-
-                // Check if enemy has passed the player's y position
-                if (enemy.rect.y + enemy.rect.height < playerManager.getPlayer().y) {
-                    playerManager.hit();
-                }
-
-                // Check collision with player
-                if (!playerManager.isInvulnerable() && enemy.rect.overlaps(playerManager.getPlayer())) {
-                    playerManager.hit();
-                }
+            if (GameConstants.TRAINING_SECONDS > 0) {
+                scriptInput(i, steps, delta);
+            } else {
+                input.set(Gdx.input.isKeyPressed(Input.Keys.LEFT),
+                          Gdx.input.isKeyPressed(Input.Keys.RIGHT),
+                          confirmPressed && endScreen != EndScreen.ENTER_NAME);
             }
-
-            // Check if player has lost all lives
-            if (!playerManager.isAlive()) {
-                gameStateManager.setGameOver(true);
-                if (score > highScore) {
-                    highScore = score;
-                    gameStateManager.setEnterName();
-                } else {
-                    gameStateManager.setResult();
+            if (session != null) {
+                // Waiting for the peer drops the step; a latched SPACE stays for the next frame
+                if (!session.step(input)) break;
+            } else {
+                replayRecorder.record(input);
+                world.step(input, stepLoop.getStepDelta());
+                if (snapshots != null && world.getSwarmSize() == 0) {
+                    snapshots.capture(world);
                 }
             }
-
-            // Check if level is complete
-            if (enemyManager.isLevelComplete()) {
-                gameStateManager.setLevelComplete();
-            }
-
-            // Bullet-enemy collision detection
-            Array<Rectangle> bullets = playerManager.getBullets();
-            for (int i = bullets.size - 1; i >= 0; i--) {
-                Rectangle bullet = bullets.get(i);
-                for (Enemy enemy : enemies) {
-                    if (!enemy.isAlive()) continue;
-                    if (enemy.rect.overlaps(bullet)) {
-                        enemy.hit(1);
-                        if (!enemy.isAlive()) {
-                            score += 10;
-                        }
-                        bullets.removeIndex(i);
-                        break;
-                    }
-                }
+            confirmPressed = false;
+            if (world.isShotFired()) {
+                audio.trigger(SoundEffect.LASER);
             }
         }
-
-        // Draw shapes
-        shapeRenderer.begin(ShapeType.Filled);
+        pollSession();
+        long simulationNanos = System.nanoTime() - simulationStartNanos;
+        FrameProfiler.end(Section.SIMULATION, start);
+        audio.update(delta);
+        float alpha = stepLoop.getAlpha();
+
+        // An ended game leads to name entry on a new high score, else to the results. The high score is
+        // this machine's own, so the choice stays here rather than in the world's state.
+        if (!gameStateManager.isEnded()) {
+            endScreen = EndScreen.NONE;
+        } else if (endScreen == EndScreen.NONE) {
+            currentName = "";
+            endScreen = world.getScore() > highScore() ? EndScreen.ENTER_NAME : EndScreen.RESULT;
+        }
 
         // Draw player and bullets
-        playerManager.render(shapeRenderer);
+        start = FrameProfiler.begin();
+        for (int p = 0; p < world.getPlayerCount(); p++) {
+            world.getPlayerManager(p).render(renderQueue, alpha);
+        }
 
         // Draw enemies
-        enemyManager.render(shapeRenderer);
-
-        // Draw gates (rectangles only)
-        gateManager.render(shapeRenderer, batch, font);
+        world.getEnemyManager().render(renderQueue, alpha);
 
-        shapeRenderer.end();
+        // Draw gates
+        world.getGateManager().render(renderQueue, font, alpha);
 
         // Draw score and other UI elements
-        batch.begin();
+        float centerX = GameConstants.SCREEN_WIDTH / 2f;
         if (gameStateManager.isPlaying()) {
-            font.setColor(Color.WHITE);
-            String scoreText = "Score: " + score;
-            font.draw(batch, scoreText, GameConstants.SCREEN_WIDTH/2 - 50, GameConstants.SCREEN_HEIGHT - 30);
+            scoreText.setLength(0);
+            scoreText.append("Score: ").append(world.getScore());
+            renderQueue.text(scoreLine.set(scoreText), GameConstants.SCREEN_WIDTH/2 - 50, GameConstants.SCREEN_HEIGHT - 30);
             
             // Draw level indicator
-            String levelText = "Level: " + gameStateManager.getCurrentLevel();
-            font.draw(batch, levelText, 10, GameConstants.SCREEN_HEIGHT - 60);
+            levelText.setLength(0);
+            levelText.append("Level: ").append(gameStateManager.getCurrentLevel());
+            renderQueue.text(levelLine.set(levelText), 10, GameConstants.SCREEN_HEIGHT - 60);
         } else if (gameStateManager.isLevelComplete()) {
-            font.setColor(Color.GREEN);
-            String levelCompleteText = "Level " + gameStateManager.getCurrentLevel() + " Complete!";
-            float levelCompleteWidth = font.draw(batch, levelCompleteText, 0, 0).width;
-            font.draw(batch, levelCompleteText, GameConstants.SCREEN_WIDTH/2 - levelCompleteWidth/2, GameConstants.SCREEN_HEIGHT/2);
-
-            font.setColor(Color.WHITE);
-            String pressSpaceText = "Press SPACE to continue";
-            float pressSpaceWidth = font.draw(batch, pressSpaceText, 0, 0).width;
-            font.draw(batch, pressSpaceText, GameConstants.SCREEN_WIDTH/2 - pressSpaceWidth/2, GameConstants.SCREEN_HEIGHT/2 - 40);
-
-            if (Gdx.input.isKeyJustPressed(com.badlogic.gdx.Input.Keys.SPACE)) {
-                gameStateManager.nextLevel();
-                int newLevel = gameStateManager.getCurrentLevel() - 1; // Convert back to 0-based
-                enemyManager.setLevel(newLevel);
-                playerManager.setLevel(newLevel);
-                gateManager.setLevel(newLevel);
-            }
-        } else if (gameStateManager.isGameOver()) {
-            font.setColor(Color.RED);
-            String gameOverText = "GAME OVER - Press SPACE to restart";
-            float gameOverWidth = font.draw(batch, gameOverText, 0, 0).width;
-            font.draw(batch, gameOverText, GameConstants.SCREEN_WIDTH/2 - gameOverWidth/2, GameConstants.SCREEN_HEIGHT/2);
-            if (Gdx.input.isKeyJustPressed(com.badlogic.gdx.Input.Keys.SPACE)) {
-                restartGame();
-            }
-        } else if (gameStateManager.isEnterName()) {
-            font.setColor(Color.GREEN);
-            String highScoreText = "NEW HIGH SCORE!";
-            float highScoreWidth = font.draw(batch, highScoreText, 0, 0).width;
-            font.draw(batch, highScoreText, GameConstants.SCREEN_WIDTH/2 - highScoreWidth/2, GameConstants.SCREEN_HEIGHT - 100);
-
-            font.setColor(Color.WHITE);
-            String scoreText = "Score: " + score;
-            float scoreWidth = font.draw(batch, scoreText, 0, 0).width;
-            font.draw(batch, scoreText, GameConstants.SCREEN_WIDTH/2 - scoreWidth/2, GameConstants.SCREEN_HEIGHT - 150);
+            levelText.setLength(0);
+            levelText.append("Level ").append(gameStateManager.getCurrentLevel()).append(" Complete!");
+            renderQueue.text(levelCompleteLine.set(levelText), centerX, GameConstants.SCREEN_HEIGHT/2);
+            renderQueue.text(continueLine, centerX, GameConstants.SCREEN_HEIGHT/2 - 40);
 
-            String enterNameText = "Enter your name:";
-            float enterNameWidth = font.draw(batch, enterNameText, 0, 0).width;
-            font.draw(batch, enterNameText, GameConstants.SCREEN_WIDTH/2 - enterNameWidth/2, GameConstants.SCREEN_HEIGHT - 200);
+        } else if (endScreen == EndScreen.ENTER_NAME) {
+            renderQueue.text(newHighScoreLine, centerX, GameConstants.SCREEN_HEIGHT - 100);
 
-            String currentNameText = currentName;
-            float currentNameWidth = font.draw(batch, currentNameText, 0, 0).width;
-            font.draw(batch, currentNameText, GameConstants.SCREEN_WIDTH/2 - currentNameWidth/2, GameConstants.SCREEN_HEIGHT - 250);
-
-            String enterDoneText = "Press ENTER when done";
-            float enterDoneWidth = font.draw(batch, enterDoneText, 0, 0).width;
-            font.draw(batch, enterDoneText, GameConstants.SCREEN_WIDTH/2 - enterDoneWidth/2, GameConstants.SCREEN_HEIGHT - 300);
+            scoreText.setLength(0);
+            scoreText.append("Score: ").append(world.getScore());
+            renderQueue.text(entryScoreLine.set(scoreText), centerX, GameConstants.SCREEN_HEIGHT - 150);
+            renderQueue.text(enterNameLine, centerX, GameConstants.SCREEN_HEIGHT - 200);
+            renderQueue.text(nameLine.set(currentName), centerX, GameConstants.SCREEN_HEIGHT - 250);
+            renderQueue.text(enterDoneLine, centerX, GameConstants.SCREEN_HEIGHT - 300);
 
             currentName = GameStateManager.handleNameInput(currentName);
             if (GameStateManager.isNameEntryComplete()) {
-                GameStateManager.saveScoreWithName(SCORE_FILE, currentName, score);
-                gameStateManager.setResult();
+                leaderboard.submit(currentName, world.getScore());
+                endScreen = EndScreen.RESULT;
             }
-        } else if (gameStateManager.isResult()) {
-            font.setColor(Color.GREEN);
-            String gameOverText = "GAME OVER";
-            float gameOverWidth = font.draw(batch, gameOverText, 0, 0).width;
-            font.draw(batch, gameOverText, GameConstants.SCREEN_WIDTH/2 - gameOverWidth/2, GameConstants.SCREEN_HEIGHT - 100);
+        } else if (endScreen == EndScreen.RESULT) {
+            renderQueue.text(resultLine, centerX, GameConstants.SCREEN_HEIGHT - 100);
 
-            font.setColor(Color.WHITE);
-            String yourScoreText = "Your Score: " + score;
-            float yourScoreWidth = font.draw(batch, yourScoreText, 0, 0).width;
-            font.draw(batch, yourScoreText, GameConstants.SCREEN_WIDTH/2 - yourScoreWidth/2, GameConstants.SCREEN_HEIGHT - 150);
+            scoreText.setLength(0);
+            scoreText.append("Your Score: ").append(world.getScore());
+            renderQueue.text(yourScoreLine.set(scoreText), centerX, GameConstants.SCREEN_HEIGHT - 150);
 
-            String highScoreText = "High Score: " + highScore;
-            float highScoreWidth = font.draw(batch, highScoreText, 0, 0).width;
-            font.draw(batch, highScoreText, GameConstants.SCREEN_WIDTH/2 - highScoreWidth/2, GameConstants.SCREEN_HEIGHT - 200);
+            scoreText.setLength(0);
+            scoreText.append("High Score: ").append(highScore());
+            renderQueue.text(highScoreLine.set(scoreText), centerX, GameConstants.SCREEN_HEIGHT - 200);
 
             // Display top scores
-            List<GameStateManager.ScoreEntry> topScores = GameStateManager.loadTopScores(SCORE_FILE);
-            font.setColor(Color.YELLOW);
-            String topScoresText = "Top Scores:";
-            float topScoresWidth = font.draw(batch, topScoresText, 0, 0).width;
-            font.draw(batch, topScoresText, GameConstants.SCREEN_WIDTH/2 - topScoresWidth/2, GameConstants.SCREEN_HEIGHT - 250);
+            List<Leaderboard.ScoreEntry> topScores = leaderboard.getTopScores();
+            renderQueue.text(topScoresLine, centerX, GameConstants.SCREEN_HEIGHT - 250);
 
             int y = GameConstants.SCREEN_HEIGHT - 280;
-            for (GameStateManager.ScoreEntry entry : topScores) {
-                String scoreEntryText = entry.name + ": " + entry.score;
-                float scoreEntryWidth = font.draw(batch, scoreEntryText, 0, 0).width;
-                font.draw(batch, scoreEntryText, GameConstants.SCREEN_WIDTH/2 - scoreEntryWidth/2, y);
+            for (int i = 0; i < topScores.size() && i < leaderboardLines.length; i++) {
+                Leaderboard.ScoreEntry entry = topScores.get(i);
+                scoreText.setLength(0);
+                scoreText.append(entry.name).append(": ").append(entry.score);
+                renderQueue.text(leaderboardLines[i].set(scoreText), centerX, y);
                 y -= 30;
             }
 
-            font.setColor(Color.WHITE);
-            String restartText = "Press SPACE to restart";
-            float restartWidth = font.draw(batch, restartText, 0, 0).width;
-            font.draw(batch, restartText, GameConstants.SCREEN_WIDTH/2 - restartWidth/2, y - 30);
-            if (Gdx.input.isKeyJustPressed(com.badlogic.gdx.Input.Keys.SPACE)) {
+            // In co-op SPACE reaches the session as this player's vote, and the game restarts once both voted
+            boolean voted = session != null && gameStateManager.hasVotedRestart(session.getLocalPlayer());
+            renderQueue.text(voted ? waitingLine : restartLine, centerX, y - 30);
+            if (session == null && Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
                 restartGame();
             }
         }
-        batch.end();
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            setRenderStatsVisible(!profiler.isEnabled());
+        }
+        if (profiler.isEnabled()) {
+            RenderStats stats = renderQueue.getStats();
+            renderStatsText.setLength(0);
+            renderStatsText.append("draws ").append(stats.drawCalls)
+                           .append(" binds ").append(stats.textureBindings)
+                           .append(" quads ").append(stats.rectFlushes)
+                           .append(" batch ").append(stats.batchFlushes)
+                           .append(" text ").append(stats.textLayouts).append('/').append(stats.texts).append(" laid out");
+            renderQueue.text(renderStatsLine.set(renderStatsText), 10, 20);
+            audioStatsText.setLength(0);
+            audio.appendStats(audioStatsText);
+            renderQueue.text(audioStatsLine.set(audioStatsText), 10, 60);
+        }
+
+        if (rewinding) {
+            renderQueue.text(rewindLine, centerX, GameConstants.SCREEN_HEIGHT / 2 + 40);
+        }
+
+        if (session != null) {
+            if (!session.isConnected()) {
+                renderQueue.text(waitingLine, centerX, GameConstants.SCREEN_HEIGHT / 2 + 40);
+            }
+            if (profiler.isEnabled()) {
+                netStatsText.setLength(0);
+                session.appendStats(netStatsText);
+                renderQueue.text(netStatsLine.set(netStatsText), 10, 80);
+            }
+        }
+
+        if (world.getSwarmSize() > 0) {
+            swarmText.setLength(0);
+            swarmText.append("swarm ").append(world.getSwarmSize()).append(": ");
+            swarmStats.appendTo(swarmText);
+            renderQueue.text(debugFont, swarmText, 10, 40, Color.ORANGE);
+        }
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            FrameProfiler.setEnabled(!FrameProfiler.isEnabled());
+        }
+        if (FrameProfiler.isEnabled()) {
+            profilerOverlay.render(renderQueue, debugFont, delta, 10, GameConstants.SCREEN_HEIGHT - 90);
+        }
+        FrameProfiler.end(Section.RENDER_SUBMIT, start);
+
+        start = FrameProfiler.begin();
+        renderQueue.flush(quadBatch, batch);
+        renderQueue.getStats().capture(profiler);
+        FrameProfiler.end(Section.RENDER_FLUSH, start);
+        FrameProfiler.end(Section.FRAME, frameStart);
+
+        if (world.getSwarmSize() > 0) {
+            int entities = world.getEnemyManager().getEnemies().size() + world.getPlayerManager().getBullets().size();
+            swarmStats.record(System.nanoTime() - frameStartNanos, simulationNanos, steps, entities);
+        }
+        if (StartupMetrics.markInteractive()) {
+            reportStartup();
+            if (GameConstants.EXIT_AFTER_STARTUP) {
+                Gdx.app.exit();
+            }
+        }
+        if (GameConstants.TRAINING_SECONDS > 0) {
+            trainingTime += delta;
+            if (trainingTime >= GameConstants.TRAINING_SECONDS) {
+                Gdx.app.exit();
+            }
+        }
+    }
+
+    // Training run: weave between the panes a second at a time and confirm every prompt, so the
+    // session passes through gates, enemies, level changes and game over like a player would
+    private void scriptInput(int step, int steps, float delta) {
+        float time = trainingTime + delta * (step + 1) / steps;
+        boolean left = ((int) time & 1) == 0;
+        boolean confirm = (int) (time * 2) != (int) ((time - delta / steps) * 2);
+        input.set(left, !left, confirm);
+    }
+
+    // Memory only, or a mapped file with -DsnapshotFile, whose latest snapshot then resumes the last session
+    private SnapshotRing openSnapshots() {
+        int capacity = GameConstants.REWIND_SECONDS * stepLoop.getStepsPerSecond();
+        if (GameConstants.SNAPSHOT_FILE != null) {
+            try {
+                SnapshotRing ring = SnapshotRing.mapped(Paths.get(GameConstants.SNAPSHOT_FILE), capacity,
+                                                        GameConstants.SNAPSHOT_SLOT_BYTES);
+                try {
+                    if (ring.restoreLatest(world)) {
+                        replayValid = false;
+                        Gdx.app.log("GameScreen", "Resumed the session saved in " + GameConstants.SNAPSHOT_FILE);
+                    }
+                } catch (RuntimeException e) {
+                    Gdx.app.error("GameScreen", "Could not resume from " + GameConstants.SNAPSHOT_FILE + ", starting over", e);
+                    ring.clear();
+                    world.reset();
+                }
+                return ring;
+            } catch (IOException e) {
+                Gdx.app.error("GameScreen", "Could not map " + GameConstants.SNAPSHOT_FILE + ", rewind is kept in memory", e);
+            }
+        }
+        return new SnapshotRing(capacity, GameConstants.SNAPSHOT_SLOT_BYTES);
+    }
+
+    private LockstepSession openSession(String peer) {
+        int colon = peer.lastIndexOf(':');
+        DatagramChannel channel = null;
+        try {
+            InetSocketAddress address = new InetSocketAddress(peer.substring(0, colon), Integer.parseInt(peer.substring(colon + 1)));
+            channel = DatagramChannel.open();
+            channel.bind(new InetSocketAddress(GameConstants.COOP_PORT));
+            channel.connect(address);
+            Gdx.app.log("GameScreen", "Co-op as player " + (GameConstants.COOP_PLAYER + 1) + " on port "
+                        + GameConstants.COOP_PORT + ", waiting for " + peer);
+            return new LockstepSession(world, GameConstants.COOP_PLAYER, channel, stepLoop.getStepsPerSecond(),
+                                       GameConstants.COOP_INPUT_DELAY, GameConstants.COOP_MAX_ROLLBACK);
+        } catch (IOException | RuntimeException e) {
+            Gdx.app.error("GameScreen", "Co-op with " + peer + " is unavailable, starting a single player game", e);
+            closeQuietly(channel);
+            return null;
+        }
+    }
+
+    private void pollSession() {
+        if (session == null) return;
+        try {
+            session.poll(System.nanoTime());
+        } catch (IOException e) {
+            Gdx.app.error("GameScreen", "Co-op connection failed", e);
+        }
+        if (session.getDesyncFrame() != LockstepSession.NO_FRAME && !desyncReported) {
+            desyncReported = true;
+            Gdx.app.error("GameScreen", "Co-op desync at frame " + session.getDesyncFrame());
+        }
+    }
+
+    private static void closeQuietly(DatagramChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    private void reportStartup() {
+        Gdx.app.log("GameScreen", "Startup: " + StartupMetrics.summary());
+        try {
+            StartupMetrics.appendCsv(Paths.get(STARTUP_FILE));
+        } catch (IOException e) {
+            Gdx.app.error("GameScreen", "Could not write " + STARTUP_FILE, e);
+        }
+    }
+
+    private void createTextLines() {
+        scoreLine = new CachedText(font, Color.WHITE);
+        levelLine = new CachedText(font, Color.WHITE);
+        renderStatsLine = new CachedText(debugFont, Color.GRAY);
+        audioStatsLine = new CachedText(debugFont, Color.GRAY);
+        netStatsLine = new CachedText(debugFont, Color.GRAY);
+        waitingLine = new CachedText(font, "Waiting for the other player...", Color.WHITE, Align.center);
+
+        levelCompleteLine = new CachedText(font, Color.GREEN, Align.center);
+        continueLine = new CachedText(font, "Press SPACE to continue", Color.WHITE, Align.center);
+        rewindLine = new CachedText(font, "<< REWIND", Color.YELLOW, Align.center);
+
+        newHighScoreLine = new CachedText(font, "NEW HIGH SCORE!", Color.GREEN, Align.center);
+        entryScoreLine = new CachedText(font, Color.WHITE, Align.center);
+        enterNameLine = new CachedText(font, "Enter your name:", Color.WHITE, Align.center);
+        nameLine = new CachedText(font, Color.WHITE, Align.center);
+        enterDoneLine = new CachedText(font, "Press ENTER when done", Color.WHITE, Align.center);
+
+        resultLine = new CachedText(font, "GAME OVER", Color.GREEN, Align.center);
+        yourScoreLine = new CachedText(font, Color.WHITE, Align.center);
+        highScoreLine = new CachedText(font, Color.WHITE, Align.center);
+        topScoresLine = new CachedText(font, "Top Scores:", Color.YELLOW, Align.center);
+        for (int i = 0; i < leaderboardLines.length; i++) {
+            leaderboardLines[i] = new CachedText(font, Color.YELLOW, Align.center);
+        }
+        restartLine = new CachedText(font, "Press SPACE to restart", Color.WHITE, Align.center);
+    }
+
+    // The leaderboard's best entry, kept in memory, so nothing reads the score file while the game runs
+    private int highScore() {
+        List<Leaderboard.ScoreEntry> topScores = leaderboard.getTopScores();
+        return topScores.isEmpty() ? 0 : topScores.get(0).score;
+    }
+
+    // Switches between the normal game and swarm stress runs of increasing size, restarting each time
+    private void cycleSwarmSize() {
+        if (session != null) return; // Both peers would have to switch on the same step
+        int next = SWARM_SIZES[0];
+        for (int i = 0; i < SWARM_SIZES.length; i++) {
+            if (SWARM_SIZES[i] == world.getSwarmSize()) {
+                next = SWARM_SIZES[(i + 1) % SWARM_SIZES.length];
+            }
+        }
+        logSwarmSummary();
+        restartGame();
+        world.setSwarmSize(next);
+        Gdx.app.log("GameScreen", next > 0 ? "Swarm mode: " + next + " enemies per wave" : "Swarm mode off");
+    }
+
+    private void logSwarmSummary() {
+        if (world.getSwarmSize() > 0) {
+            Gdx.app.log("GameScreen", "Swarm " + world.getSwarmSize() + ": " + swarmStats.summary());
+        }
+        swarmStats.reset();
+    }
+
+    private void setRenderStatsVisible(boolean visible) {
+        if (visible) {
+            profiler.enable();
+        } else {
+            profiler.disable();
+        }
+        profiler.reset();
     }
 
     private void restartGame() {
-        gameStateManager.reset();
-        playerManager.reset();
-        enemyManager.reset();
-        gateManager.reset();
-        score = 0;
+        if (session != null) return; // Co-op restarts through the session, see LockstepSession
+        saveReplay();
+        world.reset(TimeUtils.millis());
+        replayRecorder.begin(world.getSeed(), stepLoop.getStepsPerSecond());
+        replayValid = true;
+        if (snapshots != null) {
+            snapshots.clear();
+        }
+    }
+
+    /** Keeps the last session on disk so it can be re-simulated with the replay task. */
+    private void saveReplay() {
+        // Swarm runs are not part of the replay format, so they are not kept, and neither are rewound ones
+        if (replayRecorder.getStepCount() == 0 || world.getSwarmSize() > 0 || !replayValid) return;
+        try {
+            replayRecorder.finish().write(Paths.get(REPLAY_FILE));
+        } catch (IOException e) {
+            Gdx.app.error("GameScreen", "Could not write " + REPLAY_FILE, e);
+        }
     }
 
     @Override
@@ -288,11 +555,34 @@ public class GameScreen implements Screen {
 
     @Override
     public void dispose() {
-        shapeRenderer.dispose();
-        if (laserSound != null) {
-            laserSound.dispose();
+        saveReplay();
+        logSwarmSummary();
+        if (levelReloader != null) {
+            levelReloader.dispose();
+        }
+        try {
+            FrameProfiler.writeCsv(Paths.get(PROFILE_FILE));
+        } catch (IOException e) {
+            Gdx.app.error("GameScreen", "Could not write " + PROFILE_FILE, e);
+        }
+        world.dispose();
+        if (snapshots != null) {
+            try {
+                snapshots.close();
+            } catch (IOException e) {
+                Gdx.app.error("GameScreen", "Could not close " + GameConstants.SNAPSHOT_FILE, e);
+            }
+        }
+        if (session != null) {
+            try {
+                session.close();
+            } catch (IOException e) {
+                Gdx.app.error("GameScreen", "Could not close the co-op channel", e);
+            }
         }
+        leaderboard.dispose();
+        quadBatch.dispose();
+        audio.dispose();
         batch.dispose();
-        font.dispose();
     }
 }
@@ -1,28 +1,26 @@
 package io.github.the_actual_game.screens;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
 
-import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.constants.LevelRepository;
 
+/**
+ * Where the simulated game stands: playing, between levels, lost or finished, plus the players who
+ * asked for a restart since it ended. This is part of the world's state; the name entry and result
+ * screens that follow an ended game belong to {@link GameScreen}.
+ */
 public class GameStateManager {
-    private enum GameState { PLAYING, ENTER_NAME, RESULT, LEVEL_COMPLETE }
+    private enum GameState { PLAYING, LEVEL_COMPLETE, FINISHED }
+    private static final GameState[] STATES = GameState.values();
     private GameState gameState = GameState.PLAYING;
     private boolean gameOver = false;
     private int currentLevel = 0;
+    private int restartVotes; // One bit per player
 
     public boolean isPlaying() {
         return gameState == GameState.PLAYING && !gameOver;
     }
 
-    public boolean isEnterName() {
-        return gameState == GameState.ENTER_NAME;
-    }
-
-    public boolean isResult() {
-        return gameState == GameState.RESULT;
-    }
-
     public boolean isLevelComplete() {
         return gameState == GameState.LEVEL_COMPLETE;
     }
@@ -31,18 +29,18 @@ public class GameStateManager {
         return gameOver;
     }
 
-    public void setGameOver(boolean value) {
-        this.gameOver = value;
+    /** True once every level is cleared. */
+    public boolean isFinished() {
+        return gameState == GameState.FINISHED;
     }
 
-    public void setEnterName() {
-        this.gameState = GameState.ENTER_NAME;
-        this.gameOver = false;
+    /** Lost or finished; nothing moves until a restart. */
+    public boolean isEnded() {
+        return gameOver || gameState == GameState.FINISHED;
     }
 
-    public void setResult() {
-        this.gameState = GameState.RESULT;
-        this.gameOver = false;
+    public void setGameOver(boolean value) {
+        this.gameOver = value;
     }
 
     public void setLevelComplete() {
@@ -51,8 +49,8 @@ public class GameStateManager {
 
     public void nextLevel() {
         currentLevel++;
-        if (currentLevel >= GameConstants.MAX_LEVELS) {
-            setResult();
+        if (currentLevel >= LevelRepository.count()) {
+            this.gameState = GameState.FINISHED;
         } else {
             this.gameState = GameState.PLAYING;
         }
@@ -62,80 +60,39 @@ public class GameStateManager {
         return currentLevel + 1; // Convert from 0-based to 1-based for display
     }
 
-    public void reset() {
-        this.gameState = GameState.PLAYING;
-        this.gameOver = false;
-        this.currentLevel = 0;
+    public void voteRestart(int player) {
+        restartVotes |= 1 << player;
     }
 
-    public static boolean areAllEnemiesDead(io.github.the_actual_game.entities.EnemyManager enemyManager) {
-        return enemyManager.isLevelComplete();
+    public boolean hasVotedRestart(int player) {
+        return (restartVotes & (1 << player)) != 0;
     }
 
-    public static int loadHighScore(String scoreFile) {
-        java.io.File file = new java.io.File(scoreFile);
-        if (!file.exists()) return 0;
-        try (java.util.Scanner scanner = new java.util.Scanner(file)) {
-            if (scanner.hasNextInt()) {
-                return scanner.nextInt();
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return 0;
+    /** True once the game has ended and each of the first {@code players} players asked for a restart. */
+    public boolean isRestartAgreed(int players) {
+        return isEnded() && restartVotes == (1 << players) - 1;
     }
 
-    public static void saveHighScore(String scoreFile, int score) {
-        try (java.io.FileWriter writer = new java.io.FileWriter(scoreFile)) {
-            writer.write(Integer.toString(score));
-        } catch (java.io.IOException e) {
-            e.printStackTrace();
-        }
+    public void reset() {
+        this.gameState = GameState.PLAYING;
+        this.gameOver = false;
+        this.currentLevel = 0;
+        this.restartVotes = 0;
     }
 
-    public static class ScoreEntry {
-        public final String name;
-        public final int score;
-        public ScoreEntry(String name, int score) {
-            this.name = name;
-            this.score = score;
-        }
+    public void writeState(ByteBuffer out) {
+        out.put((byte) gameState.ordinal()).put((byte) (gameOver ? 1 : 0)).putInt(currentLevel).put((byte) restartVotes);
     }
 
-    public static void saveScoreWithName(String scoreFile, String name, int score) {
-        List<ScoreEntry> scores = loadTopScores(scoreFile);
-        scores.add(new ScoreEntry(name, score));
-        scores.sort((a, b) -> Integer.compare(b.score, a.score));
-        if (scores.size() > 10) scores = scores.subList(0, 10);
-        try (java.io.FileWriter writer = new java.io.FileWriter(scoreFile)) {
-            for (ScoreEntry entry : scores) {
-                writer.write(entry.name + ":" + entry.score + "\n");
-            }
-        } catch (java.io.IOException e) {
-            e.printStackTrace();
-        }
+    public void readState(ByteBuffer in) {
+        gameState = STATES[in.get()];
+        gameOver = in.get() != 0;
+        currentLevel = in.getInt();
+        restartVotes = in.get();
     }
 
-    public static List<ScoreEntry> loadTopScores(String scoreFile) {
-        List<ScoreEntry> scores = new ArrayList<>();
-        java.io.File file = new java.io.File(scoreFile);
-        if (!file.exists()) return scores;
-        try (java.util.Scanner scanner = new java.util.Scanner(file)) {
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                String[] parts = line.split(":");
-                if (parts.length == 2) {
-                    try {
-                        scores.add(new ScoreEntry(parts[0], Integer.parseInt(parts[1])));
-                    } catch (NumberFormatException ignored) {}
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        scores.sort((a, b) -> Integer.compare(b.score, a.score));
-        if (scores.size() > 10) scores = scores.subList(0, 10);
-        return scores;
+    public static boolean areAllEnemiesDead(io.github.the_actual_game.entities.EnemyManager enemyManager) {
+        return enemyManager.isLevelComplete();
     }
 
     public static String handleNameInput(String currentName) {
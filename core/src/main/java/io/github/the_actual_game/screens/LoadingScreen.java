@@ -0,0 +1,97 @@
+package io.github.the_actual_game.screens;
+
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.BitmapFontLoader.BitmapFontParameter;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+
+import io.github.the_actual_game.audio.AudioManager;
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.profiling.StartupMetrics;
+import io.github.the_actual_game.utils.AtlasRegions;
+import io.github.the_actual_game.utils.SymbolManager;
+
+/**
+ * Shown while the AssetManager loads the baked atlas, its fonts and the sounds in the background. Each frame gives
+ * the manager a few milliseconds on the GL thread for the parts that need it, draws a progress bar,
+ * and switches to the game once everything is in.
+ */
+public class LoadingScreen implements Screen {
+    private static final int LOAD_BUDGET_MS = 10; // GL-thread time per frame, so the bar keeps moving
+    private static final float BAR_WIDTH = GameConstants.SCREEN_WIDTH * 0.6f;
+    private static final float BAR_HEIGHT = 8;
+
+    private final Game game;
+    private final AssetManager assets;
+    private final OrthographicCamera camera;
+    private final ShapeRenderer shapeRenderer;
+
+    public LoadingScreen(Game game, AssetManager assets) {
+        this.game = game;
+        this.assets = assets;
+        camera = new OrthographicCamera();
+        camera.setToOrtho(false, GameConstants.SCREEN_WIDTH, GameConstants.SCREEN_HEIGHT);
+        shapeRenderer = new ShapeRenderer();
+
+        assets.load(AtlasRegions.ATLAS_FILE, TextureAtlas.class);
+        // The fonts' glyphs live on the atlas page, so text and symbols share one texture
+        BitmapFontParameter fontParameter = new BitmapFontParameter();
+        fontParameter.atlasName = AtlasRegions.ATLAS_FILE;
+        assets.load(AtlasRegions.HUD_FONT_FILE, BitmapFont.class, fontParameter);
+        assets.load(AtlasRegions.DEBUG_FONT_FILE, BitmapFont.class, fontParameter);
+        AudioManager.queue(assets);
+    }
+
+    @Override
+    public void render(float delta) {
+        boolean done = assets.update(LOAD_BUDGET_MS);
+
+        Gdx.gl.glClearColor(0.15f, 0.15f, 0.2f, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        camera.update();
+        shapeRenderer.setProjectionMatrix(camera.combined);
+        float x = (GameConstants.SCREEN_WIDTH - BAR_WIDTH) / 2;
+        float y = GameConstants.SCREEN_HEIGHT / 2f;
+        shapeRenderer.begin(ShapeType.Filled);
+        shapeRenderer.setColor(Color.DARK_GRAY);
+        shapeRenderer.rect(x, y, BAR_WIDTH, BAR_HEIGHT);
+        shapeRenderer.setColor(Color.WHITE);
+        shapeRenderer.rect(x, y, BAR_WIDTH * assets.getProgress(), BAR_HEIGHT);
+        shapeRenderer.end();
+        StartupMetrics.markFirstFrame();
+
+        if (done) {
+            SymbolManager.initialize(assets.get(AtlasRegions.ATLAS_FILE, TextureAtlas.class));
+            game.setScreen(new GameScreen(assets));
+            dispose();
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {}
+
+    @Override
+    public void show() {}
+
+    @Override
+    public void hide() {}
+
+    @Override
+    public void pause() {}
+
+    @Override
+    public void resume() {}
+
+    @Override
+    public void dispose() {
+        shapeRenderer.dispose();
+    }
+}
@@ -0,0 +1,385 @@
+package io.github.the_actual_game.simulation;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Rectangle;
+
+import io.github.the_actual_game.collision.CollisionSystem;
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.entities.BulletStore;
+import io.github.the_actual_game.entities.EnemyManager;
+import io.github.the_actual_game.entities.EnemyStore;
+import io.github.the_actual_game.entities.GateManager;
+import io.github.the_actual_game.entities.GateStore;
+import io.github.the_actual_game.entities.GateType;
+import io.github.the_actual_game.entities.PlayerManager;
+import io.github.the_actual_game.profiling.FrameProfiler;
+import io.github.the_actual_game.profiling.FrameProfiler.Section;
+
+/**
+ * Swept collision for the {@link World}. Within a stretch of a step in which no event is due,
+ * everything moves at a constant velocity, so each contact's time of impact can be solved for
+ * exactly instead of sampled at the end of the step. The contacts of a stretch are queued by time
+ * and resolved in that order, each with the clock {@link Timeline#seek sought} to it: a bullet
+ * spent on one enemy does not also hit the one behind it, and a gate taken at some time sees the
+ * bullets that crossed it before then. That makes the outcome the same at any step rate, a
+ * 30 Hz world ends where a 240 Hz one does, and fast movers can no longer tunnel.
+ * <p>
+ * Contacts at the same time resolve by kind in the order below, then player, then position, never
+ * by store index, since swap-removal leaves the stores in a different order at a different rate.
+ */
+class ContactSolver {
+    // Contact kinds, in the order they resolve at the same time
+    private static final int BULLET_ENEMY = 0;
+    private static final int BULLET_GATE = 1;
+    private static final int PLAYER_GATE = 2;
+    private static final int PLAYER_HIT = 3; // Enemy overlapping or past the player
+    private static final int ENEMY_GONE = 4; // Enemy top edge leaving the bottom of the screen
+
+    private final Timeline timeline;
+    private final PlayerManager[] playerManagers;
+    private final EnemyManager enemyManager;
+    private final GateManager gateManager;
+    private final boolean[][] spent; // Per player, the bullets that hit an enemy in this stretch
+    private int points;
+
+    // Queued contacts; a binary min-heap of slots ordered by (time, kind, player, tie, secondTie)
+    private double[] times = new double[64]; // Seconds into the stretch
+    private int[] kinds = new int[64];
+    private int[] players = new int[64];
+    private int[] firsts = new int[64]; // Bullet, gate or enemy index
+    private int[] seconds = new int[64]; // Enemy or gate a bullet meets
+    private float[] ties = new float[64];
+    private float[] secondTies = new float[64];
+    private int[] heap = new int[64];
+    private int slots;
+    private int count;
+
+    // Horizontal overlap of the player with a box, seconds into the stretch, see playerOverlap
+    private double enterX, exitX;
+
+    ContactSolver(Timeline timeline, PlayerManager[] playerManagers, EnemyManager enemyManager, GateManager gateManager) {
+        this.timeline = timeline;
+        this.playerManagers = playerManagers;
+        this.enemyManager = enemyManager;
+        this.gateManager = gateManager;
+        spent = new boolean[playerManagers.length][16];
+    }
+
+    /**
+     * Resolves the contacts between {@code start} and {@code end}, both inclusive, with the world as
+     * it is at {@code start}. Returns where the stretch really ends: earlier than {@code end} if a
+     * contact scheduled an event before it, took the last life, or, when {@code levelCanEnd}, removed
+     * the level's last enemy. Bullets spent on enemies are removed; the caller moves everything else
+     * to the returned time and sees to the events due then.
+     */
+    double solve(CollisionSystem collisions, double start, double end, boolean levelCanEnd) {
+        slots = 0;
+        count = 0;
+        points = 0;
+        double span = end - start;
+
+        long probe = FrameProfiler.begin();
+        collisions.update(enemyManager.getEnemies());
+        for (PlayerManager playerManager : playerManagers) {
+            int player = playerManager.getIndex();
+            int bullets = playerManager.getBullets().size();
+            if (spent[player].length < bullets) {
+                spent[player] = new boolean[Math.max(bullets, spent[player].length * 2)];
+            }
+            Arrays.fill(spent[player], 0, bullets, false);
+            for (int i = 0; i < bullets; i++) {
+                queueBulletEnemy(collisions, player, i, 0, span);
+            }
+        }
+        FrameProfiler.end(Section.BULLET_COLLISIONS, probe);
+
+        probe = FrameProfiler.begin();
+        queueGateContacts(start, span);
+        FrameProfiler.end(Section.GATE_COLLISIONS, probe);
+
+        probe = FrameProfiler.begin();
+        queueEnemyContacts(start, span);
+        FrameProfiler.end(Section.PLAYER_COLLISIONS, probe);
+
+        probe = FrameProfiler.begin();
+        double stop = resolve(collisions, start, end, levelCanEnd);
+        for (PlayerManager playerManager : playerManagers) {
+            // Walk from the end: swap-remove moves the last, already checked, bullet into slot i
+            BulletStore bullets = playerManager.getBulletStore();
+            boolean[] hits = spent[playerManager.getIndex()];
+            for (int i = bullets.size() - 1; i >= 0; i--) {
+                if (hits[i]) {
+                    bullets.removeIndex(i);
+                    hits[i] = hits[bullets.size()];
+                }
+            }
+        }
+        FrameProfiler.end(Section.BULLET_COLLISIONS, probe);
+        return stop;
+    }
+
+    /** Points scored by the kills of the last {@link #solve}. */
+    int getPoints() {
+        return points;
+    }
+
+    // Queues the first enemy bullet i meets between from and span seconds in, while it is still on screen
+    private void queueBulletEnemy(CollisionSystem collisions, int player, int i, double from, double span) {
+        PlayerManager playerManager = playerManagers[player];
+        BulletStore bullets = playerManager.getBulletStore();
+        EnemyStore enemies = enemyManager.getEnemies();
+        double bulletSpeed = playerManager.getBulletSpeed();
+        double closing = bulletSpeed + enemyManager.getSpeed();
+        float x = bullets.getX(i);
+        double y = bullets.getExactY(i);
+        double limit = Math.min(span, (GameConstants.SCREEN_HEIGHT - y) / bulletSpeed);
+        if (limit < 0) return;
+        int enemy = collisions.querySwept(x, (float) y, bullets.getWidth(), bullets.getHeight(), (float) (closing * limit));
+        if (enemy < 0) return;
+        double time = Math.max(from, (enemies.getExactY(enemy) - y - bullets.getHeight()) / closing);
+        if (time <= limit) {
+            push(BULLET_ENEMY, time, player, i, enemy, x, (float) y);
+        }
+    }
+
+    // Bullets crossing into unused gates, and players walking into them
+    private void queueGateContacts(double start, double span) {
+        GateStore gates = gateManager.getGates();
+        float gateSpeed = gateManager.getSpeed();
+        for (PlayerManager playerManager : playerManagers) {
+            int player = playerManager.getIndex();
+            BulletStore bullets = playerManager.getBulletStore();
+            float bulletSpeed = playerManager.getBulletSpeed();
+            float height = bullets.getHeight();
+            for (int g = 0, n = gates.size(); g < n; g++) {
+                if (gates.isUsed(g)) continue;
+                float left = gates.getX(g), right = left + gates.getWidth(g);
+                double bottom = gates.getExactY(g), bottomAfter = bottom - gateSpeed * span;
+                for (int i = 0, m = bullets.size(); i < m; i++) {
+                    float x = bullets.getX(i);
+                    if (x >= right || x + bullets.getWidth() <= left) continue;
+                    // A bullet passes through and counts once, as its top edge crosses the gate's
+                    // bottom edge. Whether it crossed is decided with the same arithmetic that moves
+                    // both, so a crossing on the boundary between two stretches counts in exactly one.
+                    double y = bullets.getExactY(i);
+                    if (bottom - y - height > 0 && bottomAfter - (y + bulletSpeed * span) - height <= 0) {
+                        double time = Math.min(span, (bottom - y - height) / ((double) bulletSpeed + gateSpeed));
+                        push(BULLET_GATE, time, player, i, g, x, left);
+                    }
+                }
+            }
+
+            if (!playerManager.isAlive()) continue;
+            Rectangle box = playerManager.getPlayer();
+            for (int g = 0, n = gates.size(); g < n; g++) {
+                if (gates.isUsed(g)) continue;
+                double time = playerContact(playerManager, start, span, gates.getX(g), gates.getX(g) + gates.getWidth(g),
+                                            (gates.getExactY(g) - box.y - box.height) / gateSpeed,
+                                            (gates.getExactY(g) + gates.getHeight(g) - box.y) / gateSpeed);
+                if (time <= span) {
+                    push(PLAYER_GATE, time, player, g, -1, gates.getX(g), 0);
+                }
+            }
+        }
+    }
+
+    // Enemies reaching the vulnerable players, and leaving the screen
+    private void queueEnemyContacts(double start, double span) {
+        EnemyStore enemies = enemyManager.getEnemies();
+        double speed = enemyManager.getSpeed();
+        for (int j = 0, n = enemies.size(); j < n; j++) {
+            if (!enemies.isAlive(j)) continue;
+            float x = enemies.getX(j);
+            double y = enemies.getExactY(j), top = y + enemies.getHeight(j);
+            double gone = Math.max(0, top / speed);
+            if (gone <= span) {
+                push(ENEMY_GONE, gone, -1, j, -1, x, (float) y);
+            }
+            for (PlayerManager playerManager : playerManagers) {
+                if (!playerManager.isVulnerable()) continue;
+                Rectangle box = playerManager.getPlayer();
+                // Costs a life once its top edge passes the player's line, or on touching the player
+                double time = Math.max(0, (top - box.y) / speed);
+                time = Math.min(time, playerContact(playerManager, start, span, x, x + enemies.getWidth(j),
+                                                    (y - box.y - box.height) / speed, (top - box.y) / speed));
+                if (time <= span) {
+                    push(PLAYER_HIT, time, playerManager.getIndex(), j, -1, x, (float) y);
+                }
+            }
+        }
+    }
+
+    /**
+     * First time, seconds into the stretch, at which the player overlaps a box spanning
+     * [left, right) that overlaps the player's rows from {@code enterY} to {@code exitY} seconds in;
+     * positive infinity if it does not before {@code span}.
+     */
+    private double playerContact(PlayerManager playerManager, double start, double span,
+                                 float left, float right, double enterY, double exitY) {
+        if (exitY < 0 || enterY > span) return Double.POSITIVE_INFINITY;
+        playerOverlap(playerManager, start, span, left, right);
+        double enter = Math.max(0, Math.max(enterX, enterY));
+        return enter < Math.min(exitX, exitY) ? enter : Double.POSITIVE_INFINITY;
+    }
+
+    // Sets enterX and exitX to when, within the stretch, the player's box overlaps [left, right) horizontally.
+    // The player moves one way at a constant speed and may stop at a screen edge, so that is one interval.
+    private void playerOverlap(PlayerManager playerManager, double start, double span, float left, float right) {
+        double a = left - playerManager.getPlayer().width, b = right; // Overlapping while a < x < b
+        double x0 = playerManager.getXAt(start), x1 = playerManager.getXAt(start + span);
+        double velocity = playerManager.getVelocityX();
+        if (x0 > a && x0 < b) {
+            enterX = 0;
+        } else if (x0 <= a && x1 > a) {
+            enterX = (a - x0) / velocity;
+        } else if (x0 >= b && x1 < b) {
+            enterX = (b - x0) / velocity;
+        } else {
+            enterX = Double.POSITIVE_INFINITY;
+            exitX = Double.POSITIVE_INFINITY;
+            return;
+        }
+        if (x1 > a && x1 < b) {
+            exitX = Double.POSITIVE_INFINITY; // Still overlapping at the end
+        } else {
+            exitX = ((velocity > 0 ? b : a) - x0) / velocity;
+        }
+    }
+
+    // Pops contacts in order and applies the ones still valid; returns where the stretch ends
+    private double resolve(CollisionSystem collisions, double start, double end, boolean levelCanEnd) {
+        EnemyStore enemies = enemyManager.getEnemies();
+        GateStore gates = gateManager.getGates();
+        double span = end - start;
+        double limit = span;
+        while (count > 0 && times[heap[0]] <= limit) {
+            int slot = pop();
+            double time = times[slot];
+            int player = players[slot], first = firsts[slot], second = seconds[slot];
+            switch (kinds[slot]) {
+                case BULLET_ENEMY:
+                    if (spent[player][first]) break;
+                    if (!enemies.isAlive(second)) {
+                        // Another bullet got there first; look for what lies behind it
+                        queueBulletEnemy(collisions, player, first, time, span);
+                        break;
+                    }
+                    timeline.seek(start + time);
+                    spent[player][first] = true;
+                    if (enemies.hit(second, 1)) {
+                        points += 10;
+                        if (levelCanEnd && isLevelCleared()) limit = time;
+                    }
+                    break;
+                case BULLET_GATE:
+                    if (spent[player][first] || gates.isUsed(second)) break;
+                    gates.hit(second, 1);
+                    break;
+                case PLAYER_GATE: {
+                    PlayerManager playerManager = playerManagers[player];
+                    if (gates.isUsed(first) || !playerManager.isAlive()) break;
+                    // With two players the first in player order takes the gate
+                    timeline.seek(start + time);
+                    int powerLevel = gates.getPowerLevel(first);
+                    if (gates.getType(first) == GateType.SPEED) {
+                        playerManager.adjustShootingSpeed(powerLevel);
+                    } else {
+                        playerManager.adjustShotCount(powerLevel);
+                    }
+                    gates.setUsed(first);
+                    break;
+                }
+                case PLAYER_HIT: {
+                    PlayerManager playerManager = playerManagers[player];
+                    if (!playerManager.isVulnerable() || !enemies.isAlive(first)) break;
+                    timeline.seek(start + time);
+                    playerManager.hit();
+                    if (!anyAlive()) limit = time;
+                    break;
+                }
+                case ENEMY_GONE:
+                    if (!enemies.isAlive(first)) break;
+                    enemies.retire(first);
+                    if (levelCanEnd && isLevelCleared()) limit = time;
+                    break;
+                default:
+                    throw new IllegalStateException("Contact kind " + kinds[slot]);
+            }
+            // A shot moved by a gate may now be due before the stretch was going to end
+            limit = Math.min(limit, timeline.getNextDueTime() - start);
+        }
+        return limit < span ? start + limit : end;
+    }
+
+    private boolean isLevelCleared() {
+        if (enemyManager.getRemainingSpawns() > 0) return false;
+        EnemyStore enemies = enemyManager.getEnemies();
+        for (int j = 0, n = enemies.size(); j < n; j++) {
+            if (enemies.isAlive(j)) return false;
+        }
+        return true;
+    }
+
+    private boolean anyAlive() {
+        for (PlayerManager playerManager : playerManagers) {
+            if (playerManager.isAlive()) return true;
+        }
+        return false;
+    }
+
+    private void push(int kind, double time, int player, int first, int second, float tie, float secondTie) {
+        if (slots == times.length) grow();
+        int slot = slots++;
+        times[slot] = time;
+        kinds[slot] = kind;
+        players[slot] = player;
+        firsts[slot] = first;
+        seconds[slot] = second;
+        ties[slot] = tie;
+        secondTies[slot] = secondTie;
+        int index = count++;
+        while (index > 0) {
+            int parent = (index - 1) >> 1;
+            if (!before(slot, heap[parent])) break;
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    private int pop() {
+        int top = heap[0];
+        int slot = heap[--count];
+        int index = 0, half = count >> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < count && before(heap[child + 1], heap[child])) child++;
+            if (!before(heap[child], slot)) break;
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slot;
+        return top;
+    }
+
+    private boolean before(int a, int b) {
+        if (times[a] != times[b]) return times[a] < times[b];
+        if (kinds[a] != kinds[b]) return kinds[a] < kinds[b];
+        if (players[a] != players[b]) return players[a] < players[b];
+        if (ties[a] != ties[b]) return ties[a] < ties[b];
+        return secondTies[a] < secondTies[b];
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        times = Arrays.copyOf(times, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        players = Arrays.copyOf(players, capacity);
+        firsts = Arrays.copyOf(firsts, capacity);
+        seconds = Arrays.copyOf(seconds, capacity);
+        ties = Arrays.copyOf(ties, capacity);
+        secondTies = Arrays.copyOf(secondTies, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+    }
+}
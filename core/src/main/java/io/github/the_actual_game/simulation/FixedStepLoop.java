@@ -0,0 +1,60 @@
+package io.github.the_actual_game.simulation;
+
+/**
+ * Turns variable frame deltas into a whole number of fixed simulation steps. Long frames are clamped
+ * to {@link #MAX_FRAME_DELTA} and at most {@code maxStepsPerFrame} steps run per frame; any backlog
+ * beyond that is dropped, so a slow machine slows the game down instead of spiralling. The leftover
+ * fraction of a step is exposed as {@link #getAlpha()} for render interpolation.
+ */
+public class FixedStepLoop {
+    public static final float MAX_FRAME_DELTA = 0.25f;
+
+    private final int stepsPerSecond;
+    private final float stepDelta;
+    private final int maxStepsPerFrame;
+    private float accumulator;
+    private long droppedSteps;
+
+    public FixedStepLoop(int stepsPerSecond, int maxStepsPerFrame) {
+        if (stepsPerSecond <= 0) throw new IllegalArgumentException("stepsPerSecond must be positive: " + stepsPerSecond);
+        this.stepsPerSecond = stepsPerSecond;
+        this.stepDelta = 1f / stepsPerSecond;
+        this.maxStepsPerFrame = Math.max(1, maxStepsPerFrame);
+    }
+
+    /** Adds a frame's time and returns how many fixed steps to run now. */
+    public int advance(float frameDelta) {
+        accumulator += Math.min(Math.max(frameDelta, 0), MAX_FRAME_DELTA);
+        int steps = (int) (accumulator / stepDelta);
+        if (steps > maxStepsPerFrame) {
+            droppedSteps += steps - maxStepsPerFrame;
+            steps = maxStepsPerFrame;
+            accumulator -= (int) (accumulator / stepDelta) * stepDelta; // Keep only the fraction
+        } else {
+            accumulator -= steps * stepDelta;
+        }
+        return steps;
+    }
+
+    /** How far the next step has progressed, from 0 to 1. */
+    public float getAlpha() {
+        return accumulator / stepDelta;
+    }
+
+    public int getStepsPerSecond() {
+        return stepsPerSecond;
+    }
+
+    public float getStepDelta() {
+        return stepDelta;
+    }
+
+    /** Steps skipped by the catch-up cap since start. */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+
+    public void reset() {
+        accumulator = 0;
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.the_actual_game.simulation;
+
+/** Snapshot of the player's controls for a single simulation step. */
+public class InputState {
+    public boolean left;
+    public boolean right;
+    public boolean confirm; // Edge-triggered, e.g. SPACE on the level complete screen
+
+    public void set(boolean left, boolean right, boolean confirm) {
+        this.left = left;
+        this.right = right;
+        this.confirm = confirm;
+    }
+
+    public void clear() {
+        set(false, false, false);
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.the_actual_game.simulation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.profiling.FrameProfiler;
+import io.github.the_actual_game.profiling.FrameProfiler.Section;
+
+/**
+ * Runs a step's systems side by side on a ForkJoinPool. Each job declares the world state it reads
+ * and writes as bit sets, and waits for every earlier job it conflicts with, so the outcome is the
+ * same as running the jobs one after another in the order they were added. Jobs over many items are
+ * split into chunks of {@link #CHUNK_SIZE}. A stage with less than two chunks of work runs on the
+ * calling thread without touching the pool, so small scenes cost what the plain loops did. The job
+ * and task objects are built once and reused, so a serial step does not allocate.
+ */
+public class JobGraph {
+    public static final int CHUNK_SIZE = 4096;
+
+    /** One system in the graph. */
+    public interface Job {
+        /** Items to split into chunks, read once earlier stages finished; 1 for work that cannot be split. */
+        int size();
+
+        /** Called on the scheduling thread before any chunk runs. */
+        default void begin(int chunks) {}
+
+        /** Processes items [from, to). Chunks may run concurrently, so write only to the range or to the chunk's own slot. */
+        void run(int chunk, int from, int to);
+
+        /** Called on the scheduling thread after every chunk finished; merge per-chunk results here, in chunk order. */
+        default void end(int chunks) {}
+    }
+
+    private static ForkJoinPool sharedPool;
+
+    private final ForkJoinPool pool;
+    private Job[] jobs = new Job[8];
+    private Section[] sections = new Section[8];
+    private int[] reads = new int[8];
+    private int[] writes = new int[8];
+    private int[] stages = new int[8];
+    private int jobCount;
+    private int stageCount;
+
+    // Per-run scratch, indexed like jobs
+    private int[] sizes = new int[8];
+    private int[] chunkCounts = new int[8];
+    private long[] nanos = new long[8];
+    private ChunkTask[] tasks = new ChunkTask[0];
+    private final long[] sectionNanos = new long[FrameProfiler.sections().length];
+
+    /** @param pool the pool to spread chunks over, or null to always run on the calling thread */
+    public JobGraph(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /** The pool all worlds share, sized by {@link GameConstants#JOB_THREADS}; null if that is 0. */
+    public static synchronized ForkJoinPool sharedPool() {
+        if (sharedPool == null && GameConstants.JOB_THREADS > 0) {
+            sharedPool = new ForkJoinPool(GameConstants.JOB_THREADS);
+        }
+        return sharedPool;
+    }
+
+    /**
+     * Appends a job. It runs after every earlier job whose writes overlap its reads or writes, or whose
+     * reads overlap its writes; its time is profiled under {@code section}.
+     */
+    public void add(Section section, int readSet, int writeSet, Job job) {
+        if (jobCount == jobs.length) {
+            int capacity = jobCount * 2;
+            jobs = Arrays.copyOf(jobs, capacity);
+            sections = Arrays.copyOf(sections, capacity);
+            reads = Arrays.copyOf(reads, capacity);
+            writes = Arrays.copyOf(writes, capacity);
+            stages = Arrays.copyOf(stages, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            chunkCounts = Arrays.copyOf(chunkCounts, capacity);
+            nanos = Arrays.copyOf(nanos, capacity);
+        }
+        int stage = 0;
+        for (int j = 0; j < jobCount; j++) {
+            boolean conflicts = (writes[j] & (readSet | writeSet)) != 0 || (reads[j] & writeSet) != 0;
+            if (conflicts) stage = Math.max(stage, stages[j] + 1);
+        }
+        jobs[jobCount] = job;
+        sections[jobCount] = section;
+        reads[jobCount] = readSet;
+        writes[jobCount] = writeSet;
+        stages[jobCount] = stage;
+        jobCount++;
+        stageCount = Math.max(stageCount, stage + 1);
+    }
+
+    /** Convenience for work that cannot be split. */
+    public void add(Section section, int readSet, int writeSet, Runnable work) {
+        add(section, readSet, writeSet, new Job() {
+            @Override
+            public int size() {
+                return 1;
+            }
+
+            @Override
+            public void run(int chunk, int from, int to) {
+                work.run();
+            }
+        });
+    }
+
+    /** Runs every job once, stage by stage. */
+    public void run() {
+        boolean profile = FrameProfiler.isEnabled();
+        for (int stage = 0; stage < stageCount; stage++) {
+            runStage(stage, profile);
+        }
+        if (profile) {
+            for (int j = 0; j < jobCount; j++) {
+                sectionNanos[sections[j].ordinal()] += nanos[j];
+            }
+            for (int j = 0; j < jobCount; j++) {
+                int s = sections[j].ordinal();
+                if (sectionNanos[s] > 0) {
+                    FrameProfiler.record(sections[j], sectionNanos[s]);
+                    sectionNanos[s] = 0;
+                }
+            }
+        }
+    }
+
+    private void runStage(int stage, boolean profile) {
+        long items = 0;
+        for (int j = 0; j < jobCount; j++) {
+            if (stages[j] != stage) continue;
+            sizes[j] = jobs[j].size();
+            items += sizes[j];
+        }
+        boolean parallel = pool != null && items >= 2L * CHUNK_SIZE;
+
+        int taskCount = 0;
+        for (int j = 0; j < jobCount; j++) {
+            if (stages[j] != stage) continue;
+            int chunks = parallel ? Math.max(1, (sizes[j] + CHUNK_SIZE - 1) / CHUNK_SIZE) : 1;
+            chunkCounts[j] = chunks;
+            long start = profile ? System.nanoTime() : 0;
+            jobs[j].begin(chunks);
+            nanos[j] = profile ? System.nanoTime() - start : 0;
+            taskCount += chunks;
+        }
+
+        if (!parallel) {
+            for (int j = 0; j < jobCount; j++) {
+                if (stages[j] != stage) continue;
+                long start = profile ? System.nanoTime() : 0;
+                jobs[j].run(0, 0, sizes[j]);
+                if (profile) nanos[j] += System.nanoTime() - start;
+            }
+        } else {
+            if (tasks.length < taskCount) {
+                ChunkTask[] grown = Arrays.copyOf(tasks, taskCount);
+                for (int t = tasks.length; t < taskCount; t++) grown[t] = new ChunkTask();
+                tasks = grown;
+            }
+            int t = 0;
+            for (int j = 0; j < jobCount; j++) {
+                if (stages[j] != stage) continue;
+                int size = sizes[j], chunks = chunkCounts[j];
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    ChunkTask task = tasks[t++];
+                    task.reinitialize();
+                    task.set(j, chunk, (int) ((long) size * chunk / chunks), (int) ((long) size * (chunk + 1) / chunks), profile);
+                }
+            }
+            // Hand all but the first chunk to the pool, run the first here, then wait for the rest
+            for (int i = 1; i < taskCount; i++) {
+                pool.execute(tasks[i]);
+            }
+            tasks[0].compute();
+            for (int i = taskCount - 1; i >= 1; i--) {
+                tasks[i].join();
+            }
+            if (profile) {
+                for (int i = 0; i < taskCount; i++) {
+                    nanos[tasks[i].job] += tasks[i].nanos;
+                }
+            }
+        }
+
+        for (int j = 0; j < jobCount; j++) {
+            if (stages[j] != stage) continue;
+            long start = profile ? System.nanoTime() : 0;
+            jobs[j].end(chunkCounts[j]);
+            if (profile) nanos[j] += System.nanoTime() - start;
+        }
+    }
+
+    private final class ChunkTask extends RecursiveAction {
+        int job;
+        private int chunk;
+        private int from;
+        private int to;
+        private boolean profile;
+        long nanos;
+
+        void set(int job, int chunk, int from, int to, boolean profile) {
+            this.job = job;
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+            this.profile = profile;
+        }
+
+        @Override
+        protected void compute() {
+            long start = profile ? System.nanoTime() : 0;
+            jobs[job].run(chunk, from, to);
+            nanos = profile ? System.nanoTime() - start : 0;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.the_actual_game.simulation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A recorded session: the {@link World} seed, the step rate, a checksum of the level table it was
+ * played with and the input of every simulation step.
+ * Because the simulation runs on a fixed step, the step delta is stored once in the header instead
+ * of per frame. Inputs are run-length encoded: each run is one varint holding
+ * {@code (length << 3) | buttons}, so a held key costs one or two bytes however long it is held.
+ * Recorded by {@link ReplayRecorder}, played back by {@link ReplayPlayer}.
+ */
+public class Replay {
+    static final int MAGIC = 0x54414752; // "TAGR"
+    static final int VERSION = 5; // Bump when a simulation change makes older recordings play out differently
+
+    static final int LEFT = 1;
+    static final int RIGHT = 2;
+    static final int CONFIRM = 4;
+    static final int BUTTON_BITS = 3;
+
+    private final long seed;
+    private final int stepsPerSecond;
+    private final int levelChecksum;
+    private final int stepCount;
+    private final byte[] runs;
+
+    Replay(long seed, int stepsPerSecond, int levelChecksum, int stepCount, byte[] runs) {
+        this.seed = seed;
+        this.stepsPerSecond = stepsPerSecond;
+        this.levelChecksum = levelChecksum;
+        this.stepCount = stepCount;
+        this.runs = runs;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getStepsPerSecond() {
+        return stepsPerSecond;
+    }
+
+    public float getStepDelta() {
+        return 1f / stepsPerSecond;
+    }
+
+    /** The {@link io.github.the_actual_game.constants.LevelRepository#checksum()} at recording time. */
+    public int getLevelChecksum() {
+        return levelChecksum;
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    /** Recorded length in seconds of simulated time. */
+    public float getDuration() {
+        return stepCount / (float) stepsPerSecond;
+    }
+
+    /** Size of the encoded input stream in bytes, excluding the header. */
+    public int getEncodedSize() {
+        return runs.length;
+    }
+
+    byte[] getRuns() {
+        return runs;
+    }
+
+    public void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(out);
+        }
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeInt(stepsPerSecond);
+        out.writeInt(levelChecksum);
+        out.writeInt(stepCount);
+        out.writeInt(runs.length);
+        out.write(runs);
+        out.flush();
+    }
+
+    public static Replay read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    public static Replay read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a replay file");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        long seed = in.readLong();
+        int stepsPerSecond = in.readInt();
+        int levelChecksum = in.readInt();
+        int stepCount = in.readInt();
+        int runsLength = in.readInt();
+        if (stepsPerSecond <= 0 || stepCount < 0 || runsLength < 0) {
+            throw new IOException("Corrupt replay header");
+        }
+        byte[] runs = new byte[runsLength];
+        in.readFully(runs);
+        return new Replay(seed, stepsPerSecond, levelChecksum, stepCount, runs);
+    }
+}
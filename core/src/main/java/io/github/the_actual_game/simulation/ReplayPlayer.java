@@ -0,0 +1,81 @@
+package io.github.the_actual_game.simulation;
+
+import io.github.the_actual_game.constants.LevelRepository;
+
+/**
+ * Feeds a {@link Replay} back into a {@link World} one step at a time. Nothing here waits on a
+ * clock, so {@link #playToEnd} re-simulates a session as fast as the CPU allows.
+ */
+public class ReplayPlayer {
+    private final Replay replay;
+    private final byte[] runs;
+    private int position;
+    private int buttons;
+    private long remainingInRun;
+    private int stepsPlayed;
+
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        this.runs = replay.getRuns();
+    }
+
+    /**
+     * Resets the world to the replay's seed so playback starts from the recorded session's first step.
+     * Refuses a replay recorded against a different level table, which would silently play out differently.
+     */
+    public void start(World world) {
+        if (replay.getLevelChecksum() != LevelRepository.checksum()) {
+            throw new IllegalStateException(String.format("Replay was recorded with level table %08x, current one is %08x",
+                replay.getLevelChecksum(), LevelRepository.checksum()));
+        }
+        world.reset(replay.getSeed());
+        position = 0;
+        remainingInRun = 0;
+        stepsPlayed = 0;
+    }
+
+    /** Fills {@code input} with the next recorded step. Returns false once every step was played. */
+    public boolean next(InputState input) {
+        if (stepsPlayed >= replay.getStepCount()) return false;
+        if (remainingInRun == 0) {
+            long run = readVarLong();
+            buttons = (int) (run & ((1 << Replay.BUTTON_BITS) - 1));
+            remainingInRun = run >>> Replay.BUTTON_BITS;
+            if (remainingInRun == 0) {
+                throw new IllegalStateException("Corrupt replay: empty run at byte " + position);
+            }
+        }
+        remainingInRun--;
+        stepsPlayed++;
+        input.set((buttons & Replay.LEFT) != 0, (buttons & Replay.RIGHT) != 0, (buttons & Replay.CONFIRM) != 0);
+        return true;
+    }
+
+    /** Plays the whole replay into {@code world} from the start. Returns the number of steps simulated. */
+    public int playToEnd(World world, InputState input) {
+        start(world);
+        float delta = replay.getStepDelta();
+        while (next(input)) {
+            world.step(input, delta);
+        }
+        return stepsPlayed;
+    }
+
+    public int getStepsPlayed() {
+        return stepsPlayed;
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            if (position >= runs.length) {
+                throw new IllegalStateException("Corrupt replay: input stream ends after " + stepsPlayed + " steps");
+            }
+            byte b = runs[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+            shift += 7;
+        }
+    }
+}
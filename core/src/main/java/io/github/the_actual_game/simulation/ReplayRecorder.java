@@ -0,0 +1,78 @@
+package io.github.the_actual_game.simulation;
+
+import java.util.Arrays;
+
+import io.github.the_actual_game.constants.LevelRepository;
+
+/**
+ * Records the input of every simulation step into a {@link Replay}. Call {@link #begin} with the
+ * World's seed when a session starts, which also notes the level table in play, and {@link #record} right before each {@link World#step}.
+ * Only a change of input writes bytes, so recording a step does not allocate.
+ */
+public class ReplayRecorder {
+    private byte[] runs = new byte[1024];
+    private int length;
+    private long seed;
+    private int stepsPerSecond;
+    private int levelChecksum;
+    private int stepCount;
+    private int currentButtons = -1;
+    private int currentRun;
+
+    public void begin(long seed, int stepsPerSecond) {
+        this.seed = seed;
+        this.stepsPerSecond = stepsPerSecond;
+        levelChecksum = LevelRepository.checksum();
+        length = 0;
+        stepCount = 0;
+        currentButtons = -1;
+        currentRun = 0;
+    }
+
+    public void record(InputState input) {
+        int buttons = (input.left ? Replay.LEFT : 0)
+            | (input.right ? Replay.RIGHT : 0)
+            | (input.confirm ? Replay.CONFIRM : 0);
+        if (buttons != currentButtons) {
+            flushRun();
+            currentButtons = buttons;
+        }
+        currentRun++;
+        stepCount++;
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    /** Returns everything recorded since {@link #begin}. Recording can continue afterwards. */
+    public Replay finish() {
+        int openLength = length;
+        writeRun();
+        Replay replay = new Replay(seed, stepsPerSecond, levelChecksum, stepCount, Arrays.copyOf(runs, length));
+        // Take the open run back out, so it can keep growing and a later finish() covers the whole session
+        length = openLength;
+        return replay;
+    }
+
+    private void flushRun() {
+        writeRun();
+        currentRun = 0;
+    }
+
+    private void writeRun() {
+        if (currentRun == 0) return;
+        writeVarLong(((long) currentRun << Replay.BUTTON_BITS) | currentButtons);
+    }
+
+    private void writeVarLong(long value) {
+        if (length + 10 > runs.length) {
+            runs = Arrays.copyOf(runs, runs.length * 2);
+        }
+        while ((value & ~0x7FL) != 0) {
+            runs[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        runs[length++] = (byte) value;
+    }
+}
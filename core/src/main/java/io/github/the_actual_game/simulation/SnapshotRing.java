@@ -0,0 +1,194 @@
+package io.github.the_actual_game.simulation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The last {@code capacity} world states, captured with {@link World#writeState} into one buffer
+ * allocated up front and overwritten oldest first. Every capture goes to a slot of the same fixed
+ * size, so capturing is a bounded copy into memory that already exists and never allocates; it is
+ * cheap enough to run after every step, which makes {@link #stepBack} a rewind at step granularity.
+ * <p>
+ * {@link #mapped} puts the buffer in a memory-mapped file. The ring position is kept in the file
+ * header and updated with each capture, so after an app restart {@link #restoreLatest} resumes
+ * where the last session left off. Layout, big-endian:
+ * <pre>
+ * header  magic, format, capacity, slot bytes, next slot, count (ints)
+ * slot    state length (int), World state, padding up to the slot size
+ * </pre>
+ */
+public class SnapshotRing implements Closeable {
+    private static final int MAGIC = 0x54414753; // "TAGS"
+    private static final int FORMAT = 1; // The World state inside carries its own version
+    private static final int HEADER_BYTES = 6 * 4;
+    private static final int HEAD_OFFSET = 16;
+    private static final int COUNT_OFFSET = 20;
+    private static final int SLOT_HEADER_BYTES = 4;
+
+    private final ByteBuffer buffer;
+    private final FileChannel file; // Null unless mapped
+    private final int capacity;
+    private final int slotBytes;
+    private int head; // Slot the next capture goes to
+    private int count;
+    private long overflows;
+
+    /** A ring in memory only. */
+    public SnapshotRing(int capacity, int slotBytes) {
+        this(ByteBuffer.allocateDirect(HEADER_BYTES + capacity * slotBytes), null, capacity, slotBytes);
+        writeHeader();
+    }
+
+    private SnapshotRing(ByteBuffer buffer, FileChannel file, int capacity, int slotBytes) {
+        if (capacity < 2 || slotBytes <= SLOT_HEADER_BYTES) {
+            throw new IllegalArgumentException(capacity + " slots of " + slotBytes + " bytes");
+        }
+        this.buffer = buffer;
+        this.file = file;
+        this.capacity = capacity;
+        this.slotBytes = slotBytes;
+    }
+
+    /**
+     * A ring backed by {@code path}. An existing file with the same capacity and slot size is picked
+     * up with its snapshots; anything else is overwritten with an empty ring.
+     */
+    public static SnapshotRing mapped(Path path, int capacity, int slotBytes) throws IOException {
+        FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = file.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * slotBytes);
+            SnapshotRing ring = new SnapshotRing(buffer, file, capacity, slotBytes);
+            if (!ring.readHeader()) {
+                ring.writeHeader();
+            }
+            return ring;
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    private boolean readHeader() {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT
+            || buffer.getInt(8) != capacity || buffer.getInt(12) != slotBytes) {
+            return false;
+        }
+        int storedHead = buffer.getInt(HEAD_OFFSET);
+        int storedCount = buffer.getInt(COUNT_OFFSET);
+        if (storedHead < 0 || storedHead >= capacity || storedCount < 0 || storedCount > capacity) return false;
+        head = storedHead;
+        count = storedCount;
+        return true;
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC).putInt(4, FORMAT).putInt(8, capacity).putInt(12, slotBytes);
+        writeCursor();
+    }
+
+    private void writeCursor() {
+        buffer.putInt(HEAD_OFFSET, head).putInt(COUNT_OFFSET, count);
+    }
+
+    /**
+     * Adds the world's current state, overwriting the oldest once the ring is full. Returns false if
+     * the state does not fit a slot; the ring is then emptied, since its history has a gap.
+     */
+    public boolean capture(World world) {
+        int start = slotStart(head);
+        buffer.limit(start + slotBytes).position(start + SLOT_HEADER_BYTES);
+        try {
+            world.writeState(buffer);
+        } catch (BufferOverflowException e) {
+            overflows++;
+            buffer.clear();
+            clear();
+            return false;
+        }
+        int length = buffer.position() - start - SLOT_HEADER_BYTES;
+        buffer.clear(); // Absolute access below is bounded by the limit too
+        buffer.putInt(start, length);
+        head = (head + 1) % capacity;
+        count = Math.min(count + 1, capacity);
+        writeCursor();
+        return true;
+    }
+
+    /** Drops the latest snapshot and restores the one before it. Returns false when there is none. */
+    public boolean stepBack(World world) {
+        if (count < 2) return false;
+        head = (head + capacity - 1) % capacity;
+        count--;
+        writeCursor();
+        restore(world, (head + capacity - 1) % capacity);
+        return true;
+    }
+
+    /** Restores the latest snapshot, e.g. one a mapped ring kept from the last run. Returns false when empty. */
+    public boolean restoreLatest(World world) {
+        if (count == 0) return false;
+        restore(world, (head + capacity - 1) % capacity);
+        return true;
+    }
+
+    private void restore(World world, int slot) {
+        int start = slotStart(slot);
+        int length = buffer.getInt(start);
+        if (length < 0 || length > slotBytes - SLOT_HEADER_BYTES) {
+            throw new IllegalStateException("Corrupt snapshot in slot " + slot);
+        }
+        buffer.limit(start + SLOT_HEADER_BYTES + length).position(start + SLOT_HEADER_BYTES);
+        try {
+            world.readState(buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private int slotStart(int slot) {
+        return HEADER_BYTES + slot * slotBytes;
+    }
+
+    public void clear() {
+        head = 0;
+        count = 0;
+        writeCursor();
+    }
+
+    /** Snapshots held, at most {@link #getCapacity}. */
+    public int size() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSlotBytes() {
+        return slotBytes;
+    }
+
+    /** Captures that did not fit a slot. */
+    public long getOverflows() {
+        return overflows;
+    }
+
+    public boolean isMapped() {
+        return file != null;
+    }
+
+    /** Flushes a mapped ring to its file and closes the file. */
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            ((MappedByteBuffer) buffer).force();
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package io.github.the_actual_game.simulation;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Simulation clock with a priority queue of timestamped events. Spawns, shots and timer expiries are
+ * scheduled once for the time they are due, and {@link #advanceTo} only touches the events that
+ * became due, so a step costs O(due events * log pending) instead of one check per timer.
+ * Events due at the same time fire in the order they were scheduled, which keeps replays deterministic.
+ * <p>
+ * {@link #schedule} returns a handle that {@link #cancel} accepts. Handles carry a generation,
+ * so cancelling an event that already fired, or was cleared, is a harmless no-op.
+ * Event slots are recycled, so steady-state scheduling does not allocate.
+ * <p>
+ * Actions that must survive {@link #writeState}/{@link #readState} are {@link #register registered}
+ * once, in the same order on every run; the state refers to them by registration index.
+ */
+public class Timeline {
+    public static final int NONE = 0;
+
+    private static final int SLOT_BITS = 16;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int MAX_SLOTS = 1 << SLOT_BITS;
+
+    private double time;
+    private long nextSequence;
+
+    // Per-slot event data; a slot is free when its action is null
+    private double[] dueTimes;
+    private long[] sequences;
+    private Runnable[] actions;
+    private int[] generations;
+    private int[] heapIndices;
+    private int[] freeSlots;
+    private int freeCount;
+
+    // Binary min-heap of slot indices ordered by (due time, sequence)
+    private int[] heap;
+    private int size;
+
+    private Runnable[] registered = new Runnable[8];
+    private int registeredCount;
+
+    public Timeline() {
+        this(16);
+    }
+
+    public Timeline(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        dueTimes = new double[capacity];
+        sequences = new long[capacity];
+        actions = new Runnable[capacity];
+        generations = new int[capacity];
+        heapIndices = new int[capacity];
+        freeSlots = new int[capacity];
+        heap = new int[capacity];
+        Arrays.fill(generations, 1);
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;
+        }
+        freeCount = capacity;
+    }
+
+    /** Seconds of simulated time since the last {@link #clear}. */
+    public double getTime() {
+        return time;
+    }
+
+    /** Runs {@code action} once the clock reaches {@code dueTime}. Returns a handle for {@link #cancel}. */
+    public int schedule(double dueTime, Runnable action) {
+        if (action == null) throw new IllegalArgumentException("action must not be null");
+        if (freeCount == 0) grow();
+        int slot = freeSlots[--freeCount];
+        dueTimes[slot] = dueTime;
+        sequences[slot] = nextSequence++;
+        actions[slot] = action;
+        heap[size] = slot;
+        heapIndices[slot] = size;
+        size++;
+        siftUp(size - 1);
+        return (generations[slot] << SLOT_BITS) | slot;
+    }
+
+    public int scheduleIn(double delay, Runnable action) {
+        return schedule(time + delay, action);
+    }
+
+    /** Removes a pending event. Returns false if it already fired or was cancelled. */
+    public boolean cancel(int handle) {
+        if (!isPending(handle)) return false;
+        int slot = handle & SLOT_MASK;
+        removeAt(heapIndices[slot]);
+        release(slot);
+        return true;
+    }
+
+    public boolean isPending(int handle) {
+        if (handle == NONE) return false;
+        int slot = handle & SLOT_MASK;
+        return slot < actions.length && actions[slot] != null && generations[slot] == handle >>> SLOT_BITS;
+    }
+
+    /** Due time of a pending event, or NaN if the handle is no longer pending. */
+    public double getDueTime(int handle) {
+        return isPending(handle) ? dueTimes[handle & SLOT_MASK] : Double.NaN;
+    }
+
+    /** Moves the clock forward by {@code delta}, see {@link #advanceTo}. */
+    public int advance(float delta) {
+        return advanceTo(time + delta);
+    }
+
+    /**
+     * Moves the clock to {@code target} and fires every event due by then, earliest first. The clock
+     * reads each event's own due time while it fires, so an action that reschedules itself keeps its
+     * period however the steps fall. Actions may schedule further events; one that is already due
+     * fires in this same call. Returns the number of events fired.
+     */
+    public int advanceTo(double target) {
+        int fired = 0;
+        while (size > 0 && dueTimes[heap[0]] <= target) {
+            int slot = heap[0];
+            Runnable action = actions[slot];
+            removeAt(0);
+            release(slot);
+            time = Math.max(time, dueTimes[slot]);
+            action.run();
+            fired++;
+        }
+        time = Math.max(time, target);
+        return fired;
+    }
+
+    /**
+     * Moves the clock to {@code target} without firing anything, so work done between events sees
+     * the time it happens at. Throws if an event is due before {@code target}; one due exactly then
+     * is left for {@link #advanceTo}.
+     */
+    public void seek(double target) {
+        if (size > 0 && dueTimes[heap[0]] < target) {
+            throw new IllegalStateException("Event due at " + dueTimes[heap[0]] + " before " + target);
+        }
+        time = Math.max(time, target);
+    }
+
+    /** Due time of the earliest pending event, or positive infinity if none is. */
+    public double getNextDueTime() {
+        return size > 0 ? dueTimes[heap[0]] : Double.POSITIVE_INFINITY;
+    }
+
+    /** Makes an action storable in {@link #writeState}. Owners register their fixed callbacks on construction. */
+    public void register(Runnable action) {
+        if (registeredCount == registered.length) {
+            registered = Arrays.copyOf(registered, registeredCount * 2);
+        }
+        registered[registeredCount++] = action;
+    }
+
+    /**
+     * Writes the clock, every pending event and the slot bookkeeping, so handles held by the owners
+     * stay valid after {@link #readState}. Throws if a pending action was never registered.
+     */
+    public void writeState(ByteBuffer out) {
+        out.putDouble(time);
+        out.putLong(nextSequence);
+        out.putInt(actions.length);
+        for (int slot = 0; slot < actions.length; slot++) {
+            out.putInt(generations[slot]);
+        }
+        out.putInt(freeCount);
+        for (int i = 0; i < freeCount; i++) {
+            out.putInt(freeSlots[i]);
+        }
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            int slot = heap[i];
+            out.putInt(slot);
+            out.putDouble(dueTimes[slot]);
+            out.putLong(sequences[slot]);
+            out.putInt(registrationOf(actions[slot]));
+        }
+    }
+
+    public void readState(ByteBuffer in) {
+        time = in.getDouble();
+        nextSequence = in.getLong();
+        int capacity = in.getInt();
+        if (actions.length != capacity) resize(capacity);
+        Arrays.fill(actions, null);
+        for (int slot = 0; slot < capacity; slot++) {
+            generations[slot] = in.getInt();
+        }
+        freeCount = in.getInt();
+        for (int i = 0; i < freeCount; i++) {
+            freeSlots[i] = in.getInt();
+        }
+        size = in.getInt();
+        for (int i = 0; i < size; i++) {
+            int slot = in.getInt();
+            heap[i] = slot;
+            heapIndices[slot] = i;
+            dueTimes[slot] = in.getDouble();
+            sequences[slot] = in.getLong();
+            actions[slot] = registered[in.getInt()];
+        }
+    }
+
+    private int registrationOf(Runnable action) {
+        for (int i = 0; i < registeredCount; i++) {
+            if (registered[i] == action) return i;
+        }
+        throw new IllegalStateException("Pending action was not registered: " + action);
+    }
+
+    /** Number of pending events. */
+    public int size() {
+        return size;
+    }
+
+    /** Drops every pending event and rewinds the clock to zero. Outstanding handles become stale. */
+    public void clear() {
+        while (size > 0) {
+            int slot = heap[--size];
+            release(slot);
+        }
+        // Hand out slots in the same order as a new timeline, however the cleared events were queued,
+        // so two worlds cleared from different histories go on identically
+        for (int i = 0; i < freeCount; i++) {
+            freeSlots[i] = freeCount - 1 - i;
+        }
+        time = 0;
+        nextSequence = 0;
+    }
+
+    private void release(int slot) {
+        actions[slot] = null;
+        generations[slot] = (generations[slot] + 1) & (Integer.MAX_VALUE >>> SLOT_BITS);
+        if (generations[slot] == 0) generations[slot] = 1; // Keep handles distinct from NONE
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void removeAt(int index) {
+        size--;
+        if (index == size) return;
+        int moved = heap[size];
+        heap[index] = moved;
+        heapIndices[moved] = index;
+        if (index > 0 && before(moved, heap[(index - 1) >> 1])) {
+            siftUp(index);
+        } else {
+            siftDown(index);
+        }
+    }
+
+    private void siftUp(int index) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) >> 1;
+            int parent = heap[parentIndex];
+            if (!before(slot, parent)) break;
+            heap[index] = parent;
+            heapIndices[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = slot;
+        heapIndices[slot] = index;
+    }
+
+    private void siftDown(int index) {
+        int slot = heap[index];
+        int half = size >> 1;
+        while (index < half) {
+            int childIndex = 2 * index + 1;
+            int child = heap[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex < size && before(heap[rightIndex], child)) {
+                childIndex = rightIndex;
+                child = heap[rightIndex];
+            }
+            if (!before(child, slot)) break;
+            heap[index] = child;
+            heapIndices[child] = index;
+            index = childIndex;
+        }
+        heap[index] = slot;
+        heapIndices[slot] = index;
+    }
+
+    private boolean before(int a, int b) {
+        if (dueTimes[a] != dueTimes[b]) return dueTimes[a] < dueTimes[b];
+        return sequences[a] < sequences[b];
+    }
+
+    private void grow() {
+        int capacity = actions.length;
+        if (capacity >= MAX_SLOTS) throw new IllegalStateException("Too many pending events: " + capacity);
+        int newCapacity = Math.min(capacity * 2, MAX_SLOTS);
+        resize(newCapacity);
+        Arrays.fill(generations, capacity, newCapacity, 1);
+        for (int i = newCapacity - 1; i >= capacity; i--) {
+            freeSlots[freeCount++] = i;
+        }
+    }
+
+    private void resize(int capacity) {
+        dueTimes = Arrays.copyOf(dueTimes, capacity);
+        sequences = Arrays.copyOf(sequences, capacity);
+        actions = Arrays.copyOf(actions, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        heapIndices = Arrays.copyOf(heapIndices, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+}
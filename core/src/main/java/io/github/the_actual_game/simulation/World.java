@@ -0,0 +1,417 @@
+package io.github.the_actual_game.simulation;
+
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Disposable;
+
+import io.github.the_actual_game.collision.CollisionBackend;
+import io.github.the_actual_game.collision.CollisionSystem;
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.entities.BulletStore;
+import io.github.the_actual_game.entities.EnemyManager;
+import io.github.the_actual_game.entities.GateManager;
+import io.github.the_actual_game.entities.PlayerManager;
+import io.github.the_actual_game.profiling.FrameProfiler;
+import io.github.the_actual_game.profiling.FrameProfiler.Section;
+import io.github.the_actual_game.screens.GameStateManager;
+
+/**
+ * Headless gameplay simulation. Advances the player, gates and enemies from an {@link InputState}
+ * and a delta without touching GL, audio or {@code Gdx.input}, so it runs on a plain JVM.
+ * All randomness comes from the seed, so the same seed and inputs always give the same session.
+ * <p>
+ * A world holds one player, or two for co-op: both share the gates, enemies and score, each has its
+ * own bullets, and the game is over once every player is out of lives. {@link #writeState} captures
+ * everything a step depends on, so a world can be rewound and stepped again with corrected inputs.
+ */
+public class World implements Disposable {
+    // Each subsystem draws from its own stream, so a change in how often one of them rolls dice
+    // does not shift every other subsystem's results
+    private static final long ENEMY_STREAM = 0x9E3779B97F4A7C15L;
+    private static final long GATE_STREAM = 0xC2B2AE3D27D4EB4FL;
+    private static final long SWARM_STREAM = 0x165667B19E3779F9L;
+    private static final float SWARM_WAVE_INTERVAL = 3f;
+    // World state the step's jobs read and write, see buildJobs(); players take two bits each from PLAYERS_SHIFT
+    private static final int GATES = 1;
+    private static final int ENEMIES = 1 << 1;
+    private static final int PLAYERS_SHIFT = 2;
+    public static final int MAX_PLAYERS = 2;
+    private static final int STATE_VERSION = 3;
+
+    private long seed;
+    private final Timeline timeline;
+    private final RandomXS128 enemyRandom;
+    private final RandomXS128 gateRandom;
+    private final RandomXS128 swarmRandom;
+    private final Runnable swarmWaveDue = this::onSwarmWaveDue;
+    private int swarmWaveEvent = Timeline.NONE;
+    private int swarmSize; // 0 outside swarm mode
+    private final PlayerManager[] playerManagers;
+    private final EnemyManager enemyManager;
+    private final GateManager gateManager;
+    private final GameStateManager gameStateManager;
+    private CollisionBackend collisionBackend;
+    private CollisionSystem collisionSystem;
+    private final ContactSolver contacts;
+    private int score = 0;
+    private boolean shotFired;
+    private final JobGraph jobs = new JobGraph(JobGraph.sharedPool());
+    private final InputState[] singleInput = new InputState[1];
+    private double stretchEnd; // The stretch being moved to, for the jobs
+    private double stretchDelta;
+
+    public World(long seed) {
+        this(seed, 1);
+    }
+
+    /** A world for {@code playerCount} players, 1 or {@link #MAX_PLAYERS}. */
+    public World(long seed, int playerCount) {
+        if (playerCount < 1 || playerCount > MAX_PLAYERS) throw new IllegalArgumentException("Players: " + playerCount);
+        this.seed = seed;
+        timeline = new Timeline();
+        timeline.register(swarmWaveDue);
+        enemyRandom = new RandomXS128(seed ^ ENEMY_STREAM);
+        gateRandom = new RandomXS128(seed ^ GATE_STREAM);
+        swarmRandom = new RandomXS128(seed ^ SWARM_STREAM);
+        enemyManager = new EnemyManager(timeline, enemyRandom);
+        playerManagers = new PlayerManager[playerCount];
+        for (int p = 0; p < playerCount; p++) {
+            playerManagers[p] = new PlayerManager(timeline, p, playerCount);
+        }
+        gateManager = new GateManager(timeline, gateRandom);
+        gameStateManager = new GameStateManager();
+        contacts = new ContactSolver(timeline, playerManagers, enemyManager, gateManager);
+        setCollisionBackend(CollisionBackend.UNIFORM_GRID);
+        buildJobs();
+    }
+
+    private static int playerBit(int player) {
+        return 1 << (PLAYERS_SHIFT + 2 * player);
+    }
+
+    private static int bulletsBit(int player) {
+        return 1 << (PLAYERS_SHIFT + 2 * player + 1);
+    }
+
+    // Moves everything to the end of a stretch. Contacts are already resolved by then, see
+    // ContactSolver, so the jobs only integrate and drop what left the screen. Each player's jobs
+    // only touch that player's bits, so the players move side by side.
+    private void buildJobs() {
+        for (PlayerManager playerManager : playerManagers) {
+            int player = playerBit(playerManager.getIndex()), bullets = bulletsBit(playerManager.getIndex());
+            jobs.add(Section.PLAYER_UPDATE, 0, player, () -> playerManager.moveTo(stretchEnd));
+            jobs.add(Section.PLAYER_UPDATE, 0, bullets, new JobGraph.Job() {
+                @Override
+                public int size() {
+                    return playerManager.getBullets().size();
+                }
+
+                @Override
+                public void run(int chunk, int from, int to) {
+                    playerManager.moveBullets(stretchDelta, from, to);
+                }
+            });
+            jobs.add(Section.PLAYER_UPDATE, 0, bullets, playerManager::removeSpentBullets);
+        }
+        jobs.add(Section.GATE_UPDATE, 0, GATES, () -> gateManager.move(stretchDelta));
+        jobs.add(Section.ENEMY_UPDATE, 0, ENEMIES, new JobGraph.Job() {
+            @Override
+            public int size() {
+                return enemyManager.getEnemies().size();
+            }
+
+            @Override
+            public void run(int chunk, int from, int to) {
+                enemyManager.move(stretchDelta, from, to);
+            }
+        });
+        jobs.add(Section.ENEMY_UPDATE, 0, ENEMIES, enemyManager::removeExpired);
+    }
+
+    /** Swaps the bullet-enemy broadphase. All backends report identical hits, so this is safe mid-game. */
+    public void setCollisionBackend(CollisionBackend backend) {
+        if (collisionSystem != null) {
+            collisionSystem.dispose();
+        }
+        collisionBackend = backend;
+        collisionSystem = backend.create();
+    }
+
+    public void step(InputState input, float delta) {
+        singleInput[0] = input;
+        step(singleInput, delta);
+        singleInput[0] = null;
+    }
+
+    /**
+     * Steps with one input per player, in player order. On the level complete screen any player may
+     * confirm; once the game has ended, a confirm is that player's vote to restart, see {@link #isRestartAgreed}.
+     */
+    public void step(InputState[] inputs, float delta) {
+        if (inputs.length < playerManagers.length) {
+            throw new IllegalArgumentException(inputs.length + " inputs for " + playerManagers.length + " players");
+        }
+        shotFired = false;
+        if (gameStateManager.isPlaying()) {
+            updatePlaying(inputs, delta);
+        } else if (gameStateManager.isLevelComplete() && anyConfirm(inputs)) {
+            gameStateManager.nextLevel();
+            setLevel(gameStateManager.getCurrentLevel() - 1); // Convert back to 0-based
+        } else if (gameStateManager.isEnded()) {
+            for (int p = 0; p < playerManagers.length; p++) {
+                if (inputs[p].confirm) gameStateManager.voteRestart(p);
+            }
+        }
+    }
+
+    /** True once the game has ended and every player confirmed since; the caller decides when to {@link #reset(long)}. */
+    public boolean isRestartAgreed() {
+        return gameStateManager.isRestartAgreed(playerManagers.length);
+    }
+
+    private boolean anyConfirm(InputState[] inputs) {
+        for (int p = 0; p < playerManagers.length; p++) {
+            if (inputs[p].confirm) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Runs the step as stretches that end where an event is due. Within a stretch everything moves
+     * at a constant velocity, so the contacts in it are solved at their exact times before anything
+     * moves, and the events fire at the times they were scheduled for. The outcome does not depend
+     * on how the session is cut into steps, beyond the inputs being sampled once per step.
+     */
+    private void updatePlaying(InputState[] inputs, float delta) {
+        double stepEnd = timeline.getTime() + delta;
+        for (int p = 0; p < playerManagers.length; p++) {
+            playerManagers[p].beginStep(inputs[p]);
+            if (swarmSize > 0) refillSwarmBullets(playerManagers[p]);
+        }
+        enemyManager.beginStep();
+        gateManager.beginStep();
+
+        while (true) {
+            // Resolve the contacts up to the next due event; a contact may end the stretch early
+            double stretchStart = timeline.getTime();
+            double end = Math.max(stretchStart, Math.min(timeline.getNextDueTime(), stepEnd));
+            double stop = contacts.solve(collisionSystem, stretchStart, end, swarmSize == 0);
+            score += contacts.getPoints();
+
+            // Move the players, bullets, gates and enemies; the graph runs independent systems side by side
+            stretchEnd = stop;
+            stretchDelta = stop - stretchStart;
+            jobs.run();
+
+            // Fire the spawns, shots and timer expiries due now
+            long start = FrameProfiler.begin();
+            timeline.advanceTo(stop);
+            FrameProfiler.end(Section.TIMELINE, start);
+
+            // Check if every player has lost all lives
+            boolean anyAlive = false;
+            for (PlayerManager playerManager : playerManagers) {
+                anyAlive |= playerManager.isAlive();
+            }
+            if (!anyAlive) {
+                gameStateManager.setGameOver(true);
+            }
+
+            // Check if level is complete; a swarm never ends
+            if (swarmSize == 0 && enemyManager.isLevelComplete()) {
+                gameStateManager.setLevelComplete();
+            }
+            if (!gameStateManager.isPlaying() || stop >= stepEnd) break;
+        }
+        for (PlayerManager playerManager : playerManagers) {
+            shotFired |= playerManager.consumeShotFired();
+        }
+    }
+
+    /**
+     * Stress mode: every few seconds a wave tops the enemies up to {@code size}, the bullets are
+     * kept at the same count, and the player cannot die. 0 returns to the normal levels from the next reset.
+     */
+    public void setSwarmSize(int size) {
+        swarmSize = Math.max(0, size);
+        for (PlayerManager playerManager : playerManagers) {
+            playerManager.setGodMode(swarmSize > 0);
+            if (swarmSize > 0) playerManager.ensureBulletCapacity(swarmSize);
+        }
+        timeline.cancel(swarmWaveEvent);
+        swarmWaveEvent = Timeline.NONE;
+        if (swarmSize > 0) {
+            swarmWaveEvent = timeline.schedule(timeline.getTime(), swarmWaveDue);
+        }
+    }
+
+    public int getSwarmSize() {
+        return swarmSize;
+    }
+
+    private void onSwarmWaveDue() {
+        int missing = swarmSize - enemyManager.getEnemies().size();
+        if (missing > 0) {
+            enemyManager.spawnWave(missing);
+        }
+        swarmWaveEvent = timeline.scheduleIn(SWARM_WAVE_INTERVAL, swarmWaveDue);
+    }
+
+    // Fires replacement bullets from random points along the player's line
+    private void refillSwarmBullets(PlayerManager playerManager) {
+        BulletStore bullets = playerManager.getBulletStore();
+        float y = playerManager.getPlayer().y + playerManager.getPlayer().height;
+        float maxX = GameConstants.SCREEN_WIDTH - bullets.getWidth();
+        while (bullets.size() < swarmSize) {
+            bullets.add(swarmRandom.nextFloat() * maxX, y);
+        }
+    }
+
+    /** Applies a swapped {@link io.github.the_actual_game.constants.LevelRepository} table to the running level. */
+    public void reloadLevelConfigs() {
+        enemyManager.reloadLevelConfig();
+        for (PlayerManager playerManager : playerManagers) {
+            playerManager.reloadLevelConfig();
+        }
+        gateManager.reloadLevelConfig();
+    }
+
+    public void setLevel(int level) {
+        enemyManager.setLevel(level);
+        for (PlayerManager playerManager : playerManagers) {
+            playerManager.setLevel(level);
+        }
+        gateManager.setLevel(level);
+    }
+
+    /** Restarts from level 1 with the same seed, so the new session plays out exactly like the first. */
+    public void reset() {
+        reset(seed);
+    }
+
+    /** Restarts from level 1 with a new seed. */
+    public void reset(long seed) {
+        this.seed = seed;
+        enemyRandom.setSeed(seed ^ ENEMY_STREAM);
+        gateRandom.setSeed(seed ^ GATE_STREAM);
+        swarmRandom.setSeed(seed ^ SWARM_STREAM);
+        timeline.clear();
+        gameStateManager.reset();
+        for (PlayerManager playerManager : playerManagers) {
+            playerManager.reset();
+        }
+        enemyManager.reset();
+        gateManager.reset();
+        score = 0;
+        shotFired = false;
+        setSwarmSize(swarmSize); // The cleared timeline dropped the next wave
+    }
+
+    /**
+     * Writes the whole simulation state: the random streams, the clock with its pending events, and
+     * every manager. {@link #readState} on a world built with the same player count restores it
+     * exactly, so stepping both with the same inputs gives the same bytes again. Nothing here is
+     * derived from the level table, so its contents are not written; the collision backend is
+     * rebuilt from the enemies every step and is not part of the state either.
+     */
+    public void writeState(ByteBuffer out) {
+        out.putInt(STATE_VERSION).put((byte) playerManagers.length);
+        out.putLong(seed).putInt(score).put((byte) (shotFired ? 1 : 0));
+        out.putInt(swarmSize).putInt(swarmWaveEvent);
+        writeRandom(out, enemyRandom);
+        writeRandom(out, gateRandom);
+        writeRandom(out, swarmRandom);
+        timeline.writeState(out);
+        gameStateManager.writeState(out);
+        enemyManager.writeState(out);
+        gateManager.writeState(out);
+        for (PlayerManager playerManager : playerManagers) {
+            playerManager.writeState(out);
+        }
+    }
+
+    public void readState(ByteBuffer in) {
+        int version = in.getInt();
+        int players = in.get();
+        if (version != STATE_VERSION || players != playerManagers.length) {
+            throw new IllegalStateException("State version " + version + " for " + players + " players, expected "
+                                            + STATE_VERSION + " for " + playerManagers.length);
+        }
+        seed = in.getLong();
+        score = in.getInt();
+        shotFired = in.get() != 0;
+        swarmSize = in.getInt();
+        swarmWaveEvent = in.getInt();
+        readRandom(in, enemyRandom);
+        readRandom(in, gateRandom);
+        readRandom(in, swarmRandom);
+        timeline.readState(in);
+        gameStateManager.readState(in);
+        enemyManager.readState(in);
+        gateManager.readState(in);
+        for (PlayerManager playerManager : playerManagers) {
+            playerManager.readState(in);
+        }
+    }
+
+    private static void writeRandom(ByteBuffer out, RandomXS128 random) {
+        out.putLong(random.getState(0)).putLong(random.getState(1));
+    }
+
+    private static void readRandom(ByteBuffer in, RandomXS128 random) {
+        long seed0 = in.getLong();
+        random.setState(seed0, in.getLong());
+    }
+
+    public CollisionBackend getCollisionBackend() {
+        return collisionBackend;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /** True if the player fired during the last {@link #step}. */
+    public boolean isShotFired() {
+        return shotFired;
+    }
+
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    /** The first player; the only one outside co-op. */
+    public PlayerManager getPlayerManager() {
+        return playerManagers[0];
+    }
+
+    public PlayerManager getPlayerManager(int index) {
+        return playerManagers[index];
+    }
+
+    public int getPlayerCount() {
+        return playerManagers.length;
+    }
+
+    public EnemyManager getEnemyManager() {
+        return enemyManager;
+    }
+
+    public GateManager getGateManager() {
+        return gateManager;
+    }
+
+    public GameStateManager getGameStateManager() {
+        return gameStateManager;
+    }
+
+    @Override
+    public void dispose() {
+        collisionSystem.dispose();
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.the_actual_game.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Top scores kept in memory. The score file is read once on construction; new entries update the
+ * list immediately and are written back on a background thread. Each write goes to a temp file
+ * that is then renamed over the real one, so a crash mid-write leaves the old file intact.
+ * Only the render thread may call {@link #submit} and {@link #getTopScores}.
+ */
+public class Leaderboard implements Disposable {
+    public static final int MAX_ENTRIES = 10;
+
+    public static class ScoreEntry {
+        public final String name;
+        public final int score;
+        public ScoreEntry(String name, int score) {
+            this.name = name;
+            this.score = score;
+        }
+    }
+
+    private final Path file;
+    private final List<ScoreEntry> entries = new ArrayList<>();
+    private final List<ScoreEntry> readOnlyEntries = Collections.unmodifiableList(entries);
+    // Latest snapshot waiting to be written; older ones are skipped if a newer one arrives first
+    private final AtomicReference<List<ScoreEntry>> pendingWrite = new AtomicReference<>();
+    private final ExecutorService writer;
+
+    public Leaderboard(String scoreFile) {
+        file = Paths.get(scoreFile).toAbsolutePath();
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        load();
+    }
+
+    private void load() {
+        if (!Files.exists(file)) return;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(":");
+                if (parts.length == 2) {
+                    try {
+                        entries.add(new ScoreEntry(parts[0], Integer.parseInt(parts[1].trim())));
+                    } catch (NumberFormatException ignored) {}
+                }
+            }
+        } catch (IOException e) {
+            Gdx.app.error("Leaderboard", "Could not read " + file, e);
+        }
+        entries.sort((a, b) -> Integer.compare(b.score, a.score));
+        while (entries.size() > MAX_ENTRIES) entries.remove(entries.size() - 1);
+    }
+
+    /** Sorted best first. The returned list is a live read-only view. */
+    public List<ScoreEntry> getTopScores() {
+        return readOnlyEntries;
+    }
+
+    /** Adds a score if it makes the table and schedules a write. Returns false if it did not qualify. */
+    public boolean submit(String name, int score) {
+        // Insert after existing entries with the same score, like the old stable sort did
+        int index = 0;
+        while (index < entries.size() && entries.get(index).score >= score) index++;
+        if (index >= MAX_ENTRIES) return false;
+        entries.add(index, new ScoreEntry(name, score));
+        if (entries.size() > MAX_ENTRIES) entries.remove(entries.size() - 1);
+
+        pendingWrite.set(new ArrayList<>(entries));
+        writer.execute(this::writePending);
+        return true;
+    }
+
+    private void writePending() {
+        List<ScoreEntry> snapshot = pendingWrite.getAndSet(null);
+        if (snapshot == null) return; // A later task already wrote a newer snapshot
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (ScoreEntry entry : snapshot) {
+                    out.write(entry.name + ":" + entry.score + "\n");
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Gdx.app.error("Leaderboard", "Could not write " + file, e);
+        }
+    }
+
+    /** Finishes any pending write, waiting a few seconds at most. */
+    @Override
+    public void dispose() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
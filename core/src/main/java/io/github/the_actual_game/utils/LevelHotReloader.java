@@ -0,0 +1,90 @@
+package io.github.the_actual_game.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+
+import io.github.the_actual_game.constants.LevelConfig;
+import io.github.the_actual_game.constants.LevelRepository;
+
+/**
+ * Dev-mode watcher for {@link LevelRepository#SOURCE_FILE}. A daemon thread waits on the file
+ * system and re-parses the JSON when it is saved; the parsed table is swapped in on the render
+ * thread through {@code Gdx.app.postRunnable}, followed by {@code onReload}. A file that does not
+ * parse is logged and the current levels stay in place.
+ */
+public class LevelHotReloader implements Disposable {
+    private static final long SETTLE_MILLIS = 100; // Editors often save in several writes
+
+    private final Path file;
+    private final Runnable onReload;
+    private final WatchService watcher;
+    private final Thread thread;
+
+    public LevelHotReloader(Runnable onReload) throws IOException {
+        this.file = Paths.get(LevelRepository.SOURCE_FILE).toAbsolutePath();
+        this.onReload = onReload;
+        watcher = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watch, "level-hot-reload");
+        thread.setDaemon(true);
+        thread.start();
+        Gdx.app.log("LevelHotReloader", "Watching " + file);
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    changed |= context instanceof Path && file.getFileName().equals(context);
+                }
+                key.reset();
+                if (changed) {
+                    Thread.sleep(SETTLE_MILLIS);
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Disposed
+        }
+    }
+
+    private void reload() {
+        LevelConfig[] levels;
+        try {
+            levels = LevelRepository.parseJson(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            Gdx.app.error("LevelHotReloader", "Keeping current levels, " + file.getFileName() + " did not load", e);
+            return;
+        }
+        Gdx.app.postRunnable(() -> {
+            LevelRepository.setLevels(levels);
+            onReload.run();
+            Gdx.app.log("LevelHotReloader", "Reloaded " + levels.length + " levels");
+        });
+    }
+
+    @Override
+    public void dispose() {
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            Gdx.app.error("LevelHotReloader", "Could not close the file watcher", e);
+        }
+        thread.interrupt();
+    }
+}
@@ -1,27 +1,50 @@
 package io.github.the_actual_game.utils;
 
+import java.util.Arrays;
+
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
+/** Regions of the baked atlas, looked up once by name and then by their {@link AtlasRegions} index. */
 public class SymbolManager {
+    private static final TextureRegion[] regions = new TextureRegion[AtlasRegions.COUNT];
     private static TextureAtlas atlas;
+    private static boolean ownsAtlas;
     
+    /** Uses an atlas loaded elsewhere, e.g. by the AssetManager, which stays its owner. */
+    public static void initialize(TextureAtlas loaded) {
+        dispose();
+        atlas = loaded;
+        ownsAtlas = false;
+        resolveRegions();
+    }
+
     public static void initialize() {
-        atlas = new TextureAtlas(Gdx.files.internal("symbols.atlas"));
+        atlas = new TextureAtlas(Gdx.files.internal(AtlasRegions.ATLAS_FILE));
+        ownsAtlas = true;
+        resolveRegions();
+    }
+
+    private static void resolveRegions() {
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = atlas.findRegion(AtlasRegions.NAMES[i]);
+        }
     }
     
-    public static TextureRegion getSymbol(String name) {
+    /** @param region one of the {@link AtlasRegions} indices */
+    public static TextureRegion getSymbol(int region) {
         if (atlas == null) {
             initialize();
         }
-        return atlas.findRegion(name);
+        return regions[region];
     }
     
     public static void dispose() {
-        if (atlas != null) {
+        if (atlas != null && ownsAtlas) {
             atlas.dispose();
-            atlas = null;
         }
+        atlas = null;
+        Arrays.fill(regions, null);
     }
-} 
\ No newline at end of file
+} 
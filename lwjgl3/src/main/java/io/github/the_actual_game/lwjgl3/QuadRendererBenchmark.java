@@ -0,0 +1,158 @@
+package io.github.the_actual_game.lwjgl3;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.math.RandomXS128;
+
+import io.github.the_actual_game.constants.GameConstants;
+import io.github.the_actual_game.rendering.QuadBatch;
+
+/**
+ * Tool behind the quadBenchmark task: {@code QuadRendererBenchmark [quads...]}. Draws the same
+ * quads with ShapeRenderer, the way the rectangle pass used to, and with {@link QuadBatch}, in a
+ * hidden window. The quads are read from parallel arrays like the entity stores and get one of
+ * the enemy health colours each, so colour changes from quad to quad as in a swarm. Every frame
+ * ends with glFinish, so the times include the upload and the GPU work, not just the calls. The
+ * two renderers take turns in rounds so clock and thermal drift hit both alike. Needs a GL context,
+ * so unlike the JMH benchmarks it does not run headless.
+ */
+public class QuadRendererBenchmark extends ApplicationAdapter {
+    private static final int[] DEFAULT_QUADS = { 1000, 10000, 50000 };
+    private static final int WARMUP_FRAMES = 200;
+    private static final int ROUNDS = 10;
+    private static final int FRAMES_PER_ROUND = 50;
+    private static final int SHAPE_VERTICES = 5000 * 6; // What GameScreen gave its ShapeRenderer
+    private static final int COLORS = 16;
+    private static final long SEED = 42;
+
+    private final int[] quadCounts;
+    private ShapeRenderer shapeRenderer;
+    private QuadBatch quadBatch;
+    private final Color color = new Color();
+    private float[] x, y, width, height, packedColor;
+    private float[] vertices;
+
+    public QuadRendererBenchmark(int[] quadCounts) {
+        this.quadCounts = quadCounts;
+    }
+
+    public static void main(String[] args) {
+        int[] quads = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : DEFAULT_QUADS;
+        Lwjgl3ApplicationConfiguration configuration = new Lwjgl3ApplicationConfiguration();
+        configuration.setTitle("Quad renderer benchmark");
+        configuration.setWindowedMode(360, 640);
+        configuration.setInitialVisible(false);
+        configuration.useVsync(false);
+        configuration.disableAudio(true);
+        new Lwjgl3Application(new QuadRendererBenchmark(quads), configuration);
+    }
+
+    @Override
+    public void create() {
+        OrthographicCamera camera = new OrthographicCamera();
+        camera.setToOrtho(false, GameConstants.SCREEN_WIDTH, GameConstants.SCREEN_HEIGHT);
+        camera.update();
+        shapeRenderer = new ShapeRenderer(SHAPE_VERTICES);
+        shapeRenderer.setProjectionMatrix(camera.combined);
+        quadBatch = new QuadBatch();
+        quadBatch.setProjectionMatrix(camera.combined);
+
+        System.out.printf("%8s %22s %22s %8s%n", "quads", "ShapeRenderer ms", "QuadBatch ms", "speedup");
+        for (int quads : quadCounts) {
+            createQuads(quads);
+            long[] shapeNanos = new long[ROUNDS * FRAMES_PER_ROUND];
+            long[] batchNanos = new long[ROUNDS * FRAMES_PER_ROUND];
+            measure(false, quads, new long[WARMUP_FRAMES], 0, WARMUP_FRAMES);
+            measure(true, quads, new long[WARMUP_FRAMES], 0, WARMUP_FRAMES);
+            for (int round = 0; round < ROUNDS; round++) {
+                measure(false, quads, shapeNanos, round * FRAMES_PER_ROUND, FRAMES_PER_ROUND);
+                measure(true, quads, batchNanos, round * FRAMES_PER_ROUND, FRAMES_PER_ROUND);
+            }
+            float shape = median(shapeNanos), batch = median(batchNanos);
+            System.out.printf("%8d %11.3f (p99 %6.3f) %11.3f (p99 %6.3f) %7.1fx%n", quads,
+                              shape, percentile(shapeNanos, 0.99f), batch, percentile(batchNanos, 0.99f), shape / batch);
+        }
+        Gdx.app.exit();
+    }
+
+    // Screen-filling quads sized like enemies, in a fixed order
+    private void createQuads(int quads) {
+        RandomXS128 random = new RandomXS128(SEED + quads);
+        float[] palette = new float[COLORS];
+        for (int i = 0; i < COLORS; i++) {
+            float transition = i / (float) (COLORS - 1); // Green through yellow to red, see EnemyStore#hit
+            palette[i] = Color.toFloatBits(Math.min(1, transition * 2), Math.min(1, 2 - transition * 2), 0, 1);
+        }
+        x = new float[quads];
+        y = new float[quads];
+        width = new float[quads];
+        height = new float[quads];
+        packedColor = new float[quads];
+        for (int i = 0; i < quads; i++) {
+            width[i] = 8 + random.nextFloat() * 32;
+            height[i] = 8 + random.nextFloat() * 32;
+            x[i] = random.nextFloat() * (GameConstants.SCREEN_WIDTH - width[i]);
+            y[i] = random.nextFloat() * (GameConstants.SCREEN_HEIGHT - height[i]);
+            packedColor[i] = palette[random.nextInt(COLORS)];
+        }
+        vertices = new float[quads * QuadBatch.QUAD_FLOATS];
+    }
+
+    private void measure(boolean useBatch, int quads, long[] nanos, int from, int frames) {
+        for (int frame = from; frame < from + frames; frame++) {
+            long start = System.nanoTime();
+            if (useBatch) {
+                drawBatch(quads);
+            } else {
+                drawShapes(quads);
+            }
+            Gdx.gl.glFinish();
+            nanos[frame] = System.nanoTime() - start;
+        }
+    }
+
+    // The rectangle pass as RenderQueue submitted it before QuadBatch
+    private void drawShapes(int quads) {
+        shapeRenderer.begin(ShapeType.Filled);
+        for (int i = 0; i < quads; i++) {
+            if (i == 0 || packedColor[i] != packedColor[i - 1]) {
+                Color.abgr8888ToColor(color, packedColor[i]);
+                shapeRenderer.setColor(color);
+            }
+            shapeRenderer.rect(x[i], y[i], width[i], height[i]);
+        }
+        shapeRenderer.end();
+    }
+
+    private void drawBatch(int quads) {
+        for (int i = 0; i < quads; i++) {
+            QuadBatch.putQuad(vertices, i, x[i], y[i], width[i], height[i], packedColor[i]);
+        }
+        quadBatch.draw(vertices, quads);
+    }
+
+    private static float median(long[] nanos) {
+        return percentile(nanos, 0.5f);
+    }
+
+    // In milliseconds
+    private static float percentile(long[] nanos, float fraction) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) (fraction * sorted.length))] / 1_000_000f;
+    }
+
+    @Override
+    public void dispose() {
+        shapeRenderer.dispose();
+        quadBatch.dispose();
+    }
+}
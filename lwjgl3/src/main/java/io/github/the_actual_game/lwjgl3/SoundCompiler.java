@@ -0,0 +1,89 @@
+package io.github.the_actual_game.lwjgl3;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.MP3Decoder;
+import javazoom.jl.decoder.OutputBuffer;
+
+/**
+ * Build step behind the compileSounds task: {@code SoundCompiler <input.mp3> <output.wav>}. Decodes
+ * the MP3 with the same JLayer decoder the desktop backend would run at startup and writes 16-bit
+ * PCM, so loading the sound in game is a plain copy into an OpenAL buffer.
+ */
+public class SoundCompiler {
+    private static final int HEADER_BYTES = 44;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: SoundCompiler <input.mp3> <output.wav>");
+            System.exit(2);
+        }
+        Path source = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+
+        ByteArrayOutputStream pcm = new ByteArrayOutputStream(1 << 16);
+        int channels = -1, sampleRate = -1;
+        try (InputStream in = Files.newInputStream(source)) {
+            Bitstream bitstream = new Bitstream(in);
+            MP3Decoder decoder = new MP3Decoder();
+            OutputBuffer outputBuffer = null;
+            while (true) {
+                Header header = bitstream.readFrame();
+                if (header == null) break;
+                if (outputBuffer == null) {
+                    channels = header.mode() == Header.SINGLE_CHANNEL ? 1 : 2;
+                    sampleRate = header.getSampleRate();
+                    outputBuffer = new OutputBuffer(channels, false); // Little-endian, as WAV wants
+                    decoder.setOutputBuffer(outputBuffer);
+                }
+                try {
+                    decoder.decodeFrame(header, bitstream);
+                } catch (Exception ignored) {
+                    // The backend skips frames JLayer fails on too, keep the output identical
+                }
+                bitstream.closeFrame();
+                pcm.write(outputBuffer.getBuffer(), 0, outputBuffer.reset());
+            }
+            bitstream.close();
+        }
+        if (channels < 0) {
+            throw new IOException("No MP3 frames in " + source);
+        }
+
+        Path parent = output.getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (OutputStream out = Files.newOutputStream(output)) {
+            out.write(wavHeader(pcm.size(), channels, sampleRate));
+            pcm.writeTo(out);
+        }
+        float seconds = pcm.size() / (float) (sampleRate * channels * 2);
+        System.out.printf("Decoded %s to %s (%d Hz, %d ch, %.2f s, %d bytes)%n",
+                          source, output, sampleRate, channels, seconds, Files.size(output));
+    }
+
+    // Canonical 44-byte RIFF header for 16-bit PCM
+    private static byte[] wavHeader(int dataBytes, int channels, int sampleRate) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(new byte[] {'R', 'I', 'F', 'F'}).putInt(HEADER_BYTES - 8 + dataBytes);
+        header.put(new byte[] {'W', 'A', 'V', 'E'});
+        header.put(new byte[] {'f', 'm', 't', ' '}).putInt(16);
+        header.putShort((short) 1); // PCM
+        header.putShort((short) channels);
+        header.putInt(sampleRate);
+        header.putInt(sampleRate * channels * 2); // Byte rate
+        header.putShort((short) (channels * 2)); // Block align
+        header.putShort((short) 16);
+        header.put(new byte[] {'d', 'a', 't', 'a'}).putInt(dataBytes);
+        return header.array();
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.the_actual_game.lwjgl3;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tool behind the startupBenchmark task: {@code StartupBenchmark <jar> <archive.jsa> [runs]}. Starts
+ * the game alternately with and without the CDS archive, each run with -DexitAfterStartup so it
+ * quits once interactive, and compares the startup.csv rows the runs write. Both columns count from
+ * JVM start, see StartupMetrics.
+ */
+public class StartupBenchmark {
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: StartupBenchmark <jar> <archive.jsa> [runs]");
+            System.exit(2);
+        }
+        Path jar = Paths.get(args[0]).toAbsolutePath();
+        Path archive = Paths.get(args[1]).toAbsolutePath();
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        if (!Files.exists(archive)) {
+            throw new IOException(archive + " not found, run the cdsArchive task first");
+        }
+
+        Path workDir = Files.createTempDirectory("startup-benchmark");
+        float[][] without = new float[2][runs];
+        float[][] with = new float[2][runs];
+        // Interleaved, so disk cache and thermal drift hit both sides alike
+        for (int run = 0; run < runs; run++) {
+            measure(jar, null, workDir, without, run);
+            measure(jar, archive, workDir, with, run);
+        }
+
+        System.out.printf("%-12s %18s %18s%n", "median ms", "first frame", "interactive");
+        print("default", without);
+        print("CDS archive", with);
+        System.out.printf("%-12s %17.1f%% %17.1f%%%n", "saved",
+                          100 * (1 - median(with[0]) / median(without[0])),
+                          100 * (1 - median(with[1]) / median(without[1])));
+    }
+
+    private static void measure(Path jar, Path archive, Path workDir, float[][] results, int run)
+            throws IOException, InterruptedException {
+        Path csv = workDir.resolve("startup.csv");
+        Files.deleteIfExists(csv);
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (archive != null) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        if (System.getProperty("os.name").toLowerCase().contains("mac")) {
+            command.add("-XstartOnFirstThread");
+        }
+        command.addAll(Arrays.asList("-DexitAfterStartup=true", "-cp", jar.toString(), Lwjgl3Launcher.class.getName()));
+        Process process = new ProcessBuilder(command)
+            .directory(workDir.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.to(new File(workDir.toFile(), "run.log")))
+            .start();
+        int exit = process.waitFor();
+        if (exit != 0 || !Files.exists(csv)) {
+            throw new IOException("Run " + run + " failed (exit " + exit + "), see " + workDir.resolve("run.log"));
+        }
+        // Header, then this run's row: timestamp,version,first_frame_ms,interactive_ms
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        String[] fields = lines.get(lines.size() - 1).split(",");
+        results[0][run] = Float.parseFloat(fields[2]);
+        results[1][run] = Float.parseFloat(fields[3]);
+    }
+
+    private static void print(String label, float[][] results) {
+        System.out.printf("%-12s %18.1f %18.1f%n", label, median(results[0]), median(results[1]));
+    }
+
+    private static float median(float[] values) {
+        float[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
@@ -0,0 +1,266 @@
+package io.github.the_actual_game.tools;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineMetrics;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Build step behind the bakeAtlas task: {@code AtlasBaker <fonts dir> <atlas output dir> <java output dir>}.
+ * Draws the gate symbols, rasterizes the game's fonts and packs all of it onto one atlas page, so text
+ * and symbols are drawn from the same texture. Writes the page, a libGDX .atlas file, a BMFont .fnt
+ * file per font whose glyphs are relative to the font's region, and AtlasRegions.java with an index
+ * constant per region so the game never looks regions up by name.
+ */
+public class AtlasBaker {
+    private static final String ATLAS_DIR = "atlas"; // Under assets/, as the game addresses it
+    private static final String ATLAS_NAME = "game";
+    private static final String PACKAGE = "io.github.the_actual_game.utils";
+    private static final int PADDING = 2; // Between packed images, so linear filtering does not bleed
+    private static final int FONT_BLOCK_WIDTH = 256;
+    private static final int MAX_PAGE_SIZE = 2048;
+    private static final int SYMBOL_SIZE = 32;
+
+    // Symbols in region index order, drawn by drawSymbol
+    private static final String[] SYMBOLS = {"speed_up", "speed_down", "shots_up", "shots_down"};
+
+    private record FontSpec(String name, String file, int size) {}
+
+    private static final FontSpec[] FONTS = {
+        new FontSpec("hud", "Roboto-Regular.ttf", 30),
+        new FontSpec("debug", "Roboto-Regular.ttf", 16),
+    };
+    private static final String EXTRA_CHARACTERS = "⚡↑↓⊕⊖"; // Baked when the font has them
+
+    // One image on the page; x and y are set by the packer
+    private static final class Item {
+        final String name;
+        final BufferedImage image;
+        int x, y;
+
+        Item(String name, BufferedImage image) {
+            this.name = name;
+            this.image = image;
+        }
+    }
+
+    private record Glyph(int codePoint, BufferedImage image, int xOffset, int yOffset, int advance) {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.err.println("Usage: AtlasBaker <fonts dir> <atlas output dir> <java output dir>");
+            System.exit(2);
+        }
+        Path fontsDir = Paths.get(args[0]);
+        Path atlasOutput = Paths.get(args[1]);
+        Path javaOutput = Paths.get(args[2]);
+        Files.createDirectories(atlasOutput);
+
+        List<Item> items = new ArrayList<>();
+        for (String symbol : SYMBOLS) {
+            items.add(new Item(symbol, drawSymbol(symbol)));
+        }
+        for (FontSpec spec : FONTS) {
+            items.add(bakeFont(spec, fontsDir.resolve(spec.file()), atlasOutput));
+        }
+
+        int pageWidth = 128;
+        int pageHeight;
+        while ((pageHeight = pack(items, pageWidth)) > pageWidth) {
+            pageWidth *= 2;
+            if (pageWidth > MAX_PAGE_SIZE) throw new IOException("Atlas does not fit on one " + MAX_PAGE_SIZE + " page");
+        }
+        pageHeight = pageWidth;
+
+        BufferedImage page = new BufferedImage(pageWidth, pageHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = page.createGraphics();
+        for (Item item : items) {
+            g.drawImage(item.image, item.x, item.y, null);
+        }
+        g.dispose();
+        ImageIO.write(page, "png", atlasOutput.resolve(ATLAS_NAME + ".png").toFile());
+        writeAtlas(items, pageWidth, pageHeight, atlasOutput.resolve(ATLAS_NAME + ".atlas"));
+        writeRegionClass(items, javaOutput);
+        System.out.printf("Baked %d regions onto a %dx%d page in %s%n", items.size(), pageWidth, pageHeight, atlasOutput);
+    }
+
+    // Same shapes the old Python script drew, white so the batch colour tints them
+    private static BufferedImage drawSymbol(String symbol) {
+        BufferedImage image = new BufferedImage(SYMBOL_SIZE, SYMBOL_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        int p = 4;
+        switch (symbol) {
+            case "speed_up" -> {
+                g.fillPolygon(new int[] {16, 8, 24}, new int[] {p, p + 12, p + 12}, 3);
+                g.fillPolygon(new int[] {16, 8, 24}, new int[] {p + 16, p + 28, p + 28}, 3);
+            }
+            case "speed_down" -> {
+                g.fillPolygon(new int[] {16, 8, 24}, new int[] {p + 28, p + 16, p + 16}, 3);
+                g.fillPolygon(new int[] {16, 8, 24}, new int[] {p + 12, p, p}, 3);
+            }
+            case "shots_up" -> {
+                g.fillRect(14, p + 4, 5, 25);
+                g.fillRect(4, p + 14, 25, 5);
+            }
+            case "shots_down" -> g.fillRect(4, p + 14, 25, 5);
+            default -> throw new IllegalArgumentException("No drawing for symbol " + symbol);
+        }
+        g.dispose();
+        return image;
+    }
+
+    // Rasterizes the font into one block image and writes its .fnt next to the atlas
+    private static Item bakeFont(FontSpec spec, Path ttf, Path atlasOutput) throws IOException, FontFormatException {
+        Font font = Font.createFont(Font.TRUETYPE_FONT, ttf.toFile()).deriveFont((float) spec.size());
+        FontRenderContext context = new FontRenderContext(null, true, true);
+        LineMetrics metrics = font.getLineMetrics("Ag", context);
+        int base = (int) Math.ceil(metrics.getAscent());
+        int lineHeight = (int) Math.ceil(metrics.getAscent() + metrics.getDescent() + metrics.getLeading());
+
+        StringBuilder characters = new StringBuilder();
+        for (char c = 32; c < 127; c++) characters.append(c);
+        characters.append(EXTRA_CHARACTERS);
+
+        List<Glyph> glyphs = new ArrayList<>();
+        List<Item> glyphItems = new ArrayList<>();
+        characters.codePoints().filter(font::canDisplay).forEach(codePoint -> {
+            GlyphVector vector = font.createGlyphVector(context, Character.toChars(codePoint));
+            Rectangle bounds = vector.getPixelBounds(context, 0, 0);
+            int advance = Math.round(vector.getGlyphMetrics(0).getAdvanceX());
+            BufferedImage image = null;
+            if (bounds.width > 0 && bounds.height > 0) {
+                image = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = image.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+                g.setColor(Color.WHITE);
+                g.drawGlyphVector(vector, -bounds.x, -bounds.y);
+                g.dispose();
+                glyphItems.add(new Item(Integer.toString(codePoint), image));
+            }
+            // BMFont measures yoffset from the top of the line, the pixel bounds from the baseline
+            glyphs.add(new Glyph(codePoint, image, bounds.x, base + bounds.y, advance));
+        });
+
+        int blockHeight = pack(glyphItems, FONT_BLOCK_WIDTH);
+        BufferedImage block = new BufferedImage(FONT_BLOCK_WIDTH, Math.max(1, blockHeight), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = block.createGraphics();
+        for (Item item : glyphItems) {
+            g.drawImage(item.image, item.x, item.y, null);
+        }
+        g.dispose();
+
+        StringBuilder fnt = new StringBuilder();
+        fnt.append(String.format(Locale.ROOT,
+            "info face=\"%s\" size=%d bold=0 italic=0 charset=\"\" unicode=1 stretchH=100 smooth=1 aa=1 padding=0,0,0,0 spacing=%d,%d%n",
+            font.getFontName(Locale.ROOT), spec.size(), PADDING, PADDING));
+        fnt.append(String.format(Locale.ROOT, "common lineHeight=%d base=%d scaleW=%d scaleH=%d pages=1 packed=0%n",
+            lineHeight, base, block.getWidth(), block.getHeight()));
+        // The page is the font's region in the atlas, found by this name
+        fnt.append(String.format(Locale.ROOT, "page id=0 file=\"%s.png\"%n", spec.name()));
+        fnt.append(String.format(Locale.ROOT, "chars count=%d%n", glyphs.size()));
+        int next = 0;
+        for (Glyph glyph : glyphs) {
+            int x = 0, y = 0, width = 0, height = 0;
+            if (glyph.image() != null) {
+                Item item = glyphItems.get(next++);
+                x = item.x;
+                y = item.y;
+                width = item.image.getWidth();
+                height = item.image.getHeight();
+            }
+            fnt.append(String.format(Locale.ROOT,
+                "char id=%d x=%d y=%d width=%d height=%d xoffset=%d yoffset=%d xadvance=%d page=0 chnl=15%n",
+                glyph.codePoint(), x, y, width, height, glyph.xOffset(), glyph.yOffset(), glyph.advance()));
+        }
+        Files.write(atlasOutput.resolve(spec.name() + ".fnt"), fnt.toString().getBytes(StandardCharsets.UTF_8));
+        return new Item(spec.name(), block);
+    }
+
+    // Shelf packer: tallest first, left to right in rows. Sets each item's position and returns the
+    // height used, or a value above the width when the items do not fit in a square of that size.
+    private static int pack(List<Item> items, int width) {
+        List<Item> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingInt((Item item) -> item.image.getHeight()).reversed());
+        int x = 0, y = 0, rowHeight = 0;
+        for (Item item : sorted) {
+            int w = item.image.getWidth(), h = item.image.getHeight();
+            if (w > width) return Integer.MAX_VALUE;
+            if (x + w > width) {
+                x = 0;
+                y += rowHeight + PADDING;
+                rowHeight = 0;
+            }
+            item.x = x;
+            item.y = y;
+            x += w + PADDING;
+            rowHeight = Math.max(rowHeight, h);
+        }
+        return y + rowHeight;
+    }
+
+    private static void writeAtlas(List<Item> items, int width, int height, Path file) throws IOException {
+        StringBuilder out = new StringBuilder();
+        out.append(ATLAS_NAME).append(".png\n");
+        out.append("size: ").append(width).append(", ").append(height).append('\n');
+        out.append("format: RGBA8888\nfilter: Linear,Linear\nrepeat: none\n");
+        for (Item item : items) {
+            int w = item.image.getWidth(), h = item.image.getHeight();
+            out.append(item.name).append('\n');
+            out.append("  rotate: false\n");
+            out.append("  xy: ").append(item.x).append(", ").append(item.y).append('\n');
+            out.append("  size: ").append(w).append(", ").append(h).append('\n');
+            out.append("  orig: ").append(w).append(", ").append(h).append('\n');
+            out.append("  offset: 0, 0\n");
+            out.append("  index: -1\n");
+        }
+        Files.write(file, out.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeRegionClass(List<Item> items, Path javaOutput) throws IOException {
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(PACKAGE).append(";\n\n");
+        out.append("/** Generated by AtlasBaker, do not edit. Region indices into {@link #NAMES} for the baked atlas. */\n");
+        out.append("public final class AtlasRegions {\n");
+        out.append("    public static final String ATLAS_FILE = \"").append(ATLAS_DIR).append('/').append(ATLAS_NAME).append(".atlas\";\n");
+        for (FontSpec spec : FONTS) {
+            out.append("    public static final String ").append(spec.name().toUpperCase(Locale.ROOT))
+               .append("_FONT_FILE = \"").append(ATLAS_DIR).append('/').append(spec.name()).append(".fnt\";\n");
+        }
+        out.append('\n');
+        for (int i = 0; i < items.size(); i++) {
+            out.append("    public static final int ").append(items.get(i).name.toUpperCase(Locale.ROOT))
+               .append(" = ").append(i).append(";\n");
+        }
+        out.append("    public static final int COUNT = ").append(items.size()).append(";\n\n");
+        out.append("    static final String[] NAMES = {");
+        for (int i = 0; i < items.size(); i++) {
+            out.append(i == 0 ? "" : ", ").append('"').append(items.get(i).name).append('"');
+        }
+        out.append("};\n\n");
+        out.append("    private AtlasRegions() {}\n");
+        out.append("}\n");
+
+        Path file = javaOutput.resolve(PACKAGE.replace('.', '/')).resolve("AtlasRegions.java");
+        Files.createDirectories(file.getParent());
+        Files.write(file, out.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}